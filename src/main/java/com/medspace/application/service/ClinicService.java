@@ -4,18 +4,22 @@ import com.medspace.domain.model.Clinic;
 import com.medspace.domain.model.ClinicAvailability;
 import com.medspace.domain.model.ClinicEquipment;
 import com.medspace.domain.model.ClinicPhoto;
-import com.medspace.domain.model.Review;
 import com.medspace.domain.repository.ClinicAvailabilityRepository;
+import com.medspace.domain.repository.ClinicCalendarRepository;
 import com.medspace.domain.repository.ClinicEquipmentRepository;
 import com.medspace.domain.repository.ClinicPhotoRepository;
 import com.medspace.domain.repository.ClinicRepository;
-import com.medspace.domain.repository.ReviewRepository;
+import com.medspace.infrastructure.dto.clinic.CityFilterDTO;
+import com.medspace.infrastructure.dto.clinic.ClinicFacetCountDTO;
 import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
+import com.medspace.infrastructure.dto.common.ResourceVersionDTO;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import java.util.Set;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 @ApplicationScoped
@@ -23,13 +27,13 @@ public class ClinicService {
     @Inject
     ClinicRepository clinicRepository;
     @Inject
-    ReviewRepository reviewRepository;
-    @Inject
     ClinicPhotoRepository clinicPhotoRepository;
     @Inject
     ClinicEquipmentRepository clinicEquipmentRepository;
     @Inject
     ClinicAvailabilityRepository clinicAvailabilityRepository;
+    @Inject
+    ClinicCalendarRepository clinicCalendarRepository;
 
     public Clinic createClinic(Clinic clinic) {
         clinic.setCreatedAt(Instant.now());
@@ -78,13 +82,37 @@ public class ClinicService {
     }
 
     public Double getAverageRatingById(Long clinicId) {
-        List<Review> reviews = reviewRepository.getReviewsByClinicId(clinicId);
+        Clinic clinic = clinicRepository.getClinicById(clinicId);
+        if (clinic == null) {
+            return null;
+        }
+        return getAverageRating(clinic);
+    }
 
-        if (reviews.isEmpty()) {
+    // Served from the rating aggregate stored on the clinic, or null if there are no ratings
+    public Double getAverageRating(Clinic clinic) {
+        if (clinic.getRatingCount() == null || clinic.getRatingCount() == 0) {
             return null;
         }
-        int totalRating = reviews.stream().mapToInt(Review::getRating).sum();
-        return Double.valueOf(totalRating) / reviews.size();
+        return clinic.getRatingSum().doubleValue() / clinic.getRatingCount();
+    }
+
+    // Calendar methods
+
+    public List<LocalDate> getFreeDays(Long clinicId, LocalDate from, LocalDate to) {
+        return clinicCalendarRepository.getFreeDays(clinicId, from, to);
+    }
+
+    public List<LocalDate> getNextFreeDays(Long clinicId, LocalDate from, int count) {
+        return clinicCalendarRepository.getNextFreeDays(clinicId, from, count);
+    }
+
+    public List<LocalDate> getFreeDates(Long clinicId, List<LocalDate> dates) {
+        return clinicCalendarRepository.getFreeDates(clinicId, dates);
+    }
+
+    public boolean isBookable(Long clinicId, List<LocalDate> dates) {
+        return clinicCalendarRepository.isBookable(clinicId, dates);
     }
 
     // Photo methods
@@ -103,6 +131,11 @@ public class ClinicService {
         return clinicPhotoRepository.getClinicPhotosByClinicId(clinicId);
     }
 
+    public Map<Long, List<ClinicPhoto>> listPhotosByClinicIds(List<Long> clinicIds) {
+        return clinicPhotoRepository.getClinicPhotosByClinicIds(clinicIds).stream()
+                .collect(Collectors.groupingBy(clinicPhoto -> clinicPhoto.getClinic().getId()));
+    }
+
     public String getMainPhotoPathByClinicId(Long clinicId) {
         List<ClinicPhoto> clinicPhotos = clinicPhotoRepository.getClinicPhotosByClinicId(clinicId);
         if (clinicPhotos.isEmpty()) {
@@ -156,6 +189,11 @@ public class ClinicService {
         return clinicEquipmentRepository.getEquipmentsByClinicId(clinicId);
     }
 
+    public Map<Long, List<ClinicEquipment>> getEquipmentsByClinicIds(List<Long> clinicIds) {
+        return clinicEquipmentRepository.getEquipmentsByClinicIds(clinicIds).stream().collect(
+                Collectors.groupingBy(clinicEquipment -> clinicEquipment.getClinic().getId()));
+    }
+
     public void deleteClinicEquipmentById(Long id) {
         clinicEquipmentRepository.deleteEquipmentById(id);
     }
@@ -181,6 +219,13 @@ public class ClinicService {
         return clinicAvailabilityRepository.getAvailabilitiesByClinicId(clinicId);
     }
 
+    public Map<Long, List<ClinicAvailability>> getAvailabilitiesByClinicIds(
+            List<Long> clinicIds) {
+        return clinicAvailabilityRepository.getAvailabilitiesByClinicIds(clinicIds).stream()
+                .collect(Collectors.groupingBy(
+                        clinicAvailability -> clinicAvailability.getClinic().getId()));
+    }
+
     public void deleteClinicAvailabilityById(Long id) {
         clinicAvailabilityRepository.deleteAvailabilityById(id);
     }
@@ -204,11 +249,23 @@ public class ClinicService {
     public long countByCity(String city) {
         return clinicRepository.countByCity(city);
     }    
-    public Set<String> findAllUniqueCities() {
+    public List<CityFilterDTO> findAllUniqueCities() {
         return clinicRepository.findAllUniqueCities();
     }
     public long getByCategoryAndCity(Clinic.Category category, String city){
         return clinicRepository.getByCategoryAndCity(category, city);
     }
+
+    public List<ClinicFacetCountDTO> getFacetCounts(boolean includeEquipment) {
+        return clinicRepository.getFacetCounts(includeEquipment);
+    }
+
+    public ResourceVersionDTO getClinicVersion(Long clinicId) {
+        return clinicRepository.getClinicVersion(clinicId);
+    }
+
+    public ResourceVersionDTO getClinicsVersion() {
+        return clinicRepository.getClinicsVersion();
+    }
     
 }
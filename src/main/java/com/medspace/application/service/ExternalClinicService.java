@@ -1,18 +1,51 @@
 package com.medspace.application.service;
 
 import com.medspace.domain.model.ExternalClinic;
+import com.medspace.domain.model.ExternalClinicSyncCheckpoint;
+import com.medspace.domain.model.ExternalClinicSyncCheckpoint.Status;
 import com.medspace.domain.repository.ExternalClinicRepository;
+import com.medspace.domain.repository.ExternalClinicSyncCheckpointRepository;
+import com.medspace.infrastructure.client.DenueDumpReader;
 import com.medspace.infrastructure.client.ExternalClinicApiClient;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicResponseDTO;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicSyncReportDTO;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicTileDTO;
 import com.medspace.infrastructure.dto.externalClinic.GetExternalClinicSpecialistsDashboardDTO;
 import com.medspace.infrastructure.dto.common.PaginationDTO;
+import com.medspace.infrastructure.job.JobProgress;
+import com.medspace.infrastructure.mapper.ExternalClinicResponseMapper;
+import com.medspace.infrastructure.util.BoundedPipeline;
+import com.medspace.infrastructure.util.PointColumnsEncoder;
+import com.medspace.infrastructure.util.SpecialtyDetector;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 @ApplicationScoped
 public class ExternalClinicService {
+    private static final Logger LOGGER = Logger.getLogger(ExternalClinicService.class.getName());
+    private static final int INGESTION_QUEUE_CAPACITY = 2000;
+    private static final int INGESTION_CHUNK_SIZE = 1000;
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final String ALL_STATES = "01,02,03,04,05,06,07,08,09,10,11,12,13,14,15,16,"
+            + "17,18,19,20,21,22,23,24,25,26,27,28,29,30,31,32";
 
     @Inject
     ExternalClinicRepository repository;
@@ -20,26 +53,241 @@ public class ExternalClinicService {
     @Inject
     ExternalClinicApiClient apiClient;
 
+    @Inject
+    ExternalClinicSyncCheckpointRepository checkpointRepository;
+
+    @Inject
+    DenueDumpReader dumpReader;
+
+    // INEGI state codes to sync, each its own shard
+    @ConfigProperty(name = "external.clinic.sync.states", defaultValue = ALL_STATES)
+    List<String> syncStates;
+
+    // Activity descriptions to sync, comma separated
+    @ConfigProperty(name = "external.clinic.sync.activities",
+            defaultValue = ExternalClinicApiClient.DEFAULT_ACTIVITY)
+    List<String> syncActivities;
+
+    // A cycle whose oldest checkpoint is older than this starts over, even with shards unfinished
+    @ConfigProperty(name = "external.clinic.sync.refresh-interval", defaultValue = "P7D")
+    Duration refreshInterval;
+
+    // The only directory dump files are imported from
+    @ConfigProperty(name = "external.clinic.import.directory", defaultValue = "imports")
+    String importDirectory;
+
     public List<GetExternalClinicSpecialistsDashboardDTO> getDashboardDataWithPagination(
             PaginationDTO pagination) {
         return repository.getExternalClinicSpecialistsDashboardData(pagination);
     }
 
-    public List<GetExternalClinicSpecialistsDashboardDTO> getDashboardDataAll() {
-        return repository.getAllExternalClinicSpecialistsDashboardData();
+    public PointColumnsEncoder getDashboardPoints() {
+        return repository.getDashboardPoints();
     }
 
-    @Transactional
-    public void fetchAndSaveClinics() {
-        List<ExternalClinic> clinics = apiClient.fetchClinics();
-        for (ExternalClinic clinic : clinics) {
-            clinic.setCreatedAt(Instant.now());
+    public ExternalClinicTileDTO getTile(int z, int x, int y) {
+        return repository.getTile(z, x, y);
+    }
+
+    public void forEachDashboardRow(Consumer<GetExternalClinicSpecialistsDashboardDTO> consumer) {
+        repository.forEachDashboardRow(consumer);
+    }
+
+    /**
+     * Syncs the external API into the database one shard (state and activity) at a time. Each
+     * shard streams through separate fetch, map, classify and upsert stages with bounded queues
+     * between them, so memory stays flat however many records are loaded. Records whose content
+     * hash matches the stored one are not written, and the shard's checkpoint advances as each
+     * chunk commits. A failed shard is left where it stopped while the others carry on; the next
+     * run resumes the unfinished shards from their checkpoints. A run starts over from the first
+     * record once every shard has completed, or once the cycle is older than the refresh
+     * interval, so a shard that keeps failing can't keep the others from being refreshed.
+     * Interrupting the calling thread cancels the sync, and the next run resumes after the last
+     * chunk that committed.
+     */
+    public ExternalClinicSyncReportDTO fetchAndSaveClinics(JobProgress progress) {
+        Map<String, ExternalClinicSyncCheckpoint> saved = new HashMap<>();
+        checkpointRepository.getCheckpoints()
+                .forEach(checkpoint -> saved.put(checkpoint.getShard(), checkpoint));
+        List<ExternalClinicSyncCheckpoint> shards = new ArrayList<>();
+        for (String state : syncStates) {
+            for (String activity : syncActivities) {
+                ExternalClinicSyncCheckpoint shard = new ExternalClinicSyncCheckpoint(state.trim(),
+                        activity.trim());
+                shards.add(saved.getOrDefault(shard.getShard(), shard));
+            }
+        }
+
+        boolean finished =
+                shards.stream().allMatch(shard -> shard.getStatus() == Status.COMPLETED);
+        // Completed shards keep the time they finished, so the oldest one dates the cycle
+        Instant cycleStarted = shards.stream().map(ExternalClinicSyncCheckpoint::getUpdatedAt)
+                .filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null);
+        boolean expired = cycleStarted != null
+                && cycleStarted.isBefore(Instant.now().minus(refreshInterval));
+        boolean restart = finished || expired;
+        // Resuming when an earlier run left checkpoints behind without finishing
+        boolean resumed = !restart && shards.stream().anyMatch(shard -> shard.getId() != null);
+        if (restart) {
+            checkpointRepository.resetCheckpoints();
+            shards.replaceAll(shard -> new ExternalClinicSyncCheckpoint(shard.getEntityCode(),
+                    shard.getActivity()));
+        }
+
+        Instant loadedAt = Instant.now();
+        List<BoundedPipeline.StageStats> stats = new ArrayList<>();
+        for (ExternalClinicSyncCheckpoint shard : shards) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("External clinic sync cancelled");
+            }
+            if (shard.getStatus() != Status.COMPLETED) {
+                progress.step("Syncing " + shard.getShard());
+                stats.addAll(syncShard(shard, loadedAt, progress));
+            }
         }
-        repository.saveAll(clinics);
+
+        List<BoundedPipeline.StageStats> totals = BoundedPipeline.StageStats.sum(stats);
+        totals.forEach(stage -> LOGGER.info("External clinic sync, " + stage));
+        return new ExternalClinicSyncReportDTO(resumed, shards, totals);
+    }
+
+    private List<BoundedPipeline.StageStats> syncShard(ExternalClinicSyncCheckpoint shard,
+            Instant loadedAt, JobProgress progress) {
+        long firstRecord = shard.getNextRecord();
+        shard.setStatus(Status.PENDING);
+        shard.setLastError(null);
+        try {
+            List<BoundedPipeline.StageStats> stats = ingest(
+                    sink -> apiClient.fetchClinics(shard.getEntityCode(), shard.getActivity(),
+                            firstRecord, sink),
+                    loadedAt, chunk -> saveChunk(shard, chunk, progress));
+            shard.setStatus(Status.COMPLETED);
+            checkpointRepository.saveCheckpoint(shard);
+            LOGGER.info("Synced external clinics of " + shard.getShard() + ": "
+                    + shard.getRecordsSeen() + " seen, " + shard.getRecordsWritten()
+                    + " written");
+            return stats;
+        } catch (RuntimeException e) {
+            // Cleared so the checkpoint can still be saved, then raised again below
+            boolean cancelled = Thread.interrupted();
+            shard.setStatus(Status.FAILED);
+            String message = cancelled ? "Cancelled" : String.valueOf(e.getMessage());
+            shard.setLastError(message.length() > MAX_ERROR_LENGTH
+                    ? message.substring(0, MAX_ERROR_LENGTH)
+                    : message);
+            checkpointRepository.saveCheckpoint(shard);
+            if (cancelled) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("External clinic sync cancelled");
+            }
+            LOGGER.log(Level.WARNING, "External clinic sync of " + shard.getShard()
+                    + " failed at record " + shard.getNextRecord(), e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Imports a DENUE dump file through the same mapping, classification and upsert stages as the
+     * API sync, keeping only records of the configured activities, since a full dump covers every
+     * kind of business. Records that haven't changed are skipped as in the sync.
+     */
+    public List<BoundedPipeline.StageStats> importDump(Path file, Charset charset,
+            JobProgress progress) {
+        Set<String> activities = new HashSet<>();
+        syncActivities.forEach(activity -> activities.add(activity.trim().toLowerCase()));
+        progress.step("Importing " + file.getFileName());
+        List<BoundedPipeline.StageStats> stats = ingest(
+                sink -> dumpReader.read(file, charset, dto -> {
+                    if (dto.getClase_actividad() != null && activities
+                            .contains(dto.getClase_actividad().trim().toLowerCase())) {
+                        sink.accept(dto);
+                    }
+                }),
+                Instant.now(), chunk -> progress.advance(chunk.size(), saveChanged(chunk)));
+        stats.forEach(stage -> LOGGER.info("External clinic import, " + stage));
+        return stats;
+    }
+
+    /**
+     * The dump file of that name in external.clinic.import.directory. Throws
+     * IllegalArgumentException when the name leads outside the directory or the file is missing.
+     */
+    public Path resolveImportFile(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("A dump file name is required");
+        }
+        Path directory = Path.of(importDirectory).toAbsolutePath().normalize();
+        Path file = directory.resolve(name).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No dump file " + name + " in the import directory");
+        }
+        return file;
+    }
+
+    // Parsed records are mapped, classified and saved by separate stages with bounded queues
+    // between them, so memory stays flat however many records the source produces
+    private List<BoundedPipeline.StageStats> ingest(
+            Consumer<Consumer<ExternalClinicResponseDTO>> source, Instant loadedAt,
+            Consumer<List<ExternalClinic>> save) {
+        return BoundedPipeline
+                .from("fetch", INGESTION_QUEUE_CAPACITY, source)
+                .map("map", ExternalClinicResponseMapper::toDomain)
+                .map("classify", clinic -> {
+                    clinic.setSpecialty(SpecialtyDetector.detectSpecialty(clinic.getNombre()));
+                    clinic.setContentHash(ExternalClinicResponseMapper.contentHash(clinic));
+                    clinic.setCreatedAt(loadedAt);
+                    return clinic;
+                })
+                .into("upsert", INGESTION_CHUNK_SIZE, save);
+    }
+
+    // Upserts the clinics of the chunk that are new or changed, returning how many
+    private int saveChanged(List<ExternalClinic> chunk) {
+        List<ExternalClinic> changed = repository.findChanged(chunk);
+        if (!changed.isEmpty()) {
+            repository.saveAll(changed);
+        }
+        return changed.size();
+    }
+
+    // Records arrive in API order, so after a chunk commits the shard can resume past it
+    private void saveChunk(ExternalClinicSyncCheckpoint shard, List<ExternalClinic> chunk,
+            JobProgress progress) {
+        int written = saveChanged(chunk);
+        shard.setNextRecord(shard.getNextRecord() + chunk.size());
+        shard.setRecordsSeen(shard.getRecordsSeen() + chunk.size());
+        shard.setRecordsWritten(shard.getRecordsWritten() + written);
+        checkpointRepository.saveCheckpoint(shard);
+        progress.advance(chunk.size(), written);
     }
 
-    @Transactional
-    public void updateSpecialties() {
-        repository.updateSpecialties();
+    // Reclassifies the stored clinics a keyset chunk at a time, writing only those whose
+    // specialty changed, each chunk in its own transaction
+    public void updateSpecialties(JobProgress progress) {
+        progress.step("Classifying clinics");
+        long afterId = 0;
+        List<ExternalClinic> chunk;
+        do {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("External clinic specialty update cancelled");
+            }
+            chunk = repository.findAfter(afterId, INGESTION_CHUNK_SIZE);
+            List<ExternalClinic> changed = new ArrayList<>();
+            for (ExternalClinic clinic : chunk) {
+                clinic.setSpecialty(SpecialtyDetector.detectSpecialty(clinic.getNombre()));
+                String contentHash = ExternalClinicResponseMapper.contentHash(clinic);
+                if (!contentHash.equals(clinic.getContentHash())) {
+                    clinic.setContentHash(contentHash);
+                    changed.add(clinic);
+                }
+            }
+            if (!changed.isEmpty()) {
+                repository.saveSpecialties(changed);
+            }
+            progress.advance(chunk.size(), changed.size());
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == INGESTION_CHUNK_SIZE);
     }
 }
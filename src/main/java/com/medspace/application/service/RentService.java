@@ -3,6 +3,7 @@ package com.medspace.application.service;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import com.medspace.domain.model.Payment;
 import com.medspace.domain.model.RentRequest;
 import com.medspace.domain.model.RentRequestDay;
@@ -13,8 +14,10 @@ import com.medspace.domain.repository.RentRequestDayRepository;
 import com.medspace.domain.repository.RentRequestRepository;
 import com.medspace.domain.repository.ReviewRepository;
 import com.medspace.domain.repository.UserRepository;
+import com.medspace.infrastructure.dto.rentRequest.GetRentRequestDTO;
 import com.medspace.infrastructure.dto.rentRequest.RentRequestQueryFilterDTO;
 import com.medspace.infrastructure.dto.rentRequest.GetRentRequestSpecialistsDashboardDTO;
+import com.medspace.infrastructure.util.PointColumnsEncoder;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
@@ -58,8 +61,8 @@ public class RentService {
         return new ArrayList<>();
     }
 
-    public List<RentRequest> listAllRentRequests() {
-        return rentRequestRepository.findAllRequests();
+    public void forEachRentRequest(Consumer<GetRentRequestDTO> consumer) {
+        rentRequestRepository.forEachRentRequest(consumer);
     }
 
     public RentRequestDay createRentRequestDay(RentRequestDay rentRequestDay, Long rentRequestId) {
@@ -221,4 +224,8 @@ public class RentService {
     public List<GetRentRequestSpecialistsDashboardDTO> getSpecialistsDashboardData() {
         return rentRequestRepository.getSpecialistsDashboardData();
     }
+
+    public PointColumnsEncoder getSpecialistsDashboardPoints() {
+        return rentRequestRepository.getSpecialistsDashboardPoints();
+    }
 }
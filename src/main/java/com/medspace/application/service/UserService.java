@@ -2,6 +2,7 @@ package com.medspace.application.service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.function.Consumer;
 import com.google.firebase.auth.FirebaseAuth;
 import com.medspace.domain.model.TenantFavoriteClinic;
 import com.medspace.domain.model.TenantSpecialty;
@@ -86,8 +87,8 @@ public class UserService {
     }
 
 
-    public List<User> getAllUsers() {
-        return userRepository.getAllUsers();
+    public void forEachUser(Consumer<User> consumer) {
+        userRepository.forEachUser(consumer);
     }
 
     // Specialty methods
@@ -0,0 +1,17 @@
+package com.medspace.application.usecase.clinic;
+
+import com.medspace.application.service.ClinicService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDate;
+import java.util.List;
+
+@ApplicationScoped
+public class CheckClinicBookableUseCase {
+    @Inject
+    ClinicService clinicService;
+
+    public boolean execute(Long clinicId, List<LocalDate> dates) {
+        return clinicService.isBookable(clinicId, dates);
+    }
+}
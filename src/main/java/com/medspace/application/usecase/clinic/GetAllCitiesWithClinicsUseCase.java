@@ -1,6 +1,7 @@
 package com.medspace.application.usecase.clinic;
-import java.util.Set;
+import java.util.List;
 import com.medspace.application.service.ClinicService;
+import com.medspace.infrastructure.dto.clinic.CityFilterDTO;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -10,7 +11,7 @@ public class GetAllCitiesWithClinicsUseCase {
     @Inject
     ClinicService clinicService;
      
-    public Set<String> execute(){
+    public List<CityFilterDTO> execute(){
         return clinicService.findAllUniqueCities() ;
     }
     
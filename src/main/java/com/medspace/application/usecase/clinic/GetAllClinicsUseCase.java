@@ -20,7 +20,7 @@ public class GetAllClinicsUseCase {
     public List<GetClinicDTO> execute(ClinicQueryDTO queryFilterDTO) {
         List<Clinic> clinics = clinicService.getAllClinics();
         return clinics.stream().map(clinic -> {
-            Double averageRating = clinicService.getAverageRatingById(clinic.getId());
+            Double averageRating = clinicService.getAverageRating(clinic);
 
             List<GetClinicPhotoDTO> photoDTOs =
                     queryFilterDTO.getIncludePhotos()
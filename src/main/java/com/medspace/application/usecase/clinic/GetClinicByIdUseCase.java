@@ -3,6 +3,7 @@ package com.medspace.application.usecase.clinic;
 import java.util.List;
 import com.medspace.application.service.ClinicService;
 import com.medspace.domain.model.Clinic;
+import com.medspace.infrastructure.cache.ClinicDetailCache;
 import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
 import com.medspace.infrastructure.dto.clinic.GetClinicAvailabilityDTO;
 import com.medspace.infrastructure.dto.clinic.GetClinicDTO;
@@ -16,13 +17,19 @@ import jakarta.ws.rs.NotFoundException;
 public class GetClinicByIdUseCase {
     @Inject
     ClinicService clinicService;
+    @Inject
+    ClinicDetailCache clinicDetailCache;
 
     public GetClinicDTO execute(Long id, ClinicQueryDTO queryFilterDTO) {
+        return clinicDetailCache.get(id, queryFilterDTO, () -> load(id, queryFilterDTO));
+    }
+
+    private GetClinicDTO load(Long id, ClinicQueryDTO queryFilterDTO) {
         Clinic clinic = clinicService.getClinicById(id);
         if (clinic == null) {
             throw new NotFoundException("Clinic with id " + id + " not found");
         }
-        Double averageRating = clinicService.getAverageRatingById(id);
+        Double averageRating = clinicService.getAverageRating(clinic);
 
         List<GetClinicPhotoDTO> photoDTOs =
                 queryFilterDTO.getIncludePhotos()
@@ -0,0 +1,17 @@
+package com.medspace.application.usecase.clinic;
+
+import com.medspace.application.service.ClinicService;
+import com.medspace.infrastructure.dto.common.ResourceVersionDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+// Validators of the city list, which only changes when some clinic is written
+@ApplicationScoped
+public class GetClinicCitiesVersionUseCase {
+    @Inject
+    ClinicService clinicService;
+
+    public ResourceVersionDTO execute() {
+        return clinicService.getClinicsVersion();
+    }
+}
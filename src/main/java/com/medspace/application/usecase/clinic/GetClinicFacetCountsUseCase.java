@@ -0,0 +1,17 @@
+package com.medspace.application.usecase.clinic;
+
+import com.medspace.application.service.ClinicService;
+import com.medspace.infrastructure.dto.clinic.ClinicFacetCountDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+
+@ApplicationScoped
+public class GetClinicFacetCountsUseCase {
+    @Inject
+    ClinicService clinicService;
+
+    public List<ClinicFacetCountDTO> execute(boolean includeEquipment) {
+        return clinicService.getFacetCounts(includeEquipment);
+    }
+}
@@ -0,0 +1,17 @@
+package com.medspace.application.usecase.clinic;
+
+import com.medspace.application.service.ClinicService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDate;
+import java.util.List;
+
+@ApplicationScoped
+public class GetClinicFreeDaysUseCase {
+    @Inject
+    ClinicService clinicService;
+
+    public List<LocalDate> execute(Long clinicId, LocalDate from, LocalDate to) {
+        return clinicService.getFreeDays(clinicId, from, to);
+    }
+}
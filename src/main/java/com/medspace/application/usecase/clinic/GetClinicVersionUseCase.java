@@ -0,0 +1,17 @@
+package com.medspace.application.usecase.clinic;
+
+import com.medspace.application.service.ClinicService;
+import com.medspace.infrastructure.dto.common.ResourceVersionDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+// Validators of a clinic and its photos, equipments and availabilities; null when missing
+@ApplicationScoped
+public class GetClinicVersionUseCase {
+    @Inject
+    ClinicService clinicService;
+
+    public ResourceVersionDTO execute(Long clinicId) {
+        return clinicService.getClinicVersion(clinicId);
+    }
+}
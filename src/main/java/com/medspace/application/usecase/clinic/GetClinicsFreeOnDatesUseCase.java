@@ -0,0 +1,40 @@
+package com.medspace.application.usecase.clinic;
+
+import com.medspace.application.service.ClinicService;
+import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
+import com.medspace.infrastructure.dto.clinic.GetClinicDTO;
+import com.medspace.infrastructure.dto.clinic.GetClinicFreeDatesDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@ApplicationScoped
+public class GetClinicsFreeOnDatesUseCase {
+    @Inject
+    ClinicService clinicService;
+    @Inject
+    GetFilteredClinicsUseCase getFilteredClinicsUseCase;
+
+    public List<GetClinicFreeDatesDTO> execute(ClinicQueryDTO queryFilterDTO) {
+        // The search already dropped clinics free on fewer than minFreeDates of the dates
+        List<GetClinicDTO> clinics = getFilteredClinicsUseCase.execute(queryFilterDTO);
+
+        List<GetClinicFreeDatesDTO> result = new ArrayList<>(clinics.size());
+        for (GetClinicDTO clinic : clinics) {
+            try {
+                result.add(new GetClinicFreeDatesDTO(clinic, clinicService
+                        .getFreeDates(clinic.getId(), queryFilterDTO.getTargetDates())));
+            } catch (NotFoundException e) {
+                // Deleted since the search ran
+            }
+        }
+
+        // Most free dates first; the sort is stable so ties keep the search order
+        result.sort(Comparator.comparingInt(
+                (GetClinicFreeDatesDTO row) -> row.getFreeDates().size()).reversed());
+        return result;
+    }
+}
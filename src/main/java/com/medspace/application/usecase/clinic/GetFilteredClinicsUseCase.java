@@ -1,8 +1,12 @@
 package com.medspace.application.usecase.clinic;
 
 import java.util.List;
+import java.util.Map;
 import com.medspace.application.service.ClinicService;
 import com.medspace.domain.model.Clinic;
+import com.medspace.domain.model.ClinicAvailability;
+import com.medspace.domain.model.ClinicEquipment;
+import com.medspace.domain.model.ClinicPhoto;
 import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
 import com.medspace.infrastructure.dto.clinic.GetClinicAvailabilityDTO;
 import com.medspace.infrastructure.dto.clinic.GetClinicDTO;
@@ -18,26 +22,40 @@ public class GetFilteredClinicsUseCase {
 
     public List<GetClinicDTO> execute(ClinicQueryDTO queryFilterDTO) {
         List<Clinic> clinics = clinicService.getFilteredClinics(queryFilterDTO);
+        List<Long> clinicIds = clinics.stream().map(Clinic::getId).toList();
+
+        // One query per requested relation for the whole page, grouped by clinic id
+        Map<Long, List<ClinicPhoto>> photosByClinic = queryFilterDTO.getIncludePhotos()
+                ? clinicService.listPhotosByClinicIds(clinicIds)
+                : null;
+
+        Map<Long, List<ClinicEquipment>> equipmentsByClinic =
+                queryFilterDTO.getIncludeEquipments()
+                        ? clinicService.getEquipmentsByClinicIds(clinicIds)
+                        : null;
+
+        Map<Long, List<ClinicAvailability>> availabilitiesByClinic =
+                queryFilterDTO.getIncludeAvailabilities()
+                        ? clinicService.getAvailabilitiesByClinicIds(clinicIds)
+                        : null;
+
         return clinics.stream().map(clinic -> {
-            Double averageRating = clinicService.getAverageRatingById(clinic.getId());
-
-            List<GetClinicPhotoDTO> photoDTOs =
-                    queryFilterDTO.getIncludePhotos()
-                            ? clinicService.listPhotosByClinicId(clinic.getId()).stream()
-                                    .map(GetClinicPhotoDTO::new).toList()
-                            : null;
-
-            List<GetClinicEquipmentDTO> equipmentDTOs =
-                    queryFilterDTO.getIncludeEquipments()
-                            ? clinicService.getEquipmentsByClinicId(clinic.getId()).stream()
-                                    .map(GetClinicEquipmentDTO::new).toList()
-                            : null;
-
-            List<GetClinicAvailabilityDTO> availabilityDTOs =
-                    queryFilterDTO.getIncludeAvailabilities()
-                            ? clinicService.getAvailabilitiesByClinicId(clinic.getId()).stream()
-                                    .map(GetClinicAvailabilityDTO::new).toList()
-                            : null;
+            Double averageRating = clinicService.getAverageRating(clinic);
+
+            List<GetClinicPhotoDTO> photoDTOs = photosByClinic != null
+                    ? photosByClinic.getOrDefault(clinic.getId(), List.of()).stream()
+                            .map(GetClinicPhotoDTO::new).toList()
+                    : null;
+
+            List<GetClinicEquipmentDTO> equipmentDTOs = equipmentsByClinic != null
+                    ? equipmentsByClinic.getOrDefault(clinic.getId(), List.of()).stream()
+                            .map(GetClinicEquipmentDTO::new).toList()
+                    : null;
+
+            List<GetClinicAvailabilityDTO> availabilityDTOs = availabilitiesByClinic != null
+                    ? availabilitiesByClinic.getOrDefault(clinic.getId(), List.of()).stream()
+                            .map(GetClinicAvailabilityDTO::new).toList()
+                    : null;
 
             return new GetClinicDTO(clinic, averageRating, photoDTOs, equipmentDTOs,
                     availabilityDTOs);
@@ -0,0 +1,17 @@
+package com.medspace.application.usecase.externalClinic;
+
+import com.medspace.application.service.ExternalClinicService;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicTileDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+@ApplicationScoped
+public class GetExternalClinicTileUseCase {
+
+    @Inject
+    ExternalClinicService externalClinicService;
+
+    public ExternalClinicTileDTO execute(int z, int x, int y) {
+        return externalClinicService.getTile(z, x, y);
+    }
+}
@@ -3,9 +3,11 @@ package com.medspace.application.usecase.externalClinic;
 import com.medspace.application.service.ExternalClinicService;
 import com.medspace.infrastructure.dto.externalClinic.GetExternalClinicSpecialistsDashboardDTO;
 import com.medspace.infrastructure.dto.common.PaginationDTO;
+import com.medspace.infrastructure.util.PointColumnsEncoder;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.List;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class GetExternalClinicsDashboardUseCase {
@@ -13,8 +15,14 @@ public class GetExternalClinicsDashboardUseCase {
     @Inject
     ExternalClinicService externalClinicService;
 
-    public List<GetExternalClinicSpecialistsDashboardDTO> executeGetAll() {
-        return externalClinicService.getDashboardDataAll();
+    // Every point in the compact columnar encoding, for the map
+    public PointColumnsEncoder executePoints() {
+        return externalClinicService.getDashboardPoints();
+    }
+
+    // Hands every row to the consumer as it is read, for responses streamed to the client
+    public void executeForEach(Consumer<GetExternalClinicSpecialistsDashboardDTO> consumer) {
+        externalClinicService.forEachDashboardRow(consumer);
     }
 
     public List<GetExternalClinicSpecialistsDashboardDTO> executeWithPagination(
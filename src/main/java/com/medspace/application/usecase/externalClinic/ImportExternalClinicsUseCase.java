@@ -0,0 +1,32 @@
+package com.medspace.application.usecase.externalClinic;
+
+import com.medspace.application.service.ExternalClinicService;
+import com.medspace.infrastructure.dto.job.JobDTO;
+import com.medspace.infrastructure.job.BackgroundJobRunner;
+import com.medspace.infrastructure.mapper.JobMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+@ApplicationScoped
+public class ImportExternalClinicsUseCase {
+    public static final String JOB_KIND = "external-clinic-import";
+
+    @Inject
+    ExternalClinicService externalClinicService;
+
+    @Inject
+    BackgroundJobRunner jobRunner;
+
+    // Checks the file and charset up front, so a bad request fails before a job is started
+    public JobDTO execute(String fileName, String charsetName) {
+        Path file = externalClinicService.resolveImportFile(fileName);
+        Charset charset = charsetName == null || charsetName.isBlank() ? StandardCharsets.UTF_8
+                : Charset.forName(charsetName);
+        return JobMapper.toDTO(jobRunner.submit(JOB_KIND,
+                LoadExternalClinicsUseCase.WRITE_EXCLUSION_KEY,
+                progress -> externalClinicService.importDump(file, charset, progress)));
+    }
+}
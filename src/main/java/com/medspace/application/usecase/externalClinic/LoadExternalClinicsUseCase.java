@@ -1,16 +1,28 @@
 package com.medspace.application.usecase.externalClinic;
 
 import com.medspace.application.service.ExternalClinicService;
+import com.medspace.infrastructure.dto.job.JobDTO;
+import com.medspace.infrastructure.job.BackgroundJobRunner;
+import com.medspace.infrastructure.mapper.JobMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 @ApplicationScoped
 public class LoadExternalClinicsUseCase {
+    public static final String JOB_KIND = "external-clinic-load";
+    // Shared by every job that writes external_clinics, so only one of them runs at a time
+    public static final String WRITE_EXCLUSION_KEY = "external-clinics";
 
     @Inject
     ExternalClinicService externalClinicService;
 
-    public void execute() {
-        externalClinicService.fetchAndSaveClinics();
+    @Inject
+    BackgroundJobRunner jobRunner;
+
+    // Starts the sync as a background job; its result is the shard and stage report
+    public JobDTO execute() {
+        return JobMapper.toDTO(
+                jobRunner.submit(JOB_KIND, WRITE_EXCLUSION_KEY,
+                        externalClinicService::fetchAndSaveClinics));
     }
 }
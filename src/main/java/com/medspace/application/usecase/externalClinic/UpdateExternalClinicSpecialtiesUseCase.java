@@ -1,16 +1,27 @@
 package com.medspace.application.usecase.externalClinic;
 
 import com.medspace.application.service.ExternalClinicService;
+import com.medspace.infrastructure.dto.job.JobDTO;
+import com.medspace.infrastructure.job.BackgroundJobRunner;
+import com.medspace.infrastructure.mapper.JobMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 @ApplicationScoped
 public class UpdateExternalClinicSpecialtiesUseCase {
+    public static final String JOB_KIND = "external-clinic-specialties";
 
     @Inject
     ExternalClinicService externalClinicService;
 
-    public void execute() {
-        externalClinicService.updateSpecialties();
+    @Inject
+    BackgroundJobRunner jobRunner;
+
+    public JobDTO execute() {
+        return JobMapper.toDTO(jobRunner.submit(JOB_KIND,
+                LoadExternalClinicsUseCase.WRITE_EXCLUSION_KEY, progress -> {
+                    externalClinicService.updateSpecialties(progress);
+                    return null;
+                }));
     }
 }
@@ -0,0 +1,17 @@
+package com.medspace.application.usecase.job;
+
+import com.medspace.infrastructure.dto.job.JobDTO;
+import com.medspace.infrastructure.job.BackgroundJobRunner;
+import com.medspace.infrastructure.mapper.JobMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+@ApplicationScoped
+public class GetJobUseCase {
+    @Inject
+    BackgroundJobRunner jobRunner;
+
+    public JobDTO execute(String id) {
+        return JobMapper.toDTO(jobRunner.getJob(id));
+    }
+}
@@ -3,6 +3,7 @@ package com.medspace.application.usecase.rent;
 import java.util.List;
 import com.medspace.application.service.RentService;
 import com.medspace.infrastructure.dto.rentRequest.GetRentRequestSpecialistsDashboardDTO;
+import com.medspace.infrastructure.util.PointColumnsEncoder;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -14,4 +15,9 @@ public class GetSpecialistsDashboardDataUseCase {
     public List<GetRentRequestSpecialistsDashboardDTO> execute() {
         return rentService.getSpecialistsDashboardData();
     }
+
+    // The same requests as map points in the compact columnar encoding
+    public PointColumnsEncoder executePoints() {
+        return rentService.getSpecialistsDashboardPoints();
+    }
 } 
\ No newline at end of file
@@ -1,17 +1,18 @@
 package com.medspace.application.usecase.rent;
 
 import com.medspace.application.service.RentService;
-import com.medspace.domain.model.RentRequest;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import java.util.List;
+import com.medspace.infrastructure.dto.rentRequest.GetRentRequestDTO;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class ListRentRequestUseCase {
     @Inject
     RentService rentService;
 
-    public List<RentRequest> execute() {
-        return rentService.listAllRentRequests();
+    // Hands every request to the consumer as it is read, for responses streamed to the client
+    public void executeForEach(Consumer<GetRentRequestDTO> consumer) {
+        rentService.forEachRentRequest(consumer);
     }
 }
@@ -1,6 +1,6 @@
 package com.medspace.application.usecase.user;
 
-import java.util.List;
+import java.util.function.Consumer;
 import com.medspace.application.service.UserService;
 import com.medspace.domain.model.User;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -12,7 +12,8 @@ public class GetAllUsersUseCase {
     @Inject
     UserService userService;
 
-    public List<User> execute() {
-        return userService.getAllUsers();
+    // Hands every user to the consumer as it is read, for responses streamed to the client
+    public void executeForEach(Consumer<User> consumer) {
+        userService.forEachUser(consumer);
     }
 }
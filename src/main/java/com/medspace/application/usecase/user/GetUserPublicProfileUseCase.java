@@ -46,7 +46,7 @@ public class GetUserPublicProfileUseCase {
             ownedClinicsDTO = new ArrayList<>();
             List<Clinic> ownedClinics = clinicService.getClinicsByLandlordId(userId);
             for (Clinic clinic : ownedClinics) {
-                Double clinicRating = clinicService.getAverageRatingById(clinic.getId());
+                Double clinicRating = clinicService.getAverageRating(clinic);
                 String mainPhotoPath = clinicService.getMainPhotoPathByClinicId(clinic.getId());
                 ownedClinicsDTO.add(new GetClinicPreviewDTO(clinic, clinicRating, mainPhotoPath));
             }
@@ -0,0 +1,11 @@
+package com.medspace.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Fired by the rent request repositories whenever the booked days of a clinic may have changed
+@Getter
+@AllArgsConstructor
+public class ClinicBookingsChangedEvent {
+    private Long clinicId;
+}
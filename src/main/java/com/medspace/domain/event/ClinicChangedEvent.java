@@ -0,0 +1,16 @@
+package com.medspace.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Fired by the clinic repositories whenever a clinic or one of its children is written
+@Getter
+@AllArgsConstructor
+public class ClinicChangedEvent {
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private Long clinicId;
+    private Type type;
+}
@@ -0,0 +1,16 @@
+package com.medspace.domain.event;
+
+import com.medspace.domain.model.ExternalClinic;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// Fired by the external clinic repository after clinics are loaded or re-classified in bulk
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExternalClinicsChangedEvent {
+    // The clinics written, or null when any clinic may have changed
+    private List<ExternalClinic> clinics;
+}
@@ -0,0 +1,12 @@
+package com.medspace.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Fired by the user repository whenever a user row is inserted, updated or deleted
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+    private Long userId;
+    private String firebaseUid;
+}
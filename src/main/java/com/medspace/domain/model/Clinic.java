@@ -28,6 +28,7 @@ public class Clinic {
 
     private String addressStreet;
     private String addressCity;
+    private String normalizedCity;
     private String addressState;
     private String addressZip;
     private String addressCountry;
@@ -36,7 +37,12 @@ public class Clinic {
 
     private int size;
 
+    private Long ratingCount;
+    private Long ratingSum;
+
     private User landlord;
 
     private Instant createdAt;
+    private Long version;
+    private Instant updatedAt;
 }
@@ -9,6 +9,8 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExternalClinic {
+    // Row id once stored; records from the API or a dump have none
+    private Long id;
     private String clee;
     private String externalId;
     private String nombre;
@@ -32,5 +34,7 @@ public class ExternalClinic {
     private String nomCorredorIndustrial;
     private String numeroLocal;
     private String specialty;
+    // Digest of the source record, to skip records that haven't changed since the last sync
+    private String contentHash;
     private Instant createdAt;
 }
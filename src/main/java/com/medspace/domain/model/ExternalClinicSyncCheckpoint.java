@@ -0,0 +1,37 @@
+package com.medspace.domain.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Progress of one shard (state code and activity) of the external clinic sync
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class ExternalClinicSyncCheckpoint {
+    public enum Status {
+        PENDING, COMPLETED, FAILED
+    }
+
+    private Long id;
+    private String entityCode;
+    private String activity;
+    // First record not yet saved, counted from 1
+    private Long nextRecord;
+    private Status status;
+    private Long recordsSeen;
+    private Long recordsWritten;
+    private String lastError;
+    private Instant updatedAt;
+
+    public ExternalClinicSyncCheckpoint(String entityCode, String activity) {
+        this(null, entityCode, activity, 1L, Status.PENDING, 0L, 0L, null, null);
+    }
+
+    public String getShard() {
+        return entityCode + "/" + activity;
+    }
+}
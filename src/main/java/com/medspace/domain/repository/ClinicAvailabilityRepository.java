@@ -16,4 +16,6 @@ public interface ClinicAvailabilityRepository {
     public ClinicAvailability assignAvailabilityToClinic(Long clinicAvailabilityId, Long clinicId);
 
     public List<ClinicAvailability> getAvailabilitiesByClinicId(Long clinicId);
+
+    public List<ClinicAvailability> getAvailabilitiesByClinicIds(List<Long> clinicIds);
 }
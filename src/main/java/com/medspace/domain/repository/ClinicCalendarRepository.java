@@ -0,0 +1,15 @@
+package com.medspace.domain.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ClinicCalendarRepository {
+    public List<LocalDate> getFreeDays(Long clinicId, LocalDate from, LocalDate to);
+
+    public List<LocalDate> getNextFreeDays(Long clinicId, LocalDate from, int count);
+
+    public List<LocalDate> getFreeDates(Long clinicId, List<LocalDate> dates);
+
+    public boolean isBookable(Long clinicId, Collection<LocalDate> dates);
+}
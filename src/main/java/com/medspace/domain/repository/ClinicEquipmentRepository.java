@@ -14,4 +14,6 @@ public interface ClinicEquipmentRepository {
     public ClinicEquipment assignEquipmentToClinic(Long clinicEquipmentId, Long clinicId);
 
     public List<ClinicEquipment> getEquipmentsByClinicId(Long clinicId);
+
+    public List<ClinicEquipment> getEquipmentsByClinicIds(List<Long> clinicIds);
 }
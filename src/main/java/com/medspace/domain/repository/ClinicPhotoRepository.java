@@ -15,5 +15,7 @@ public interface ClinicPhotoRepository {
 
     public List<ClinicPhoto> getClinicPhotosByClinicId(Long clinicId);
 
+    public List<ClinicPhoto> getClinicPhotosByClinicIds(List<Long> clinicIds);
+
     public void setPhotoAsPrimary(Long id);
 }
@@ -1,9 +1,11 @@
 package com.medspace.domain.repository;
 
 import com.medspace.domain.model.Clinic;
+import com.medspace.infrastructure.dto.clinic.CityFilterDTO;
+import com.medspace.infrastructure.dto.clinic.ClinicFacetCountDTO;
 import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
+import com.medspace.infrastructure.dto.common.ResourceVersionDTO;
 import java.util.List;
-import java.util.Set;
 
 public interface ClinicRepository {
     public Clinic insertClinic(Clinic clinic);
@@ -28,7 +30,13 @@ public interface ClinicRepository {
 
     long countByCity(String city);
 
-    Set<String> findAllUniqueCities();
+    List<CityFilterDTO> findAllUniqueCities();
     
     long getByCategoryAndCity(Clinic.Category category, String city);
+
+    List<ClinicFacetCountDTO> getFacetCounts(boolean includeEquipment);
+
+    ResourceVersionDTO getClinicVersion(Long id);
+
+    ResourceVersionDTO getClinicsVersion();
 }
@@ -1,17 +1,31 @@
 package com.medspace.domain.repository;
 
 import com.medspace.domain.model.ExternalClinic;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicTileDTO;
 import com.medspace.infrastructure.dto.externalClinic.GetExternalClinicSpecialistsDashboardDTO;
 import com.medspace.infrastructure.dto.common.PaginationDTO;
+import com.medspace.infrastructure.util.PointColumnsEncoder;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ExternalClinicRepository {
     void saveAll(List<ExternalClinic> clinics);
 
+    // The clinics that are new or whose content hash differs from the stored one
+    List<ExternalClinic> findChanged(List<ExternalClinic> clinics);
+
     List<GetExternalClinicSpecialistsDashboardDTO> getExternalClinicSpecialistsDashboardData(
             PaginationDTO pagination);
 
-    List<GetExternalClinicSpecialistsDashboardDTO> getAllExternalClinicSpecialistsDashboardData();
+    void forEachDashboardRow(Consumer<GetExternalClinicSpecialistsDashboardDTO> consumer);
+
+    PointColumnsEncoder getDashboardPoints();
+
+    // Up to limit stored clinics with ids above afterId, in id order
+    List<ExternalClinic> findAfter(long afterId, int limit);
+
+    // Writes the specialty and content hash of stored clinics, by id, in one transaction
+    void saveSpecialties(List<ExternalClinic> clinics);
 
-    void updateSpecialties();
+    ExternalClinicTileDTO getTile(int z, int x, int y);
 }
@@ -0,0 +1,14 @@
+package com.medspace.domain.repository;
+
+import com.medspace.domain.model.ExternalClinicSyncCheckpoint;
+import java.util.List;
+
+public interface ExternalClinicSyncCheckpointRepository {
+    List<ExternalClinicSyncCheckpoint> getCheckpoints();
+
+    // Inserts or updates the checkpoint of the same shard, committing straight away
+    ExternalClinicSyncCheckpoint saveCheckpoint(ExternalClinicSyncCheckpoint checkpoint);
+
+    // Starts a new run: every shard back to its first record
+    void resetCheckpoints();
+}
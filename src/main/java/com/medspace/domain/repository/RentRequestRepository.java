@@ -1,11 +1,14 @@
 package com.medspace.domain.repository;
 
 import com.medspace.domain.model.RentRequest;
+import com.medspace.infrastructure.dto.rentRequest.GetRentRequestDTO;
 import com.medspace.infrastructure.dto.rentRequest.RentRequestQueryFilterDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.medspace.infrastructure.dto.rentRequest.GetRentRequestSpecialistsDashboardDTO;
+import com.medspace.infrastructure.util.PointColumnsEncoder;
 
 public interface RentRequestRepository {
 
@@ -13,6 +16,8 @@ public interface RentRequestRepository {
 
     List<RentRequest> findAllRequests();
 
+    void forEachRentRequest(Consumer<GetRentRequestDTO> consumer);
+
     List<RentRequest> findByLandlordId(RentRequestQueryFilterDTO filterDTO);
 
     List<RentRequest> findByTenantId(RentRequestQueryFilterDTO filterDTO);
@@ -24,4 +29,6 @@ public interface RentRequestRepository {
     boolean deleteById(Long id);
 
     List<GetRentRequestSpecialistsDashboardDTO> getSpecialistsDashboardData();
+
+    PointColumnsEncoder getSpecialistsDashboardPoints();
 }
@@ -1,13 +1,14 @@
 package com.medspace.domain.repository;
 
-import java.util.List;
+import java.util.function.Consumer;
 import com.medspace.domain.model.TenantSpecialty;
 import com.medspace.domain.model.User;
 
 public interface UserRepository {
     public User insertUser(User user);
 
-    public List<User> getAllUsers();
+
+    void forEachUser(Consumer<User> consumer);
 
     public User getUserById(Long id);
 
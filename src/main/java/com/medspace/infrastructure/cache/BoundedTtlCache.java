@@ -0,0 +1,105 @@
+package com.medspace.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process LRU cache whose entries also expire after a fixed time to live. Values are
+ * loaded outside the lock; a load that overlaps an invalidation is returned to its caller but not
+ * stored, so an invalidated value can't be put back by a reader that started before the write.
+ */
+public class BoundedTtlCache<K, V> {
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long invalidations = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedTtlCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Returns the cached value or loads, stores and returns it; null values are not cached
+    public V get(K key, Function<K, V> loader) {
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            invalidationsBeforeLoad = invalidations;
+        }
+
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (invalidations == invalidationsBeforeLoad) {
+                    entries.put(key, new Entry<>(value, System.nanoTime()));
+                }
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    // Linear scan; meant for rare writes that can't be mapped back to a key
+    public synchronized void invalidateValues(Predicate<V> predicate) {
+        invalidations++;
+        entries.values().removeIf(entry -> predicate.test(entry.value));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
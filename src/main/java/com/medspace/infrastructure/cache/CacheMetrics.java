@@ -0,0 +1,20 @@
+package com.medspace.infrastructure.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class CacheMetrics {
+
+    // Publishes cache.gets{result=hit|miss}, cache.evictions and cache.size tagged by cache name
+    public static void bind(MeterRegistry registry, String name, BoundedTtlCache<?, ?> cache) {
+        FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::hits).tag("cache", name)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::misses).tag("cache", name)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, BoundedTtlCache::evictions)
+                .tag("cache", name).register(registry);
+        Gauge.builder("cache.size", cache, BoundedTtlCache::size).tag("cache", name)
+                .register(registry);
+    }
+}
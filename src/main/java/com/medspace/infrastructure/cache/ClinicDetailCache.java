@@ -0,0 +1,68 @@
+package com.medspace.infrastructure.cache;
+
+import com.medspace.domain.event.ClinicChangedEvent;
+import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
+import com.medspace.infrastructure.dto.clinic.GetClinicDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Read-through cache of assembled clinic details, keyed by clinic id and include flags. Every
+ * write to a clinic or to its photos, equipment, availabilities or ratings fires a
+ * {@link ClinicChangedEvent}, which drops all cached variants of that clinic once it commits.
+ */
+@Startup
+@ApplicationScoped
+public class ClinicDetailCache {
+    private static final int INCLUDE_FLAG_COMBINATIONS = 8;
+
+    @ConfigProperty(name = "medspace.cache.clinic-detail.max-entries", defaultValue = "5000")
+    int maxEntries;
+
+    @ConfigProperty(name = "medspace.cache.clinic-detail.ttl", defaultValue = "PT10M")
+    Duration ttl;
+
+    @Inject
+    MeterRegistry registry;
+
+    private BoundedTtlCache<Long, GetClinicDTO> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedTtlCache<>(maxEntries, ttl);
+        CacheMetrics.bind(registry, "clinic-detail", cache);
+    }
+
+    public GetClinicDTO get(Long clinicId, ClinicQueryDTO queryFilterDTO,
+            Supplier<GetClinicDTO> loader) {
+        return cache.get(key(clinicId, queryFilterDTO), key -> loader.get());
+    }
+
+    public void invalidate(Long clinicId) {
+        for (int flags = 0; flags < INCLUDE_FLAG_COMBINATIONS; flags++) {
+            cache.invalidate(clinicId * INCLUDE_FLAG_COMBINATIONS + flags);
+        }
+    }
+
+    void onClinicChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) ClinicChangedEvent event) {
+        if (event.getClinicId() != null) {
+            invalidate(event.getClinicId());
+        }
+    }
+
+    private static long key(Long clinicId, ClinicQueryDTO queryFilterDTO) {
+        int flags = (Boolean.TRUE.equals(queryFilterDTO.getIncludePhotos()) ? 1 : 0)
+                | (Boolean.TRUE.equals(queryFilterDTO.getIncludeEquipments()) ? 2 : 0)
+                | (Boolean.TRUE.equals(queryFilterDTO.getIncludeAvailabilities()) ? 4 : 0);
+        return clinicId * INCLUDE_FLAG_COMBINATIONS + flags;
+    }
+}
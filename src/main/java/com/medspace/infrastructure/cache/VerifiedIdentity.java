@@ -0,0 +1,52 @@
+package com.medspace.infrastructure.cache;
+
+import com.medspace.domain.model.User;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * Outcome of verifying an ID token: its uid and exp, plus the matching user once some request
+ * asks for it. The user stays null when the uid has not signed up yet.
+ */
+public class VerifiedIdentity {
+    @Getter
+    private final String firebaseUid;
+    @Getter
+    private final long expiresAtMillis;
+
+    // Not a monitor: the lookup hits the database, which would pin a virtual thread's carrier
+    private final ReentrantLock lookupLock = new ReentrantLock();
+    private volatile User user;
+    private volatile boolean userResolved = false;
+
+    public VerifiedIdentity(String firebaseUid, long expiresAtMillis) {
+        this.firebaseUid = firebaseUid;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    // Looks the user up on first call only; later requests with the same token reuse it
+    public User resolveUser(Function<String, User> lookup) {
+        if (!userResolved) {
+            lookupLock.lock();
+            try {
+                if (!userResolved) {
+                    user = lookup.apply(firebaseUid);
+                    userResolved = true;
+                }
+            } finally {
+                lookupLock.unlock();
+            }
+        }
+        return user;
+    }
+
+    // The resolved user, or null when it has not been looked up yet
+    public User peekUser() {
+        return user;
+    }
+}
@@ -0,0 +1,75 @@
+package com.medspace.infrastructure.cache;
+
+import com.medspace.domain.event.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Verified ID tokens and, once resolved, the users they belong to, keyed by a SHA-256 digest of
+ * the token so raw credentials are never kept in memory. An entry is served until the token's own
+ * exp; writes to a user fire a {@link UserChangedEvent}, which drops every identity of that user
+ * once they commit, including "no user yet" identities cached before sign-up.
+ */
+@Startup
+@ApplicationScoped
+public class VerifiedIdentityCache {
+
+    @ConfigProperty(name = "medspace.cache.verified-identity.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    // Firebase ID tokens live one hour, the exp claim usually ends an entry first
+    @ConfigProperty(name = "medspace.cache.verified-identity.ttl", defaultValue = "PT1H")
+    Duration ttl;
+
+    @Inject
+    MeterRegistry registry;
+
+    private BoundedTtlCache<String, VerifiedIdentity> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedTtlCache<>(maxEntries, ttl);
+        CacheMetrics.bind(registry, "verified-identity", cache);
+    }
+
+    // The loader verifies the token and returns null when it is invalid, which is never cached
+    public VerifiedIdentity get(String token, Supplier<VerifiedIdentity> loader) {
+        String key = digest(token);
+        VerifiedIdentity identity = cache.get(key, k -> loader.get());
+        if (identity != null && identity.isExpired(System.currentTimeMillis())) {
+            cache.invalidate(key);
+            return loader.get();
+        }
+        return identity;
+    }
+
+    void onUserChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserChangedEvent event) {
+        cache.invalidateValues(identity -> (event.getFirebaseUid() != null
+                && event.getFirebaseUid().equals(identity.getFirebaseUid()))
+                || (identity.peekUser() != null && event.getUserId() != null
+                        && Objects.equals(identity.peekUser().getId(), event.getUserId())));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
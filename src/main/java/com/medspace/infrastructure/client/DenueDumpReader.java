@@ -0,0 +1,279 @@
+package com.medspace.infrastructure.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicResponseDTO;
+import com.medspace.infrastructure.util.MappedFileInputStream;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a DENUE dump file as published by INEGI, as an alternative source to
+ * {@link ExternalClinicApiClient}. The file is read through memory mappings and parsed as it
+ * streams, gunzipped first when it starts with the gzip magic number. A dump whose first
+ * character is '[' is taken as a JSON array in the API's format; anything else as CSV with a
+ * header row, in the bulk download's column names (nom_estab, nombre_act, ...) or the API's.
+ */
+@ApplicationScoped
+public class DenueDumpReader {
+    private static final Logger LOGGER = Logger.getLogger(DenueDumpReader.class.getName());
+    private static final int READ_BUFFER_BYTES = 256 * 1024;
+    private static final int SNIFF_BYTES = 4096;
+
+    // CSV columns by lower-case header, in both the bulk download's and the API's names
+    private static final Map<String, BiConsumer<ExternalClinicResponseDTO, String>> COLUMNS =
+            new HashMap<>();
+
+    static {
+        column(ExternalClinicResponseDTO::setClee, "clee");
+        column(ExternalClinicResponseDTO::setId, "id");
+        column(ExternalClinicResponseDTO::setNombre, "nom_estab", "nombre");
+        column(ExternalClinicResponseDTO::setRazon_social, "raz_social", "razon_social");
+        column(ExternalClinicResponseDTO::setClase_actividad, "nombre_act", "clase_actividad");
+        column(ExternalClinicResponseDTO::setEstrato, "per_ocu", "estrato");
+        column(ExternalClinicResponseDTO::setTipo_vialidad, "tipo_vial", "tipo_vialidad");
+        column(ExternalClinicResponseDTO::setCalle, "nom_vial", "calle");
+        column(ExternalClinicResponseDTO::setNum_Exterior, "numero_ext", "num_exterior");
+        column(ExternalClinicResponseDTO::setNum_Interior, "numero_int", "num_interior");
+        column(ExternalClinicResponseDTO::setColonia, "nomb_asent", "colonia");
+        column(ExternalClinicResponseDTO::setCp, "cod_postal", "cp");
+        column(ExternalClinicResponseDTO::setUbicacion, "ubicacion");
+        column(ExternalClinicResponseDTO::setTelefono, "telefono");
+        column(ExternalClinicResponseDTO::setCorreo_e, "correoelec", "correo_e");
+        column(ExternalClinicResponseDTO::setSitio_internet, "www", "sitio_internet");
+        column(ExternalClinicResponseDTO::setTipo, "tipounieco", "tipo");
+        column(ExternalClinicResponseDTO::setLatitud, "latitud");
+        column(ExternalClinicResponseDTO::setLongitud, "longitud");
+        column(ExternalClinicResponseDTO::setTipo_corredor_industrial, "tipocencom",
+                "tipo_corredor_industrial");
+        column(ExternalClinicResponseDTO::setNom_corredor_industrial, "nom_cencom",
+                "nom_corredor_industrial");
+        column(ExternalClinicResponseDTO::setNumero_local, "num_local", "numero_local");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static void column(BiConsumer<ExternalClinicResponseDTO, String> setter,
+            String... headers) {
+        for (String header : headers) {
+            COLUMNS.put(header, setter);
+        }
+    }
+
+    /**
+     * Hands every record of the dump to the sink in file order. The charset applies to CSV; JSON
+     * is detected as UTF-8 or UTF-16 by the parser.
+     */
+    public void read(Path file, Charset charset, Consumer<ExternalClinicResponseDTO> sink) {
+        long records = 0;
+        try (InputStream input = open(file)) {
+            records = isJsonArray(input) ? readJson(input, sink) : readCsv(input, charset, sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading DENUE dump " + file.getFileName(), e);
+        }
+        LOGGER.info("Read " + records + " records from DENUE dump " + file.getFileName());
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        PushbackInputStream mapped = new PushbackInputStream(new MappedFileInputStream(file), 2);
+        byte[] magic = mapped.readNBytes(2);
+        mapped.unread(magic);
+        InputStream input = mapped;
+        if (magic.length == 2 && (magic[0] & 0xFF) == 0x1f && (magic[1] & 0xFF) == 0x8b) {
+            input = new GZIPInputStream(input, READ_BUFFER_BYTES);
+        }
+        return new BufferedInputStream(input, READ_BUFFER_BYTES);
+    }
+
+    // Looks past a byte order mark and whitespace for the first character, then rewinds
+    private static boolean isJsonArray(InputStream input) throws IOException {
+        input.mark(SNIFF_BYTES);
+        try {
+            for (int i = 0; i < SNIFF_BYTES; i++) {
+                int next = input.read();
+                if (next == -1) {
+                    return false;
+                }
+                if (next == 0xEF || next == 0xBB || next == 0xBF || next == 0xFE || next == 0xFF
+                        || next == 0 || Character.isWhitespace(next)) {
+                    continue;
+                }
+                return next == '[';
+            }
+            return false;
+        } finally {
+            input.reset();
+        }
+    }
+
+    private long readJson(InputStream input, Consumer<ExternalClinicResponseDTO> sink)
+            throws IOException {
+        long records = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected array of clinics");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                sink.accept(objectMapper.readValue(parser, ExternalClinicResponseDTO.class));
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private static long readCsv(InputStream input, Charset charset,
+            Consumer<ExternalClinicResponseDTO> sink) throws IOException {
+        CsvCursor reader =
+                new CsvCursor(new InputStreamReader(input, charset), READ_BUFFER_BYTES);
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            return 0;
+        }
+        List<BiConsumer<ExternalClinicResponseDTO, String>> setters = new ArrayList<>();
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase();
+            setters.add(COLUMNS.get(name));
+            positions.put(name, i);
+        }
+        // The bulk download splits the API's Ubicacion into locality, municipality and state
+        boolean composeUbicacion = !positions.containsKey("ubicacion");
+        int[] ubicacionParts = {positions.getOrDefault("localidad", -1),
+                positions.getOrDefault("municipio", -1), positions.getOrDefault("entidad", -1)};
+
+        long records = 0;
+        for (List<String> row = reader.readRecord(); row != null; row = reader.readRecord()) {
+            if (row.size() == 1 && row.get(0).isEmpty()) {
+                continue;
+            }
+            ExternalClinicResponseDTO dto = new ExternalClinicResponseDTO();
+            for (int i = 0; i < Math.min(row.size(), setters.size()); i++) {
+                if (setters.get(i) != null) {
+                    setters.get(i).accept(dto, row.get(i).trim());
+                }
+            }
+            if (composeUbicacion) {
+                dto.setUbicacion(joinParts(row, ubicacionParts));
+            }
+            sink.accept(dto);
+            records++;
+        }
+        return records;
+    }
+
+    private static String joinParts(List<String> row, int[] positions) {
+        StringBuilder joined = new StringBuilder();
+        for (int position : positions) {
+            if (position >= 0 && position < row.size() && !row.get(position).isBlank()) {
+                joined.append(joined.length() > 0 ? ", " : "").append(row.get(position).trim());
+            }
+        }
+        return joined.length() > 0 ? joined.toString() : null;
+    }
+
+    // Characters from a reader through a plain array, parsed a run at a time: each stretch of
+    // ordinary characters is appended in one call, which keeps a dump of several gigabytes from
+    // being parsed character by character
+    static class CsvCursor {
+        private final Reader reader;
+        private final char[] buffer;
+        private final StringBuilder field = new StringBuilder();
+        private int position = 0;
+        private int limit = 0;
+
+        CsvCursor(Reader reader, int bufferSize) {
+            this.reader = reader;
+            this.buffer = new char[bufferSize];
+        }
+
+        /**
+         * One RFC 4180 record: quoted fields may hold commas, doubled quotes and line breaks.
+         * Returns null at the end of the input.
+         */
+        List<String> readRecord() throws IOException {
+            if (!fill()) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            while (fill()) {
+                int start = position;
+                if (quoted) {
+                    while (position < limit && buffer[position] != '"') {
+                        position++;
+                    }
+                    field.append(buffer, start, position - start);
+                    if (position == limit) {
+                        continue;
+                    }
+                    position++;
+                    if (fill() && buffer[position] == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        quoted = false;
+                    }
+                    continue;
+                }
+
+                while (position < limit && !isSpecial(buffer[position])) {
+                    position++;
+                }
+                field.append(buffer, start, position - start);
+                if (position == limit) {
+                    continue;
+                }
+                char c = buffer[position++];
+                if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    if (c == '\r' && fill() && buffer[position] == '\n') {
+                        position++;
+                    }
+                    break;
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private static boolean isSpecial(char c) {
+            return c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        private boolean fill() throws IOException {
+            while (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit == -1) {
+                    limit = 0;
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,244 +1,325 @@
 package com.medspace.infrastructure.client;
 
-import com.medspace.domain.model.ExternalClinic;
-import com.medspace.domain.repository.ExternalClinicRepository;
 import com.medspace.infrastructure.dto.externalClinic.ExternalClinicResponseDTO;
-import com.medspace.infrastructure.mapper.ExternalClinicResponseMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.logging.Logger;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.logging.Level;
-import java.nio.charset.StandardCharsets;
-import java.net.URLEncoder;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
-import java.time.Instant;
-import jakarta.transaction.Transactional;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import java.io.UnsupportedEncodingException;
 
+/**
+ * Client for the DENUE search API. Record ranges are requested a page at a time over one shared
+ * {@link HttpClient}, so connections are reused, with up to {@code parallelism} pages in flight.
+ * Responses are decoded from gzip or deflate while they are parsed. Rate limiting and server
+ * errors are retried with jittered exponential backoff, waiting at least as long as the server
+ * asks for in Retry-After. A server that asks for more than two minutes fails the page instead,
+ * and a resumed load picks it up later.
+ */
 @ApplicationScoped
 public class ExternalClinicApiClient {
     private static final Logger LOGGER = Logger.getLogger(ExternalClinicApiClient.class.getName());
-    private static final int CONNECT_TIMEOUT = 30000; // 30 seconds
-    private static final int READ_TIMEOUT = 210000; // 210 seconds
-    private static final int BUFFER_SIZE = 22000000; // 22 MB buffer
-    private static final int MAX_RETRIES = 3;
-    private static final int INITIAL_DELAY_MS = 2000; // 2 seconds
-    private static final int MAX_DELAY_MS = 10000; // 10 seconds
-    private static final int BATCH_SIZE = 1000; // Fetch 1000 records at a time
-    private static final int EXACT_RECORDS = 100;
-
-    // Added constants for URL construction
-    private static final String BASE_API_URL =
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(210);
+    private static final int MAX_ATTEMPTS = 4;
+    private static final Duration MAX_RETRY_AFTER = Duration.ofMinutes(2);
+    private static final int MAX_ERROR_BODY_BYTES = 2048;
+    private static final int DECODE_BUFFER_BYTES = 64 * 1024;
+
+    static final String DEFAULT_BASE_URL =
             "https://www.inegi.org.mx/app/api/denue/v1/consulta/BuscarEntidad";
-    private static final String ACTIVITY_DESCRIPTION =
+    public static final String DEFAULT_ACTIVITY =
             "Consultorios de medicina especializada del sector privado";
-    private static final String ENTITY_CODE = "00"; // 00 for national level
-
-    private final String authToken; // Will be injected
+    public static final String NATIONAL_ENTITY_CODE = "00";
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko)"
+                    + " Chrome/91.0.4472.124 Safari/537.36";
+
+    private final String authToken;
+    private final String baseUrl;
+    private final int pageSize;
+    private final int parallelism;
+    private final long maxRecords;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final JsonFactory jsonFactory;
-    private final ExternalClinicRepository repository;
 
     @Inject
-    public ExternalClinicApiClient(ExternalClinicRepository repository,
-            @ConfigProperty(name = "external.clinic.client.token") String configuredAuthToken) {
-        this.authToken = configuredAuthToken; // Use injected token
+    public ExternalClinicApiClient(
+            @ConfigProperty(name = "external.clinic.client.token") String configuredAuthToken,
+            @ConfigProperty(name = "external.clinic.client.base-url",
+                    defaultValue = DEFAULT_BASE_URL) String baseUrl,
+            @ConfigProperty(name = "external.clinic.client.page-size",
+                    defaultValue = "1000") int pageSize,
+            @ConfigProperty(name = "external.clinic.client.parallelism",
+                    defaultValue = "4") int parallelism,
+            @ConfigProperty(name = "external.clinic.client.max-records",
+                    defaultValue = "0") long maxRecords) {
+        this(configuredAuthToken, baseUrl, pageSize, parallelism, maxRecords,
+                Duration.ofSeconds(2), Duration.ofSeconds(30));
+    }
+
+    // Retry delays are parameters so tests against a local server don't wait for seconds
+    ExternalClinicApiClient(String authToken, String baseUrl, int pageSize, int parallelism,
+            long maxRecords, Duration initialDelay, Duration maxDelay) {
+        this.authToken = authToken;
+        this.baseUrl = baseUrl;
+        this.pageSize = pageSize;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxRecords = maxRecords;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL).build();
         this.objectMapper = new ObjectMapper();
         this.jsonFactory = new JsonFactory();
-        this.repository = repository;
     }
 
-    private String buildUrl(int page, int pageSize) {
-        try {
-            String encodedActivity =
-                    URLEncoder.encode(ACTIVITY_DESCRIPTION, StandardCharsets.UTF_8.name())
-                            .replace("+", "%20");
-
-            // Construct the URL using base, encoded activity, entity code, pagination, and
-            // configured token
-            String url = String.format("%s/%s/%s/%d/%d/%s", BASE_API_URL, encodedActivity,
-                    ENTITY_CODE, page, pageSize, this.authToken); // this.authToken is from config
-
-            // LOGGER.info("Final URL: " + url); // Original LOGGER info for finalUrl
-            // The existing code had a logger statement here, if you want to keep it:
-            // LOGGER.info("Fetching clinics from URL: " + url); // This was in fetchClinics, now
-            // URL built here.
-            // Let's keep a consistent log message for the built URL.
-            LOGGER.info("Constructed URL for external API: " + url);
-            return url;
-        } catch (UnsupportedEncodingException e) {
-            LOGGER.log(Level.SEVERE, "Error encoding URL part for external API", e);
-            // Propagate as a runtime exception as the URL is critical
-            throw new RuntimeException("Error building URL for external API due to encoding issue",
-                    e);
-        }
+    // Every record of the default activity nationwide
+    public void fetchClinics(Consumer<ExternalClinicResponseDTO> sink) {
+        fetchClinics(NATIONAL_ENTITY_CODE, DEFAULT_ACTIVITY, 1, sink);
     }
 
-    private HttpURLConnection createConnection(URL url) throws Exception {
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-
-        conn.setRequestMethod("GET");
-        conn.setConnectTimeout(CONNECT_TIMEOUT);
-        conn.setReadTimeout(READ_TIMEOUT);
-        conn.setDoInput(true);
-        conn.setInstanceFollowRedirects(true);
-
-        conn.setRequestProperty("Accept", "application/json");
-        conn.setRequestProperty("Accept-Encoding", "gzip, deflate");
-        conn.setRequestProperty("Connection", "keep-alive");
-        conn.setRequestProperty("User-Agent",
-                "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36");
-        conn.setRequestProperty("Cache-Control", "no-cache");
-        conn.setRequestProperty("Pragma", "no-cache");
-
-        LOGGER.info("Setting up connection with headers:");
-        conn.getRequestProperties().forEach((key, value) -> {
-            if (key != null) {
-                LOGGER.info(key + ": " + value);
+    /**
+     * Hands the records of one state ({@code entityCode}, "00" for all of them) and activity to
+     * the sink in API order, starting at {@code firstRecord} (counted from 1) and stopping after
+     * record {@code max-records} when that is configured. Pages past the last one are cancelled as
+     * soon as a short page shows where the data ends. At most {@code parallelism} pages are held
+     * at a time, however large the load.
+     */
+    public void fetchClinics(String entityCode, String activity, long firstRecord,
+            Consumer<ExternalClinicResponseDTO> sink) {
+        Deque<Future<List<ExternalClinicResponseDTO>>> inFlight = new ArrayDeque<>();
+        long nextRecord = Math.max(1, firstRecord);
+        long fetched = 0;
+        boolean exhausted = false;
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            while (true) {
+                while (!exhausted && inFlight.size() < parallelism
+                        && (maxRecords <= 0 || nextRecord <= maxRecords)) {
+                    long first = nextRecord;
+                    long last = maxRecords > 0 ? Math.min(first + pageSize - 1, maxRecords)
+                            : first + pageSize - 1;
+                    inFlight.add(executor
+                            .submit(() -> fetchRange(entityCode, activity, first, last)));
+                    nextRecord = last + 1;
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+
+                // Pages are consumed in order, so the sink sees the API ordering
+                List<ExternalClinicResponseDTO> page = await(inFlight.poll());
+                page.forEach(sink);
+                fetched += page.size();
+                if (page.size() < pageSize) {
+                    exhausted = true;
+                    inFlight.forEach(pending -> pending.cancel(true));
+                    inFlight.clear();
+                }
             }
-        });
+        } finally {
+            // On failure the remaining pages are abandoned rather than waited for
+            inFlight.forEach(pending -> pending.cancel(true));
+            executor.shutdownNow();
+        }
 
-        return conn;
+        LOGGER.info("Fetched " + fetched + " clinics for " + entityCode + "/" + activity
+                + " from record " + firstRecord);
     }
 
-    private String readErrorResponse(InputStream errorStream) throws Exception {
-        if (errorStream == null)
-            return null;
-
-        ByteArrayOutputStream result = new ByteArrayOutputStream();
-        byte[] buffer = new byte[BUFFER_SIZE];
-        int length;
-        while ((length = errorStream.read(buffer)) != -1) {
-            result.write(buffer, 0, length);
+    private List<ExternalClinicResponseDTO> await(Future<List<ExternalClinicResponseDTO>> page) {
+        try {
+            return page.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Error fetching clinics: " + e.getCause().getMessage(),
+                    e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching clinics", e);
         }
-        return result.toString(StandardCharsets.UTF_8.name());
     }
 
-    @Transactional
-    public List<ExternalClinic> fetchClinics() {
-        List<ExternalClinic> allClinics = new ArrayList<>();
-        int currentPage = 1;
-        int totalPages = (int) Math.ceil((double) EXACT_RECORDS / BATCH_SIZE);
-
-        while (currentPage <= totalPages) {
-            int retryCount = 0;
-            long delay = INITIAL_DELAY_MS;
-            boolean success = false;
-
-            while (retryCount < MAX_RETRIES && !success) {
-                HttpURLConnection conn = null;
-                InputStream inputStream = null;
-
-                try {
-                    if (retryCount > 0) {
-                        LOGGER.info("Retry attempt " + retryCount + " after " + delay + "ms delay");
-                        sleep(delay);
+    // Records first..last, both inclusive and counted from 1
+    List<ExternalClinicResponseDTO> fetchRange(String entityCode, String activity, long first,
+            long last) {
+        HttpRequest request = HttpRequest.newBuilder(buildUri(entityCode, activity, first, last))
+                .timeout(READ_TIMEOUT)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip, deflate")
+                .header("User-Agent", USER_AGENT)
+                .header("Cache-Control", "no-cache")
+                .GET().build();
+        String range = "records " + first + "-" + last + " of " + entityCode + "/" + activity;
+
+        for (int attempt = 1;; attempt++) {
+            Duration wait;
+            try {
+                HttpResponse<InputStream> response =
+                        httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                int status = response.statusCode();
+                if (status == 200) {
+                    try (InputStream body = decodedBody(response)) {
+                        List<ExternalClinicResponseDTO> page = parse(body);
+                        LOGGER.info("Fetched " + range + ": " + page.size() + " clinics");
+                        return page;
                     }
+                }
 
-                    String finalUrl = buildUrl(currentPage, BATCH_SIZE);
-                    LOGGER.info("Fetching clinics from URL: " + finalUrl);
-
-                    URL url = new URL(finalUrl);
-                    conn = createConnection(url);
-
-                    int responseCode = conn.getResponseCode();
-                    LOGGER.info("Received response code: " + responseCode);
-
-                    if (responseCode == HttpURLConnection.HTTP_OK) {
-                        inputStream = conn.getInputStream();
-                        List<ExternalClinicResponseDTO> dtos = new ArrayList<>();
-
-                        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
-                            if (parser.nextToken() != JsonToken.START_ARRAY) {
-                                throw new RuntimeException("Expected array of clinics");
-                            }
-
-                            while (parser.nextToken() != JsonToken.END_ARRAY) {
-                                ExternalClinicResponseDTO dto = objectMapper.readValue(parser,
-                                        ExternalClinicResponseDTO.class);
-                                dtos.add(dto);
-                            }
-                        }
-
-                        List<ExternalClinic> batchClinics =
-                                ExternalClinicResponseMapper.toDomainList(dtos);
-                        LOGGER.info("Successfully fetched batch " + currentPage + " with "
-                                + batchClinics.size() + " clinics");
-
-                        // Set creation timestamp for all clinics in this batch
-                        Instant now = Instant.now();
-                        for (ExternalClinic clinic : batchClinics) {
-                            clinic.setCreatedAt(now);
-                        }
-
-                        // Save this batch
-                        repository.saveAll(batchClinics);
-                        allClinics.addAll(batchClinics);
-                        success = true;
-                    } else if (responseCode == 429
-                            || responseCode == HttpURLConnection.HTTP_UNAVAILABLE) {
-                        LOGGER.warning("Rate limited or service unavailable, will retry...");
-                        retryCount++;
-                        delay = Math.min(delay * 2, MAX_DELAY_MS);
-                        continue;
-                    } else {
-                        String errorMessage =
-                                "Failed to fetch clinics. Response code: " + responseCode;
-                        String errorResponse = readErrorResponse(conn.getErrorStream());
-                        if (errorResponse != null) {
-                            errorMessage += ". Error response: " + errorResponse;
-                        }
-                        throw new RuntimeException(errorMessage);
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Error fetching clinics batch " + currentPage, e);
-                    if (retryCount < MAX_RETRIES - 1) {
-                        retryCount++;
-                        delay = Math.min(delay * 2, MAX_DELAY_MS);
-                        continue;
-                    }
-                    throw new RuntimeException("Error fetching clinics batch " + currentPage
-                            + " after " + MAX_RETRIES + " attempts: " + e.getMessage(), e);
-                } finally {
-                    try {
-                        if (inputStream != null) {
-                            inputStream.close();
-                        }
-                        if (conn != null) {
-                            conn.disconnect();
-                        }
-                    } catch (Exception e) {
-                        LOGGER.log(Level.WARNING, "Error closing resources", e);
-                    }
+                String error = readErrorBody(response);
+                if (!isRetryable(status) || attempt == MAX_ATTEMPTS) {
+                    throw new RuntimeException("Failed to fetch clinics " + range
+                            + ". Response code: " + status
+                            + (error.isEmpty() ? "" : ". Error response: " + error));
+                }
+                Optional<Duration> requested = retryAfter(response);
+                if (requested.isPresent() && requested.get().compareTo(MAX_RETRY_AFTER) > 0) {
+                    throw new RuntimeException("Failed to fetch clinics " + range
+                            + ". Response code: " + status + ", retry requested after "
+                            + requested.get().toSeconds() + "s");
                 }
+                wait = requested.isPresent() ? requested.get() : backoff(attempt);
+                LOGGER.warning("Response " + status + " for " + range + ", retrying in "
+                        + wait.toMillis() + "ms");
+            } catch (IOException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new RuntimeException("Interrupted while fetching clinics " + range, e);
+                }
+                if (attempt == MAX_ATTEMPTS) {
+                    throw new RuntimeException("Error fetching clinics " + range + " after "
+                            + MAX_ATTEMPTS + " attempts: " + e.getMessage(), e);
+                }
+                wait = backoff(attempt);
+                LOGGER.log(Level.WARNING, "Error fetching clinics " + range + ", retrying in "
+                        + wait.toMillis() + "ms", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while fetching clinics " + range, e);
             }
+            sleep(wait);
+        }
+    }
+
+    private URI buildUri(String entityCode, String activity, long first, long last) {
+        String encodedActivity = URLEncoder.encode(activity, StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        // The token is part of the path, so this URI is never logged
+        return URI.create(String.format("%s/%s/%s/%d/%d/%s", baseUrl, encodedActivity,
+                entityCode, first, last, authToken));
+    }
 
-            if (!success) {
-                throw new RuntimeException("Failed to fetch clinics batch " + currentPage
-                        + " after " + MAX_RETRIES + " attempts");
+    private List<ExternalClinicResponseDTO> parse(InputStream body) throws IOException {
+        List<ExternalClinicResponseDTO> dtos = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected array of clinics");
             }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                dtos.add(objectMapper.readValue(parser, ExternalClinicResponseDTO.class));
+            }
+        }
+        return dtos;
+    }
 
-            currentPage++;
+    // HttpClient leaves content coding to the caller; decode while the parser reads
+    static InputStream decodedBody(HttpResponse<InputStream> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("")
+                .trim().toLowerCase();
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(response.body(), DECODE_BUFFER_BYTES);
+            case "deflate" -> new InflaterInputStream(response.body());
+            default -> response.body();
+        };
+    }
+
+    // The start of an error body is enough for the message; the rest is discarded
+    private static String readErrorBody(HttpResponse<InputStream> response) {
+        try (InputStream body = decodedBody(response)) {
+            return new String(body.readNBytes(MAX_ERROR_BODY_BYTES), StandardCharsets.UTF_8)
+                    .trim();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status == 408 || status >= 500;
+    }
+
+    // Retry-After as delay seconds or an HTTP date
+    static Optional<Duration> retryAfter(HttpResponse<?> response) {
+        Optional<String> header = response.headers().firstValue("Retry-After");
+        if (header.isEmpty()) {
+            return Optional.empty();
+        }
+        String value = header.get().trim();
+        Duration wait;
+        try {
+            wait = Duration.ofSeconds(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            try {
+                wait = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+            } catch (DateTimeParseException invalid) {
+                return Optional.empty();
+            }
+        }
+        if (wait.isNegative()) {
+            wait = Duration.ZERO;
         }
+        return Optional.of(wait);
+    }
 
-        return allClinics;
+    // Exponential with equal jitter: half the step is fixed, half random, so parallel page
+    // fetches that failed together don't retry together
+    private Duration backoff(int attempt) {
+        long step = Math.min(maxDelay.toMillis(),
+                initialDelay.toMillis() << Math.min(attempt - 1, 20));
+        long half = step / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
     }
 
-    private void sleep(long milliseconds) {
+    private void sleep(Duration duration) {
         try {
-            Thread.sleep(milliseconds);
+            Thread.sleep(duration.toMillis());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to retry", e);
         }
     }
 }
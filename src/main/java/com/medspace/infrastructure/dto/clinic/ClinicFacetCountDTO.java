@@ -0,0 +1,20 @@
+package com.medspace.infrastructure.dto.clinic;
+
+import com.medspace.domain.model.Clinic;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One cell of the clinic count cube; a null dimension means the count covers all its values
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClinicFacetCountDTO {
+    private Clinic.Category category;
+    private String city; // normalized city key
+    private String cityLabel;
+    private String equipmentType;
+    private long count;
+}
@@ -1,8 +1,10 @@
 package com.medspace.infrastructure.dto.clinic;
 
 import java.sql.Date;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import com.medspace.domain.model.Clinic;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,6 +25,22 @@ public class ClinicQueryDTO {
     private List<String> equipmentList;
     private LocalTime targetHour;
     private String targetCity;
+    private Clinic.Category targetCategory;
+    private String textQuery; // full-text search over display name and description
+
+    // Optional booking filter: clinics free on at least minFreeDates of targetDates (all if null)
+    private List<LocalDate> targetDates;
+    private Integer minFreeDates;
+
+    // Optional geographic filters: a center with an optional radius, and/or a bounding box
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+    private Double minLatitude;
+    private Double minLongitude;
+    private Double maxLatitude;
+    private Double maxLongitude;
+    private Integer limit; // max results when searching around a center
 
     public ClinicQueryDTO(Boolean includePhotos, Boolean includeEquipments,
             Boolean includeAvailabilities) {
@@ -1,6 +1,8 @@
 package com.medspace.infrastructure.dto.clinic;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.sql.Date;
+import java.time.Instant;
 import java.util.List;
 import com.medspace.domain.model.Clinic;
 import com.medspace.domain.model.Clinic.Category;
@@ -43,6 +45,12 @@ public class GetClinicDTO {
     private List<GetClinicEquipmentDTO> equipments;
     private List<GetClinicAvailabilityDTO> availabilities;
 
+    // Validators of the clinic row this was assembled from, for the ETag of the response
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Instant lastModified;
+
     public GetClinicDTO(Clinic clinic, Double averageRating, List<GetClinicPhotoDTO> photos,
             List<GetClinicEquipmentDTO> equipments, List<GetClinicAvailabilityDTO> availabilities) {
         this.id = clinic.getId();
@@ -69,5 +77,9 @@ public class GetClinicDTO {
         this.photos = photos;
         this.equipments = equipments;
         this.availabilities = availabilities;
+
+        this.version = clinic.getVersion();
+        this.lastModified =
+                clinic.getUpdatedAt() != null ? clinic.getUpdatedAt() : clinic.getCreatedAt();
     }
 }
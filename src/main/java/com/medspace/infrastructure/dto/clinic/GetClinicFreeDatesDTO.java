@@ -0,0 +1,17 @@
+package com.medspace.infrastructure.dto.clinic;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetClinicFreeDatesDTO {
+    private GetClinicDTO clinic;
+    private List<LocalDate> freeDates; // requested dates on which the clinic is free
+}
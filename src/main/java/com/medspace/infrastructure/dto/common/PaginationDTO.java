@@ -1,13 +1,27 @@
 package com.medspace.infrastructure.dto.common;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class PaginationDTO {
     private int page = 0;
     private int size = 50;
+
+    // Opaque keyset position from a previous page; takes precedence over page when present
+    private String cursor;
+
+    // Filled by the repository: where the next page starts, null on the last page
+    private String nextCursor;
+
+    public PaginationDTO(int page, int size) {
+        this.page = page;
+        this.size = size;
+    }
+
+    public PaginationDTO(String cursor, int size) {
+        this.cursor = cursor;
+        this.size = size;
+    }
 }
@@ -0,0 +1,17 @@
+package com.medspace.infrastructure.dto.common;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Validators of a resource for conditional GETs: an opaque ETag value and its last write time
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResourceVersionDTO {
+    private String version;
+    private Instant lastModified;
+}
@@ -0,0 +1,21 @@
+package com.medspace.infrastructure.dto.externalClinic;
+
+import com.medspace.domain.model.ExternalClinicSyncCheckpoint;
+import com.medspace.infrastructure.util.BoundedPipeline;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExternalClinicSyncReportDTO {
+    // True when the run picked up unfinished shards instead of starting over
+    private boolean resumed;
+    private List<ExternalClinicSyncCheckpoint> shards;
+    // Totals over every shard, per pipeline stage
+    private List<BoundedPipeline.StageStats> stages;
+}
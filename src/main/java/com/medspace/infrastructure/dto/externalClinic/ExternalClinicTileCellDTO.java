@@ -0,0 +1,19 @@
+package com.medspace.infrastructure.dto.externalClinic;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One cluster of a map tile: where to draw it, how many clinics it holds and of which specialty
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExternalClinicTileCellDTO {
+    private double latitude;
+    private double longitude;
+    private int count;
+    private Map<String, Integer> specialties;
+}
@@ -0,0 +1,19 @@
+package com.medspace.infrastructure.dto.externalClinic;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExternalClinicTileDTO {
+    private int z;
+    private int x;
+    private int y;
+    private long total;
+    private List<ExternalClinicTileCellDTO> cells;
+}
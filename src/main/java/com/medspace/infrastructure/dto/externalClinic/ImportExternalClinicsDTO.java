@@ -0,0 +1,17 @@
+package com.medspace.infrastructure.dto.externalClinic;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportExternalClinicsDTO {
+    // Name of a .csv, .json or gzipped dump in the import directory
+    private String file;
+    // Charset of a CSV dump, UTF-8 when not given; older INEGI downloads are ISO-8859-1
+    private String charset;
+}
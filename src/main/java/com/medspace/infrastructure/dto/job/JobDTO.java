@@ -0,0 +1,27 @@
+package com.medspace.infrastructure.dto.job;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDTO {
+    private String id;
+    private String kind;
+    private String status;
+    private String step;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long pages;
+    private long rows;
+    private long rowsWritten;
+    private double rowsPerSecond;
+    private String error;
+    // What the job returned, once it has succeeded
+    private Object result;
+}
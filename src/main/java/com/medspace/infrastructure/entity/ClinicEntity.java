@@ -1,7 +1,9 @@
 package com.medspace.infrastructure.entity;
 
 import com.medspace.domain.model.Clinic;
+import com.medspace.infrastructure.util.TextNormalizer;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,7 +13,9 @@ import java.time.Instant;
 import java.util.Set;
 
 @Entity
-@Table(name = "clinics")
+@Table(name = "clinics", indexes = {
+        @Index(name = "idx_clinics_normalized_city", columnList = "normalized_city, category"),
+        @Index(name = "idx_clinics_updated_at", columnList = "updated_at")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -43,6 +47,10 @@ public class ClinicEntity {
     @Column(name = "address_city", nullable = false)
     private String addressCity;
 
+    // TextNormalizer.normalizeCity(addressCity), kept in sync on every insert and update
+    @Column(name = "normalized_city")
+    private String normalizedCity;
+
     @Column(name = "address_state", nullable = false)
     private String addressState;
 
@@ -61,6 +69,15 @@ public class ClinicEntity {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    // Bumped on every write to the clinic, its children or its rating aggregate; see ETags. A
+    // plain counter rather than a JPA @Version, so those bulk bumps never fail a concurrent edit
+    @ColumnDefault("0")
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     @Column(name = "available_from_date", nullable = false)
     private Date availableFromDate;
 
@@ -70,6 +87,13 @@ public class ClinicEntity {
     @Column(name = "size", nullable = false)
     private Integer size;
 
+    // Aggregate of the CLINIC reviews, maintained by ReviewRepositoryImpl
+    @Column(name = "rating_count")
+    private Long ratingCount = 0L;
+
+    @Column(name = "rating_sum")
+    private Long ratingSum = 0L;
+
     @ManyToOne
     @JoinColumn(name = "landlord_id")
     private UserEntity landlord;
@@ -86,4 +110,20 @@ public class ClinicEntity {
     @OneToMany(mappedBy = "clinic", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<RentRequestEntity> rentRequests;
 
+    @PrePersist
+    void onInsert() {
+        version = 0L;
+        touch();
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        version = version != null ? version + 1 : 1;
+        touch();
+    }
+
+    private void touch() {
+        normalizedCity = TextNormalizer.normalizeCity(addressCity);
+        updatedAt = Instant.now();
+    }
 }
@@ -1,6 +1,7 @@
 package com.medspace.infrastructure.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -28,7 +29,26 @@ public class ClinicEquipmentEntity {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    @ColumnDefault("0")
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     @ManyToOne
     @JoinColumn(name = "clinic_id")
     private ClinicEntity clinic;
+
+    @PrePersist
+    void onInsert() {
+        version = 0L;
+        updatedAt = Instant.now();
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        version = version != null ? version + 1 : 1;
+        updatedAt = Instant.now();
+    }
 }
@@ -7,6 +7,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,12 +15,15 @@ import lombok.Setter;
 import java.time.Instant;
 
 @Entity
-@Table(name = "external_clinics")
+@Table(name = "external_clinics", uniqueConstraints = @UniqueConstraint(
+        name = ExternalClinicEntity.EXTERNAL_ID_INDEX, columnNames = "external_id"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExternalClinicEntity extends PanacheEntityBase {
+    // Bulk loads upsert on this index
+    public static final String EXTERNAL_ID_INDEX = "uk_external_clinics_external_id";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -94,6 +98,9 @@ public class ExternalClinicEntity extends PanacheEntityBase {
     @Column(name = "specialty", length = 100)
     private String specialty;
 
+    @Column(name = "content_hash", length = 44)
+    private String contentHash;
+
     @Column(name = "created_at")
     private Instant createdAt;
 }
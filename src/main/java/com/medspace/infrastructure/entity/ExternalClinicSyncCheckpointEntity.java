@@ -0,0 +1,48 @@
+package com.medspace.infrastructure.entity;
+
+import com.medspace.domain.model.ExternalClinicSyncCheckpoint;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "external_clinic_sync_checkpoints", uniqueConstraints = @UniqueConstraint(
+        name = "uk_external_clinic_sync_shard", columnNames = {"entity_code", "activity"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExternalClinicSyncCheckpointEntity extends PanacheEntityBase {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_code", length = 2, nullable = false)
+    private String entityCode;
+
+    @Column(name = "activity", length = 255, nullable = false)
+    private String activity;
+
+    @Column(name = "next_record", nullable = false)
+    private Long nextRecord;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private ExternalClinicSyncCheckpoint.Status status;
+
+    @Column(name = "records_seen")
+    private Long recordsSeen;
+
+    @Column(name = "records_written")
+    private Long recordsWritten;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -0,0 +1,107 @@
+package com.medspace.infrastructure.job;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+// One run of a task on the BackgroundJobRunner. Progress is written by the job's thread and read
+// by status requests, so every field is either final, volatile or an adder.
+@Getter
+public class BackgroundJob implements JobProgress {
+    public enum Status {
+        RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    private final String id;
+    private final String kind;
+    private final Instant startedAt = Instant.now();
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String step;
+    private volatile String error;
+    private volatile Object result;
+    @Getter(AccessLevel.NONE)
+    private final LongAdder pages = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    private final LongAdder rows = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    private final LongAdder rowsWritten = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    private volatile boolean cancelRequested;
+    @Getter(AccessLevel.NONE)
+    private volatile Future<?> future;
+
+    BackgroundJob(String id, String kind) {
+        this.id = id;
+        this.kind = kind;
+    }
+
+    @Override
+    public void step(String description) {
+        this.step = description;
+    }
+
+    @Override
+    public void advance(long rows, long rowsWritten) {
+        this.pages.increment();
+        this.rows.add(rows);
+        this.rowsWritten.add(rowsWritten);
+    }
+
+    public long getPages() {
+        return pages.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.sum();
+    }
+
+    // Rows per second since the job started, up to now or to when it finished
+    public double getRowsPerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = Duration.between(startedAt, end).toMillis() / 1000.0;
+        return seconds > 0 ? getRows() / seconds : 0;
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    // Interrupts the job's thread; the job ends as CANCELLED once the task gives up
+    boolean cancel() {
+        if (isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        Future<?> running = future;
+        if (running != null) {
+            running.cancel(true);
+        }
+        return true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void start(Future<?> future) {
+        this.future = future;
+        if (cancelRequested) {
+            future.cancel(true);
+        }
+    }
+
+    void finish(Status status, Object result, String error) {
+        this.result = result;
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+}
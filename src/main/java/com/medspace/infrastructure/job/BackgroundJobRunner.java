@@ -0,0 +1,119 @@
+package com.medspace.infrastructure.job;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.arc.ManagedContext;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs long tasks, such as the external clinic load, on virtual threads outside the request that
+ * started them. At most one job per exclusion key runs at a time; by default a job's key is its
+ * kind, and jobs that write the same data share one. Jobs are kept in memory until
+ * MAX_FINISHED_JOBS newer ones have finished, so their progress and result can be polled by id.
+ * Each job runs in a request context of its own, as a request would, but without a transaction:
+ * the task opens the transactions it needs.
+ */
+@ApplicationScoped
+public class BackgroundJobRunner {
+    private static final Logger LOGGER = Logger.getLogger(BackgroundJobRunner.class.getName());
+    private static final int MAX_FINISHED_JOBS = 50;
+
+    private final Map<String, BackgroundJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, BackgroundJob> runningByKey = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BackgroundJob submit(String kind, Function<JobProgress, Object> task) {
+        return submit(kind, kind, task);
+    }
+
+    /**
+     * Starts the task as a job and returns it straight away. The task reports progress through
+     * the job it is given, and what it returns becomes the job's result. Throws
+     * IllegalStateException when a job with the same exclusion key is still running.
+     */
+    public BackgroundJob submit(String kind, String exclusionKey,
+            Function<JobProgress, Object> task) {
+        BackgroundJob job = new BackgroundJob(UUID.randomUUID().toString(), kind);
+        BackgroundJob running = runningByKey.putIfAbsent(exclusionKey, job);
+        if (running != null) {
+            throw new IllegalStateException("A " + running.getKind()
+                    + " job is already running with id " + running.getId());
+        }
+        jobs.put(job.getId(), job);
+        removeOldJobs();
+        job.start(executor.submit(() -> run(job, exclusionKey, task)));
+        return job;
+    }
+
+    public BackgroundJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    // Null when there is no such job; otherwise the job, still RUNNING until its task stops
+    public BackgroundJob cancel(String id) {
+        BackgroundJob job = jobs.get(id);
+        if (job != null && job.cancel()) {
+            LOGGER.info("Cancelling " + job.getKind() + " job " + id);
+        }
+        return job;
+    }
+
+    private void run(BackgroundJob job, String exclusionKey, Function<JobProgress, Object> task) {
+        BackgroundJob.Status status = BackgroundJob.Status.SUCCEEDED;
+        Object result = null;
+        String error = null;
+        // No container when the runner is used outside the application, as in unit tests
+        ArcContainer container = Arc.container();
+        ManagedContext requestContext = container != null ? container.requestContext() : null;
+        if (requestContext != null) {
+            requestContext.activate();
+        }
+        try {
+            if (job.isCancelRequested()) {
+                throw new CancellationException();
+            }
+            result = task.apply(job);
+            if (job.isCancelRequested()) {
+                status = BackgroundJob.Status.CANCELLED;
+            }
+        } catch (RuntimeException | Error e) {
+            if (job.isCancelRequested() || e instanceof CancellationException) {
+                status = BackgroundJob.Status.CANCELLED;
+            } else {
+                LOGGER.log(Level.WARNING, job.getKind() + " job " + job.getId() + " failed", e);
+                status = BackgroundJob.Status.FAILED;
+                error = String.valueOf(e.getMessage());
+            }
+        } finally {
+            if (requestContext != null) {
+                requestContext.terminate();
+            }
+            // Free the key first, so a caller that sees the job finished can submit the next
+            runningByKey.remove(exclusionKey, job);
+        }
+        job.finish(status, result, error);
+    }
+
+    private void removeOldJobs() {
+        jobs.values().stream().filter(BackgroundJob::isFinished)
+                .sorted(Comparator.comparing(BackgroundJob::getFinishedAt).reversed())
+                .skip(MAX_FINISHED_JOBS)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
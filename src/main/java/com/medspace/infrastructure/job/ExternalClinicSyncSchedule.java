@@ -0,0 +1,29 @@
+package com.medspace.infrastructure.job;
+
+import com.medspace.application.usecase.externalClinic.LoadExternalClinicsUseCase;
+import com.medspace.infrastructure.dto.job.JobDTO;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.logging.Logger;
+
+// Starts the external clinic sync on external.clinic.sync.cron; "off" disables it
+@ApplicationScoped
+public class ExternalClinicSyncSchedule {
+    private static final Logger LOGGER =
+            Logger.getLogger(ExternalClinicSyncSchedule.class.getName());
+
+    @Inject
+    LoadExternalClinicsUseCase loadExternalClinicsUseCase;
+
+    @Scheduled(identity = "external-clinic-sync", cron = "{external.clinic.sync.cron}")
+    void startSync() {
+        try {
+            JobDTO job = loadExternalClinicsUseCase.execute();
+            LOGGER.info("Started scheduled external clinic sync as job " + job.getId());
+        } catch (IllegalStateException e) {
+            // A load started by hand is still running; it covers this run
+            LOGGER.info("Skipping scheduled external clinic sync: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.medspace.infrastructure.job;
+
+// What a long-running task reports while it works; see BackgroundJobRunner
+public interface JobProgress {
+    JobProgress NONE = new JobProgress() {
+        @Override
+        public void step(String description) {}
+
+        @Override
+        public void advance(long rows, long rowsWritten) {}
+    };
+
+    // Names the part of the work in progress, such as the shard being loaded
+    void step(String description);
+
+    // One page of work done: rows looked at, and how many of them were written
+    void advance(long rows, long rowsWritten);
+}
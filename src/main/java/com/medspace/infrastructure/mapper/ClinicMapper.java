@@ -24,6 +24,7 @@ public class ClinicMapper {
 
         clinic.setAddressStreet(clinicEntity.getAddressStreet());
         clinic.setAddressCity(clinicEntity.getAddressCity());
+        clinic.setNormalizedCity(clinicEntity.getNormalizedCity());
         clinic.setAddressState(clinicEntity.getAddressState());
         clinic.setAddressCountry(clinicEntity.getAddressCountry());
         clinic.setAddressZip(clinicEntity.getAddressZip());
@@ -32,9 +33,14 @@ public class ClinicMapper {
 
         clinic.setSize(clinicEntity.getSize());
 
+        clinic.setRatingCount(clinicEntity.getRatingCount());
+        clinic.setRatingSum(clinicEntity.getRatingSum());
+
         clinic.setLandlord(UserMapper.toDomain(clinicEntity.getLandlord()));
 
         clinic.setCreatedAt(clinicEntity.getCreatedAt());
+        clinic.setVersion(clinicEntity.getVersion());
+        clinic.setUpdatedAt(clinicEntity.getUpdatedAt());
 
         return clinic;
     }
@@ -66,6 +72,9 @@ public class ClinicMapper {
 
         clinicEntity.setSize(clinic.getSize());
 
+        clinicEntity.setRatingCount(clinic.getRatingCount() != null ? clinic.getRatingCount() : 0L);
+        clinicEntity.setRatingSum(clinic.getRatingSum() != null ? clinic.getRatingSum() : 0L);
+
         clinicEntity.setLandlord(UserMapper.toEntity(clinic.getLandlord()));
 
         clinicEntity.setCreatedAt(clinic.getCreatedAt());
@@ -15,6 +15,7 @@ public class ExternalClinicMapper {
         }
 
         ExternalClinic clinic = new ExternalClinic();
+        clinic.setId(entity.getId());
         clinic.setClee(entity.getClee());
         clinic.setExternalId(entity.getExternalId());
         clinic.setNombre(entity.getNombre());
@@ -38,6 +39,7 @@ public class ExternalClinicMapper {
         clinic.setNomCorredorIndustrial(entity.getNomCorredorIndustrial());
         clinic.setNumeroLocal(entity.getNumeroLocal());
         clinic.setSpecialty(entity.getSpecialty());
+        clinic.setContentHash(entity.getContentHash());
         clinic.setCreatedAt(entity.getCreatedAt());
         return clinic;
     }
@@ -71,6 +73,7 @@ public class ExternalClinicMapper {
         entity.setNomCorredorIndustrial(domain.getNomCorredorIndustrial());
         entity.setNumeroLocal(domain.getNumeroLocal());
         entity.setSpecialty(domain.getSpecialty());
+        entity.setContentHash(domain.getContentHash());
         entity.setCreatedAt(domain.getCreatedAt());
         return entity;
     }
@@ -104,6 +107,7 @@ public class ExternalClinicMapper {
         entityToUpdate.setNomCorredorIndustrial(domain.getNomCorredorIndustrial());
         entityToUpdate.setNumeroLocal(domain.getNumeroLocal());
         entityToUpdate.setSpecialty(domain.getSpecialty());
+        entityToUpdate.setContentHash(domain.getContentHash());
     }
 
     public static GetExternalClinicSpecialistsDashboardDTO toDashboardDTO(
@@ -112,25 +116,34 @@ public class ExternalClinicMapper {
             return null;
         }
 
-        // Extract state from ubicacion (last component after the last comma)
+        return toDashboardDTO(entity.getLatitud(), entity.getLongitud(), entity.getUbicacion(),
+                entity.getClaseActividad(), entity.getSpecialty(), entity.getNombre());
+    }
+
+    // Same mapping from the projected columns, for queries that don't load entities
+    public static GetExternalClinicSpecialistsDashboardDTO toDashboardDTO(Double latitud,
+            Double longitud, String ubicacion, String claseActividad, String specialty,
+            String nombre) {
+        // Ensure coordinates are not null
+        return new GetExternalClinicSpecialistsDashboardDTO(latitud != null ? latitud : 0.0,
+                longitud != null ? longitud : 0.0, boroughOf(ubicacion),
+                claseActividad != null ? claseActividad : "", specialtyOf(specialty, nombre));
+    }
+
+    // Extract state from ubicacion (last component after the last comma)
+    public static String boroughOf(String ubicacion) {
         String clinicBorough = "";
-        if (entity.getUbicacion() != null && !entity.getUbicacion().trim().isEmpty()) {
-            String[] parts = entity.getUbicacion().split(",");
+        if (ubicacion != null && !ubicacion.trim().isEmpty()) {
+            String[] parts = ubicacion.split(",");
             if (parts.length > 0) {
                 clinicBorough = parts[parts.length - 1].trim();
             }
         }
+        return clinicBorough;
+    }
 
-        // Ensure coordinates are not null
-        Double latitud = entity.getLatitud() != null ? entity.getLatitud() : 0.0;
-        Double longitud = entity.getLongitud() != null ? entity.getLongitud() : 0.0;
-        String claseActividad =
-                entity.getClaseActividad() != null ? entity.getClaseActividad() : "";
-        String specialty = entity.getSpecialty() != null ? entity.getSpecialty()
-                : SpecialtyDetector.detectSpecialty(entity.getNombre());
-
-        return new GetExternalClinicSpecialistsDashboardDTO(latitud, longitud, clinicBorough,
-                claseActividad, specialty);
+    public static String specialtyOf(String specialty, String nombre) {
+        return specialty != null ? specialty : SpecialtyDetector.detectSpecialty(nombre);
     }
 
     public static ExternalClinicEntity toEntity(ExternalClinicResponseDTO dto) {
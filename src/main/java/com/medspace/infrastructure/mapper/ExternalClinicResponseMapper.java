@@ -2,9 +2,11 @@ package com.medspace.infrastructure.mapper;
 
 import com.medspace.domain.model.ExternalClinic;
 import com.medspace.infrastructure.dto.externalClinic.ExternalClinicResponseDTO;
-import com.medspace.infrastructure.util.SpecialtyDetector;
-import java.util.List;
-import java.util.stream.Collectors;
+import com.medspace.infrastructure.util.TextNormalizer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 
 public class ExternalClinicResponseMapper {
 
@@ -31,7 +33,6 @@ public class ExternalClinicResponseMapper {
         clinic.setCorreoE(dto.getCorreo_e());
         clinic.setSitioInternet(dto.getSitio_internet());
         clinic.setTipo(dto.getTipo());
-        clinic.setSpecialty(SpecialtyDetector.detectSpecialty(dto.getNombre()));
 
         // Convert String coordinates to Double
         try {
@@ -52,10 +53,34 @@ public class ExternalClinicResponseMapper {
         return clinic;
     }
 
-    public static List<ExternalClinic> toDomainList(List<ExternalClinicResponseDTO> dtos) {
-        if (dtos == null)
-            return List.of();
-        return dtos.stream().map(ExternalClinicResponseMapper::toDomain)
-                .collect(Collectors.toList());
+    /**
+     * SHA-256 of every stored field, as 44 Base64 characters. The derived specialty is included,
+     * so a change to the detector rewrites the records it now classifies differently. Text is
+     * hashed as folded words and blank text as missing, so the same record read from the API and
+     * from a DENUE dump, which differ in case, accents, punctuation and empty columns, hashes the
+     * same. Fields are separated by a unit separator. Call once the specialty is set.
+     */
+    public static String contentHash(ExternalClinic clinic) {
+        StringBuilder content = new StringBuilder(512);
+        for (Object field : new Object[] {clinic.getClee(), clinic.getExternalId(),
+                clinic.getNombre(), clinic.getRazonSocial(), clinic.getClaseActividad(),
+                clinic.getEstrato(), clinic.getTipoVialidad(), clinic.getCalle(),
+                clinic.getNumExterior(), clinic.getNumInterior(), clinic.getColonia(),
+                clinic.getCp(), clinic.getUbicacion(), clinic.getTelefono(), clinic.getCorreoE(),
+                clinic.getSitioInternet(), clinic.getTipo(), clinic.getLongitud(),
+                clinic.getLatitud(), clinic.getTipoCorredorIndustrial(),
+                clinic.getNomCorredorIndustrial(), clinic.getNumeroLocal(),
+                clinic.getSpecialty()}) {
+            String value = field instanceof String text ? TextNormalizer.normalizeWords(text)
+                    : field == null ? "" : field.toString();
+            content.append(value.isEmpty() ? "\u0000" : value).append('\u001F');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -0,0 +1,29 @@
+package com.medspace.infrastructure.mapper;
+
+import com.medspace.domain.model.ExternalClinicSyncCheckpoint;
+import com.medspace.infrastructure.entity.ExternalClinicSyncCheckpointEntity;
+
+public class ExternalClinicSyncCheckpointMapper {
+
+    public static ExternalClinicSyncCheckpoint toDomain(ExternalClinicSyncCheckpointEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        return new ExternalClinicSyncCheckpoint(entity.getId(), entity.getEntityCode(),
+                entity.getActivity(), entity.getNextRecord(), entity.getStatus(),
+                entity.getRecordsSeen(), entity.getRecordsWritten(), entity.getLastError(),
+                entity.getUpdatedAt());
+    }
+
+    public static void updateEntityFromDomain(ExternalClinicSyncCheckpoint checkpoint,
+            ExternalClinicSyncCheckpointEntity entity) {
+        entity.setEntityCode(checkpoint.getEntityCode());
+        entity.setActivity(checkpoint.getActivity());
+        entity.setNextRecord(checkpoint.getNextRecord());
+        entity.setStatus(checkpoint.getStatus());
+        entity.setRecordsSeen(checkpoint.getRecordsSeen());
+        entity.setRecordsWritten(checkpoint.getRecordsWritten());
+        entity.setLastError(checkpoint.getLastError());
+    }
+}
@@ -0,0 +1,17 @@
+package com.medspace.infrastructure.mapper;
+
+import com.medspace.infrastructure.dto.job.JobDTO;
+import com.medspace.infrastructure.job.BackgroundJob;
+
+public class JobMapper {
+
+    public static JobDTO toDTO(BackgroundJob job) {
+        if (job == null) {
+            return null;
+        }
+
+        return new JobDTO(job.getId(), job.getKind(), job.getStatus().name(), job.getStep(),
+                job.getStartedAt(), job.getFinishedAt(), job.getPages(), job.getRows(),
+                job.getRowsWritten(), job.getRowsPerSecond(), job.getError(), job.getResult());
+    }
+}
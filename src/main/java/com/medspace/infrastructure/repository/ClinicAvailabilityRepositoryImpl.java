@@ -1,5 +1,6 @@
 package com.medspace.infrastructure.repository;
 
+import com.medspace.domain.event.ClinicChangedEvent;
 import com.medspace.domain.model.ClinicAvailability;
 import com.medspace.domain.repository.ClinicAvailabilityRepository;
 import com.medspace.infrastructure.entity.ClinicAvailabilityEntity;
@@ -7,6 +8,7 @@ import com.medspace.infrastructure.entity.ClinicEntity;
 import com.medspace.infrastructure.mapper.ClinicAvailabilityMapper;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
@@ -20,12 +22,16 @@ public class ClinicAvailabilityRepositoryImpl implements ClinicAvailabilityRepos
     @Inject
     ClinicRepositoryImpl clinicRepository;
 
+    @Inject
+    Event<ClinicChangedEvent> clinicChangedEvent;
+
     @Transactional
     @Override
     public ClinicAvailability insertAvailability(ClinicAvailability clinicAvailability) {
         ClinicAvailabilityEntity clinicAvailabilityEntity =
                 ClinicAvailabilityMapper.toEntity(clinicAvailability);
         persist(clinicAvailabilityEntity);
+        fireClinicChanged(clinicAvailabilityEntity);
         clinicAvailability = ClinicAvailabilityMapper.toDomain(clinicAvailabilityEntity);
         return clinicAvailability;
     }
@@ -43,6 +49,7 @@ public class ClinicAvailabilityRepositoryImpl implements ClinicAvailabilityRepos
         clinicAvailabilityEntity.setEndTime(clinicAvailability.getEndTime());
 
         persist(clinicAvailabilityEntity);
+        fireClinicChanged(clinicAvailabilityEntity);
         return ClinicAvailabilityMapper.toDomain(clinicAvailabilityEntity);
     }
 
@@ -52,6 +59,7 @@ public class ClinicAvailabilityRepositoryImpl implements ClinicAvailabilityRepos
         ClinicAvailabilityEntity clinicAvailabilityEntity = findById(id);
         if (clinicAvailabilityEntity != null) {
             delete(clinicAvailabilityEntity);
+            fireClinicChanged(clinicAvailabilityEntity);
         } else {
             throw new NotFoundException("ClinicAvailability with id " + id + " not found");
         }
@@ -71,8 +79,11 @@ public class ClinicAvailabilityRepositoryImpl implements ClinicAvailabilityRepos
             throw new NotFoundException("Clinic with id " + clinicId + " not found");
         }
 
+        // The previous clinic, if any, loses the availability
+        fireClinicChanged(clinicAvailabilityEntity);
         clinicAvailabilityEntity.setClinic(clinicEntity);
         persist(clinicAvailabilityEntity);
+        fireClinicChanged(clinicAvailabilityEntity);
         return ClinicAvailabilityMapper.toDomain(clinicAvailabilityEntity);
     }
 
@@ -90,6 +101,17 @@ public class ClinicAvailabilityRepositoryImpl implements ClinicAvailabilityRepos
         return clinicAvailabilities;
     }
 
+    public List<ClinicAvailability> getAvailabilitiesByClinicIds(List<Long> clinicIds) {
+        if (clinicIds == null || clinicIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<ClinicAvailabilityEntity> clinicAvailabilityEntities =
+                list("clinic.id in ?1", clinicIds);
+        return clinicAvailabilityEntities.stream().map(ClinicAvailabilityMapper::toDomain)
+                .toList();
+    }
+
     public ClinicAvailability getAvailabilityById(Long id) {
         ClinicAvailabilityEntity clinicAvailabilityEntity = findById(id);
         if (clinicAvailabilityEntity == null) {
@@ -97,4 +119,13 @@ public class ClinicAvailabilityRepositoryImpl implements ClinicAvailabilityRepos
         }
         return ClinicAvailabilityMapper.toDomain(clinicAvailabilityEntity);
     }
+
+    private void fireClinicChanged(ClinicAvailabilityEntity clinicAvailabilityEntity) {
+        if (clinicAvailabilityEntity.getClinic() != null) {
+            Long clinicId = clinicAvailabilityEntity.getClinic().getId();
+            clinicRepository.touchClinic(clinicId);
+            clinicChangedEvent
+                    .fire(new ClinicChangedEvent(clinicId, ClinicChangedEvent.Type.UPDATED));
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.medspace.infrastructure.repository;
 
+import com.medspace.domain.event.ClinicChangedEvent;
 import com.medspace.domain.model.ClinicEquipment;
 import com.medspace.domain.repository.ClinicEquipmentRepository;
 import com.medspace.infrastructure.entity.ClinicEntity;
@@ -7,6 +8,7 @@ import com.medspace.infrastructure.entity.ClinicEquipmentEntity;
 import com.medspace.infrastructure.mapper.ClinicEquipmentMapper;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
@@ -20,12 +22,16 @@ public class ClinicEquipmentRepositoryImpl
     @Inject
     ClinicRepositoryImpl clinicRepository;
 
+    @Inject
+    Event<ClinicChangedEvent> clinicChangedEvent;
+
     @Transactional
     @Override
     public ClinicEquipment insertEquipment(ClinicEquipment clinicEquipment) {
         ClinicEquipmentEntity clinicEquipmentEntity =
                 ClinicEquipmentMapper.toEntity(clinicEquipment);
         persist(clinicEquipmentEntity);
+        fireClinicChanged(clinicEquipmentEntity);
         clinicEquipment = ClinicEquipmentMapper.toDomain(clinicEquipmentEntity);
         return clinicEquipment;
     }
@@ -45,6 +51,7 @@ public class ClinicEquipmentRepositoryImpl
         ClinicEquipmentEntity clinicEquipmentEntity = findById(id);
         if (clinicEquipmentEntity != null) {
             delete(clinicEquipmentEntity);
+            fireClinicChanged(clinicEquipmentEntity);
         } else {
             throw new NotFoundException("ClinicEquipment with id " + id + " not found");
         }
@@ -64,8 +71,11 @@ public class ClinicEquipmentRepositoryImpl
             throw new NotFoundException("Clinic with id " + clinicId + " not found");
         }
 
+        // The previous clinic, if any, loses the equipment
+        fireClinicChanged(clinicEquipmentEntity);
         clinicEquipmentEntity.setClinic(clinicEntity);
         persist(clinicEquipmentEntity);
+        fireClinicChanged(clinicEquipmentEntity);
         return ClinicEquipmentMapper.toDomain(clinicEquipmentEntity);
     }
 
@@ -83,4 +93,23 @@ public class ClinicEquipmentRepositoryImpl
 
         return clinicEquipments;
     }
+
+    @Override
+    public List<ClinicEquipment> getEquipmentsByClinicIds(List<Long> clinicIds) {
+        if (clinicIds == null || clinicIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<ClinicEquipmentEntity> clinicEquipmentEntities = list("clinic.id in ?1", clinicIds);
+        return clinicEquipmentEntities.stream().map(ClinicEquipmentMapper::toDomain).toList();
+    }
+
+    private void fireClinicChanged(ClinicEquipmentEntity clinicEquipmentEntity) {
+        if (clinicEquipmentEntity.getClinic() != null) {
+            Long clinicId = clinicEquipmentEntity.getClinic().getId();
+            clinicRepository.touchClinic(clinicId);
+            clinicChangedEvent
+                    .fire(new ClinicChangedEvent(clinicId, ClinicChangedEvent.Type.UPDATED));
+        }
+    }
 }
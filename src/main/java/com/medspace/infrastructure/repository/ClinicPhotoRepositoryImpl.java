@@ -1,5 +1,6 @@
 package com.medspace.infrastructure.repository;
 
+import com.medspace.domain.event.ClinicChangedEvent;
 import com.medspace.domain.model.ClinicPhoto;
 import com.medspace.domain.repository.ClinicPhotoRepository;
 import com.medspace.infrastructure.entity.ClinicEntity;
@@ -7,6 +8,7 @@ import com.medspace.infrastructure.entity.ClinicPhotoEntity;
 import com.medspace.infrastructure.mapper.ClinicPhotoMapper;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
@@ -19,12 +21,15 @@ public class ClinicPhotoRepositoryImpl
         implements ClinicPhotoRepository, PanacheRepositoryBase<ClinicPhotoEntity, Long> {
     @Inject
     ClinicRepositoryImpl clinicRepository;
+    @Inject
+    Event<ClinicChangedEvent> clinicChangedEvent;
 
     @Transactional
     @Override
     public ClinicPhoto insertPhoto(ClinicPhoto clinicPhoto) {
         ClinicPhotoEntity clinicPhotoEntity = ClinicPhotoMapper.toEntity(clinicPhoto);
         persist(clinicPhotoEntity);
+        fireClinicChanged(clinicPhotoEntity);
         clinicPhoto = ClinicPhotoMapper.toDomain(clinicPhotoEntity);
         return clinicPhoto;
     }
@@ -44,6 +49,7 @@ public class ClinicPhotoRepositoryImpl
         ClinicPhotoEntity clinicPhotoEntity = findById(id);
         if (clinicPhotoEntity != null) {
             delete(clinicPhotoEntity);
+            fireClinicChanged(clinicPhotoEntity);
         } else {
             throw new NotFoundException("ClinicPhoto with id " + id + " not Found");
         }
@@ -62,8 +68,11 @@ public class ClinicPhotoRepositoryImpl
             throw new NotFoundException("Clinic with id " + clinicId + " not Found");
         }
 
+        // The previous clinic, if any, loses the photo
+        fireClinicChanged(clinicPhotoEntity);
         clinicPhotoEntity.setClinic(clinicEntity);
         persist(clinicPhotoEntity);
+        fireClinicChanged(clinicPhotoEntity);
         return ClinicPhotoMapper.toDomain(clinicPhotoEntity);
     }
 
@@ -82,6 +91,16 @@ public class ClinicPhotoRepositoryImpl
         return clinicPhotos;
     }
 
+    @Override
+    public List<ClinicPhoto> getClinicPhotosByClinicIds(List<Long> clinicIds) {
+        if (clinicIds == null || clinicIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<ClinicPhotoEntity> clinicPhotoEntities = list("clinic.id in ?1", clinicIds);
+        return clinicPhotoEntities.stream().map(ClinicPhotoMapper::toDomain).toList();
+    }
+
     @Override
     @Transactional
     public void setPhotoAsPrimary(Long id) {
@@ -106,5 +125,15 @@ public class ClinicPhotoRepositoryImpl
 
         clinicPhotoEntity.setIsPrimary(true);
         persist(clinicPhotoEntity);
+        fireClinicChanged(clinicPhotoEntity);
+    }
+
+    private void fireClinicChanged(ClinicPhotoEntity clinicPhotoEntity) {
+        if (clinicPhotoEntity.getClinic() != null) {
+            Long clinicId = clinicPhotoEntity.getClinic().getId();
+            clinicRepository.touchClinic(clinicId);
+            clinicChangedEvent
+                    .fire(new ClinicChangedEvent(clinicId, ClinicChangedEvent.Type.UPDATED));
+        }
     }
 }
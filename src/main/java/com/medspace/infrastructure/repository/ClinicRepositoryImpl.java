@@ -1,34 +1,34 @@
 package com.medspace.infrastructure.repository;
 
 
+import com.medspace.domain.event.ClinicChangedEvent;
 import com.medspace.domain.model.Clinic;
 import com.medspace.domain.repository.ClinicRepository;
+import com.medspace.infrastructure.dto.clinic.CityFilterDTO;
+import com.medspace.infrastructure.dto.clinic.ClinicFacetCountDTO;
 import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
-import com.medspace.infrastructure.entity.ClinicAvailabilityEntity;
+import com.medspace.infrastructure.dto.common.ResourceVersionDTO;
 import com.medspace.infrastructure.entity.ClinicEntity;
-import com.medspace.infrastructure.entity.ClinicEquipmentEntity;
 import com.medspace.infrastructure.entity.UserEntity;
 import com.medspace.infrastructure.mapper.ClinicMapper;
+import com.medspace.infrastructure.search.ClinicSearchIndex;
+import com.medspace.infrastructure.util.TextNormalizer;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
-import java.util.Set;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import jakarta.persistence.criteria.Expression;
+import java.util.Map;
 
 @ApplicationScoped
 public class ClinicRepositoryImpl
@@ -38,6 +38,12 @@ public class ClinicRepositoryImpl
     @Inject
     UserRepositoryImpl userRepository;
 
+    @Inject
+    ClinicSearchIndex clinicSearchIndex;
+
+    @Inject
+    Event<ClinicChangedEvent> clinicChangedEvent;
+
     @PersistenceContext
     EntityManager em;
 
@@ -46,6 +52,8 @@ public class ClinicRepositoryImpl
     public Clinic insertClinic(Clinic clinic) {
         ClinicEntity clinicEntity = ClinicMapper.toEntity(clinic);
         persist(clinicEntity);
+        clinicChangedEvent.fire(
+                new ClinicChangedEvent(clinicEntity.getId(), ClinicChangedEvent.Type.CREATED));
         clinic = ClinicMapper.toDomain(clinicEntity);
         return clinic;
     }
@@ -64,41 +72,29 @@ public class ClinicRepositoryImpl
 
     @Override
     public List<Clinic> getFilteredClinics(ClinicQueryDTO filter) {
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<ClinicEntity> query = cb.createQuery(ClinicEntity.class);
-        Root<ClinicEntity> clinic = query.from(ClinicEntity.class);
-
-        List<Predicate> predicates = new ArrayList<>();
-
-        if (filter.getTargetDate() != null) {
-            predicates.add(
-                    cb.lessThanOrEqualTo(clinic.get("availableFromDate"), filter.getTargetDate()));
-            predicates.add(
-                    cb.greaterThanOrEqualTo(clinic.get("availableToDate"), filter.getTargetDate()));
+        List<Long> clinicIds = clinicSearchIndex.search(filter);
+        if (clinicIds.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        if (filter.getEquipmentList() != null) {
-            Join<ClinicEntity, ClinicEquipmentEntity> equipmentJoin =
-                    clinic.join("equipments", JoinType.INNER);
-            predicates.add(equipmentJoin.get("type").in(filter.getEquipmentList()));
-        }
+        List<ClinicEntity> entities = em.createQuery("SELECT c FROM ClinicEntity c "
+                + "LEFT JOIN FETCH c.landlord l LEFT JOIN FETCH l.tenantSpecialty "
+                + "WHERE c.id IN :clinicIds", ClinicEntity.class)
+                .setParameter("clinicIds", clinicIds).getResultList();
 
-        if (filter.getTargetHour() != null) {
-            Join<ClinicEntity, ClinicAvailabilityEntity> availability =
-                    clinic.join("availabilities");
-            predicates.add(
-                    cb.lessThanOrEqualTo(availability.get("startTime"), filter.getTargetHour()));
-            predicates.add(
-                    cb.greaterThanOrEqualTo(availability.get("endTime"), filter.getTargetHour()));
+        // Keep the order chosen by the index (by id, or by distance for nearby searches)
+        Map<Long, ClinicEntity> entitiesById = new HashMap<>();
+        for (ClinicEntity entity : entities) {
+            entitiesById.put(entity.getId(), entity);
         }
-
-        if (filter.getTargetCity() != null) {
-            predicates.add(cb.equal(clinic.get("addressCity"), filter.getTargetCity()));
+        List<Clinic> clinics = new ArrayList<>(clinicIds.size());
+        for (Long clinicId : clinicIds) {
+            ClinicEntity entity = entitiesById.get(clinicId);
+            if (entity != null) {
+                clinics.add(ClinicMapper.toDomain(entity));
+            }
         }
-
-        query.select(clinic).distinct(true).where(cb.and(predicates.toArray(new Predicate[0])));
-        List<ClinicEntity> entities = em.createQuery(query).getResultList();
-        return entities.stream().map(ClinicMapper::toDomain).collect(Collectors.toList());
+        return clinics;
     }
 
     @Override
@@ -128,6 +124,7 @@ public class ClinicRepositoryImpl
         ClinicEntity clinicEntity = findById(id);
         if (clinicEntity != null) {
             delete(clinicEntity);
+            clinicChangedEvent.fire(new ClinicChangedEvent(id, ClinicChangedEvent.Type.DELETED));
         } else {
             throw new NotFoundException("clinic with id " + id + " not found");
         }
@@ -148,6 +145,7 @@ public class ClinicRepositoryImpl
 
         clinicEntity.setLandlord(userEntity);
         persist(clinicEntity);
+        clinicChangedEvent.fire(new ClinicChangedEvent(clinicId, ClinicChangedEvent.Type.UPDATED));
         return ClinicMapper.toDomain(clinicEntity);
     }
 
@@ -177,6 +175,7 @@ public class ClinicRepositoryImpl
         }
 
         persist(clinicEntity);
+        clinicChangedEvent.fire(new ClinicChangedEvent(id, ClinicChangedEvent.Type.UPDATED));
         return ClinicMapper.toDomain(clinicEntity);
     }
 
@@ -186,55 +185,99 @@ public class ClinicRepositoryImpl
     }
 
 
+    // The counts below are answered by the facet cube of the search index
+
     @Override
     public long countClinicsByCategory(Clinic.Category category) {
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> query = cb.createQuery(Long.class);
-        Root<ClinicEntity> clinic = query.from(ClinicEntity.class);
-    
-        Predicate predicate = cb.equal(clinic.get("category"), category);
-        query.select(cb.count(clinic)).where(predicate);
-    
-        return em.createQuery(query).getSingleResult();
+        return clinicSearchIndex.countClinics(category, null);
     }
 
     @Override
     public long countByCity(String city) {
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Long> query = cb.createQuery(Long.class);
-        Root<ClinicEntity> clinic = query.from(ClinicEntity.class);
-    
-        // Normalizamos el city para ignorar mayúsculas y espacios (igual que en JPQL)
-        Expression<String> normalizedCityDb = cb.lower(cb.function("REPLACE", String.class, clinic.get("addressCity"), cb.literal(" "), cb.literal("_")));
-        String normalizedCityParam = city.toLowerCase().replaceAll("\\s+", "_");
-    
-        // Creamos el predicado con igualdad entre city normalizado en BD y parámetro normalizado
-        Predicate cityPredicate = cb.equal(normalizedCityDb, normalizedCityParam);
-    
-        query.select(cb.count(clinic)).where(cityPredicate);
-    
-        return em.createQuery(query).getSingleResult();
-    }
-    
-
-@Override
-public Set<String> findAllUniqueCities() {
-    return new HashSet<>(
-        em.createQuery("SELECT DISTINCT c.addressCity FROM ClinicEntity c", String.class)
-          .getResultList()
-    );
-}
-public long getByCategoryAndCity(Clinic.Category category, String city) {
-    String normalizedCity = city.toLowerCase().replaceAll("\\s+", "_");
-
-    return em.createQuery(
-        "SELECT COUNT(c) FROM ClinicEntity c WHERE " +
-        "LOWER(REPLACE(c.addressCity, ' ', '_')) = :normalizedCity AND c.category = :category",
-        Long.class)
-        .setParameter("normalizedCity", normalizedCity)
-        .setParameter("category", category)
-        .getSingleResult();
-}
+        return clinicSearchIndex.countClinics(null, city);
+    }
+
+    // One entry per normalized city, labelled with one of its spellings
+    @Override
+    public List<CityFilterDTO> findAllUniqueCities() {
+        List<Object[]> rows = em.createQuery("SELECT c.normalizedCity, MIN(c.addressCity)"
+                + " FROM ClinicEntity c WHERE c.normalizedCity IS NOT NULL"
+                + " GROUP BY c.normalizedCity ORDER BY c.normalizedCity", Object[].class)
+                .getResultList();
+
+        List<CityFilterDTO> cities = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            cities.add(new CityFilterDTO(((String) row[1]).trim(), (String) row[0]));
+        }
+        return cities;
+    }
 
+    @Override
+    public long getByCategoryAndCity(Clinic.Category category, String city) {
+        return clinicSearchIndex.countClinics(category, city);
+    }
 
+    @Override
+    public List<ClinicFacetCountDTO> getFacetCounts(boolean includeEquipment) {
+        return clinicSearchIndex.getFacetCounts(includeEquipment);
+    }
+
+    // Version and last write of one clinic without loading it, null when it does not exist
+    @Override
+    public ResourceVersionDTO getClinicVersion(Long id) {
+        List<Object[]> rows = em.createQuery("SELECT c.version, c.updatedAt, c.createdAt"
+                + " FROM ClinicEntity c WHERE c.id = :id", Object[].class)
+                .setParameter("id", id).getResultList();
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        Object[] row = rows.get(0);
+        Instant lastModified = row[1] != null ? (Instant) row[1] : (Instant) row[2];
+        return new ResourceVersionDTO(String.valueOf(row[0]), lastModified);
+    }
+
+    // Any insert, update or delete of a clinic changes either the count or the latest write
+    @Override
+    public ResourceVersionDTO getClinicsVersion() {
+        Object[] row = em.createQuery("SELECT COUNT(c), MAX(c.updatedAt) FROM ClinicEntity c",
+                Object[].class).getSingleResult();
+        Instant lastModified = row[1] != null ? (Instant) row[1] : Instant.EPOCH;
+        return new ResourceVersionDTO(row[0] + "-" + lastModified.toEpochMilli(), lastModified);
+    }
+
+    // Bumps the version of a clinic when one of its photos, equipments or availabilities changes
+    void touchClinic(Long clinicId) {
+        em.createQuery("UPDATE ClinicEntity c SET c.version = COALESCE(c.version, 0) + 1,"
+                + " c.updatedAt = :now WHERE c.id = :id")
+                .setParameter("now", Instant.now())
+                .setParameter("id", clinicId).executeUpdate();
+    }
+
+    // Fills normalized_city for the rows written before the column existed. Rows without a city
+    // have nothing to normalize and stay NULL, so they are left out rather than matched forever.
+    @Transactional
+    void backfillNormalizedCities(@Observes StartupEvent event) {
+        List<String> cities = em.createQuery("SELECT DISTINCT c.addressCity FROM ClinicEntity c"
+                + " WHERE c.normalizedCity IS NULL AND c.addressCity IS NOT NULL", String.class)
+                .getResultList();
+        for (String city : cities) {
+            em.createQuery("UPDATE ClinicEntity c SET c.normalizedCity = :normalizedCity"
+                    + " WHERE c.addressCity = :city AND c.normalizedCity IS NULL")
+                    .setParameter("normalizedCity", TextNormalizer.normalizeCity(city))
+                    .setParameter("city", city).executeUpdate();
+        }
+    }
+
+    // Versions rows written before the version and updated_at columns existed
+    @Transactional
+    void backfillVersions(@Observes StartupEvent event) {
+        for (String entity : List.of("ClinicEntity", "ClinicPhotoEntity",
+                "ClinicEquipmentEntity", "ClinicAvailabilityEntity")) {
+            em.createQuery("UPDATE " + entity + " e SET e.version = 0 WHERE e.version IS NULL")
+                    .executeUpdate();
+            em.createQuery("UPDATE " + entity + " e SET e.updatedAt = e.createdAt"
+                    + " WHERE e.updatedAt IS NULL").executeUpdate();
+        }
+    }
 }
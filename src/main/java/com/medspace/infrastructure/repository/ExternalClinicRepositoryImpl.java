@@ -1,93 +1,304 @@
 package com.medspace.infrastructure.repository;
 
+import com.medspace.domain.event.ExternalClinicsChangedEvent;
 import com.medspace.domain.model.ExternalClinic;
 import com.medspace.domain.repository.ExternalClinicRepository;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicTileDTO;
 import com.medspace.infrastructure.dto.externalClinic.GetExternalClinicSpecialistsDashboardDTO;
 import com.medspace.infrastructure.dto.common.PaginationDTO;
 import com.medspace.infrastructure.mapper.ExternalClinicMapper;
 import com.medspace.infrastructure.entity.ExternalClinicEntity;
-import com.medspace.infrastructure.util.SpecialtyDetector;
+import com.medspace.infrastructure.search.ExternalClinicTileIndex;
+import com.medspace.infrastructure.util.KeysetCursor;
+import com.medspace.infrastructure.util.PointColumnsEncoder;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.Session;
 
 @ApplicationScoped
 public class ExternalClinicRepositoryImpl
         implements ExternalClinicRepository, PanacheRepositoryBase<ExternalClinicEntity, Long> {
 
+    // Only the columns the dashboard needs, with the id first for keyset positions
+    private static final String DASHBOARD_SELECT = "SELECT e.id, e.latitud, e.longitud,"
+            + " e.ubicacion, e.claseActividad, e.specialty, e.nombre FROM ExternalClinicEntity e";
+
+    private static final Logger LOGGER =
+            Logger.getLogger(ExternalClinicRepositoryImpl.class.getName());
+    private static final int UPSERT_CHUNK_SIZE = 1000;
+    private static final List<String> UPSERT_COLUMNS = List.of("clee", "external_id", "nombre",
+            "razon_social", "clase_actividad", "estrato", "tipo_vialidad", "calle", "num_exterior",
+            "num_interior", "colonia", "cp", "ubicacion", "telefono", "correo_e", "sitio_internet",
+            "tipo", "longitud", "latitud", "tipo_corredor_industrial", "nom_corredor_industrial",
+            "numero_local", "specialty", "content_hash", "created_at");
+    // An existing row keeps its id and created_at; every other column takes the new value
+    private static final String UPSERT_SQL = "INSERT INTO external_clinics ("
+            + String.join(", ", UPSERT_COLUMNS) + ") VALUES ("
+            + String.join(", ", Collections.nCopies(UPSERT_COLUMNS.size(), "?"))
+            + ") ON DUPLICATE KEY UPDATE " + UPSERT_COLUMNS.stream()
+                    .filter(column -> !column.equals("created_at"))
+                    .map(column -> column + " = VALUES(" + column + ")")
+                    .collect(Collectors.joining(", "));
+
+    @Inject
+    ExternalClinicTileIndex tileIndex;
+
+    @Inject
+    Event<ExternalClinicsChangedEvent> externalClinicsChangedEvent;
+
+    // Upserts rows a chunk at a time, each chunk in its own transaction. With
+    // rewriteBatchedStatements the driver sends a chunk as a few multi-row INSERTs, and the
+    // unique external_id index turns re-loaded records into updates without a SELECT per record.
     @Override
-    @Transactional
     public void saveAll(List<ExternalClinic> clinics) {
-        List<ExternalClinicEntity> entitiesToPersist = new ArrayList<>();
-        for (ExternalClinic clinicDomain : clinics) {
-            if (clinicDomain.getExternalId() == null
-                    || clinicDomain.getExternalId().trim().isEmpty()) {
-                // Potentially log a warning or skip this record if externalId is crucial and
-                // missing
-                // For now, let's assume we map it and let persistence fail or succeed based on
-                // other constraints
-                ExternalClinicEntity newEntity = ExternalClinicMapper.toEntity(clinicDomain);
-                entitiesToPersist.add(newEntity);
-                continue;
+        for (int from = 0; from < clinics.size(); from += UPSERT_CHUNK_SIZE) {
+            List<ExternalClinic> chunk =
+                    clinics.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, clinics.size()));
+            QuarkusTransaction.requiringNew().run(() -> {
+                upsert(chunk);
+                externalClinicsChangedEvent.fire(new ExternalClinicsChangedEvent(chunk));
+            });
+        }
+    }
+
+    // One indexed lookup per chunk instead of writing records that are already up to date
+    @Override
+    @Transactional
+    public List<ExternalClinic> findChanged(List<ExternalClinic> clinics) {
+        Map<String, String> storedHashes = new HashMap<>();
+        List<String> externalIds = clinics.stream().map(ExternalClinic::getExternalId)
+                .filter(id -> blankToNull(id) != null).distinct().toList();
+        for (int from = 0; from < externalIds.size(); from += UPSERT_CHUNK_SIZE) {
+            List<Object[]> rows = getEntityManager().createQuery("SELECT e.externalId,"
+                    + " e.contentHash FROM ExternalClinicEntity e WHERE e.externalId IN :ids",
+                    Object[].class)
+                    .setParameter("ids", externalIds.subList(from,
+                            Math.min(from + UPSERT_CHUNK_SIZE, externalIds.size())))
+                    .getResultList();
+            for (Object[] row : rows) {
+                storedHashes.put((String) row[0], (String) row[1]);
+            }
+        }
+
+        List<ExternalClinic> changed = new ArrayList<>();
+        for (ExternalClinic clinic : clinics) {
+            String stored = storedHashes.get(clinic.getExternalId());
+            if (stored == null || !stored.equals(clinic.getContentHash())) {
+                changed.add(clinic);
+            }
+        }
+        return changed;
+    }
+
+    private void upsert(List<ExternalClinic> chunk) {
+        getEntityManager().unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+                for (ExternalClinic clinic : chunk) {
+                    bindUpsert(statement, clinic);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
             }
+        });
+    }
+
+    // Parameters in UPSERT_COLUMNS order
+    private static void bindUpsert(PreparedStatement statement, ExternalClinic clinic)
+            throws SQLException {
+        int index = 1;
+        statement.setString(index++, clinic.getClee());
+        statement.setString(index++, blankToNull(clinic.getExternalId()));
+        statement.setString(index++, clinic.getNombre());
+        statement.setString(index++, clinic.getRazonSocial());
+        statement.setString(index++, clinic.getClaseActividad());
+        statement.setString(index++, clinic.getEstrato());
+        statement.setString(index++, clinic.getTipoVialidad());
+        statement.setString(index++, clinic.getCalle());
+        statement.setString(index++, clinic.getNumExterior());
+        statement.setString(index++, clinic.getNumInterior());
+        statement.setString(index++, clinic.getColonia());
+        statement.setString(index++, clinic.getCp());
+        statement.setString(index++, clinic.getUbicacion());
+        statement.setString(index++, clinic.getTelefono());
+        statement.setString(index++, clinic.getCorreoE());
+        statement.setString(index++, clinic.getSitioInternet());
+        statement.setString(index++, clinic.getTipo());
+        statement.setObject(index++, clinic.getLongitud(), Types.DOUBLE);
+        statement.setObject(index++, clinic.getLatitud(), Types.DOUBLE);
+        statement.setString(index++, clinic.getTipoCorredorIndustrial());
+        statement.setString(index++, clinic.getNomCorredorIndustrial());
+        statement.setString(index++, clinic.getNumeroLocal());
+        statement.setString(index++, clinic.getSpecialty());
+        statement.setString(index++, clinic.getContentHash());
+        // Hibernate stores Instant columns as UTC
+        Instant createdAt = clinic.getCreatedAt() != null ? clinic.getCreatedAt() : Instant.now();
+        statement.setTimestamp(index, Timestamp.from(createdAt),
+                Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC)));
+    }
+
+    // Blank ids are stored as NULL, which the unique index never matches
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value;
+    }
 
-            ExternalClinicEntity existingEntity =
-                    find("externalId", clinicDomain.getExternalId()).firstResult();
-
-            if (existingEntity != null) {
-                // Update existing entity
-                ExternalClinicMapper.updateEntityFromDomain(clinicDomain, existingEntity);
-                entitiesToPersist.add(existingEntity); // Add the updated, managed entity
-            } else {
-                // Create new entity
-                ExternalClinicEntity newEntity = ExternalClinicMapper.toEntity(clinicDomain);
-                entitiesToPersist.add(newEntity);
+    // Earlier loads could store an external id more than once, which keeps schema update from
+    // creating the unique index. Until it exists, keep the newest row of each id and create the
+    // index here: without it every upsert would insert a second copy of each clinic.
+    void ensureExternalIdIndex(@Observes StartupEvent event) {
+        if (QuarkusTransaction.requiringNew().call(this::hasExternalIdIndex)) {
+            return;
+        }
+        int removed = QuarkusTransaction.requiringNew().call(() -> getEntityManager()
+                .createNativeQuery("DELETE FROM external_clinics WHERE external_id IS NOT NULL"
+                        + " AND id NOT IN (SELECT id FROM (SELECT MAX(id) AS id"
+                        + " FROM external_clinics GROUP BY external_id) newest)")
+                .executeUpdate());
+        if (removed > 0) {
+            LOGGER.info("Removed " + removed + " duplicate external clinics");
+        }
+
+        // MySQL commits around DDL, so it gets a transaction of its own
+        try {
+            QuarkusTransaction.requiringNew().run(() -> getEntityManager()
+                    .createNativeQuery("ALTER TABLE external_clinics ADD UNIQUE INDEX "
+                            + ExternalClinicEntity.EXTERNAL_ID_INDEX + " (external_id)")
+                    .executeUpdate());
+            LOGGER.info("Created unique index " + ExternalClinicEntity.EXTERNAL_ID_INDEX);
+        } catch (RuntimeException e) {
+            // Another instance may have created it first; otherwise refuse to start
+            if (!QuarkusTransaction.requiringNew().call(this::hasExternalIdIndex)) {
+                throw e;
             }
         }
-        persist(entitiesToPersist);
     }
 
+    private boolean hasExternalIdIndex() {
+        Number indexes = (Number) getEntityManager().createNativeQuery(
+                "SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE()"
+                        + " AND table_name = 'external_clinics' AND index_name = :index")
+                .setParameter("index", ExternalClinicEntity.EXTERNAL_ID_INDEX).getSingleResult();
+        return indexes.intValue() > 0;
+    }
+
+    // Keyset pages: each page seeks past the last id of the previous one through the primary key,
+    // so deep pages cost the same as the first. Page numbers are still honoured for old clients.
     @Override
     public List<GetExternalClinicSpecialistsDashboardDTO> getExternalClinicSpecialistsDashboardData(
             PaginationDTO pagination) {
-        return find("SELECT e FROM ExternalClinicEntity e")
-                .page(pagination.getPage(), pagination.getSize()).list().stream()
-                .map(ExternalClinicMapper::toDashboardDTO).collect(Collectors.toList());
+        Long afterId = KeysetCursor.decode(pagination.getCursor());
+        TypedQuery<Object[]> query;
+        if (afterId != null || pagination.getPage() <= 0) {
+            query = getEntityManager()
+                    .createQuery(DASHBOARD_SELECT + " WHERE e.id > :afterId ORDER BY e.id",
+                            Object[].class)
+                    .setParameter("afterId", afterId != null ? afterId : 0L);
+        } else {
+            query = getEntityManager().createQuery(DASHBOARD_SELECT + " ORDER BY e.id",
+                    Object[].class).setFirstResult(pagination.getPage() * pagination.getSize());
+        }
+        List<Object[]> rows = query.setMaxResults(pagination.getSize()).getResultList();
+
+        List<GetExternalClinicSpecialistsDashboardDTO> data = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            data.add(toDashboardDTO(row));
+        }
+        pagination.setNextCursor(rows.size() == pagination.getSize()
+                ? KeysetCursor.encode((Long) rows.get(rows.size() - 1)[0])
+                : null);
+        return data;
     }
 
+    // Streams only the dashboard columns, so neither entities nor the whole result are held
     @Override
-    public List<GetExternalClinicSpecialistsDashboardDTO> getAllExternalClinicSpecialistsDashboardData() {
-        List<GetExternalClinicSpecialistsDashboardDTO> allData = new ArrayList<>();
-        int page = 0;
-        int pageSize = 1000;
-
-        while (true) {
-            List<GetExternalClinicSpecialistsDashboardDTO> pageData =
-                    find("SELECT e FROM ExternalClinicEntity e").page(page, pageSize).list()
-                            .stream().map(ExternalClinicMapper::toDashboardDTO)
-                            .collect(Collectors.toList());
-
-            if (pageData.isEmpty()) {
-                break;
-            }
+    @Transactional
+    public void forEachDashboardRow(Consumer<GetExternalClinicSpecialistsDashboardDTO> consumer) {
+        TypedQuery<Object[]> query = getEntityManager()
+                .createQuery(DASHBOARD_SELECT + " ORDER BY e.id", Object[].class);
+        try (Stream<Object[]> rows = QueryStreaming.streaming(query).getResultStream()) {
+            rows.forEach(row -> consumer.accept(toDashboardDTO(row)));
+        }
+    }
 
-            allData.addAll(pageData);
-            page++;
+    // Same rows as the streamed dashboard, encoded column by column without building DTOs
+    @Override
+    @Transactional
+    public PointColumnsEncoder getDashboardPoints() {
+        PointColumnsEncoder encoder =
+                new PointColumnsEncoder("specialty", "claseActividad", "clinicBorough");
+        TypedQuery<Object[]> query = getEntityManager()
+                .createQuery(DASHBOARD_SELECT + " ORDER BY e.id", Object[].class);
+        try (Stream<Object[]> rows = QueryStreaming.streaming(query).getResultStream()) {
+            rows.forEach(row -> encoder
+                    .point(row[1] != null ? (Double) row[1] : 0.0,
+                            row[2] != null ? (Double) row[2] : 0.0)
+                    .value(ExternalClinicMapper.specialtyOf((String) row[5], (String) row[6]))
+                    .value((String) row[4])
+                    .value(ExternalClinicMapper.boroughOf((String) row[3])));
         }
+        return encoder;
+    }
 
-        return allData;
+    private static GetExternalClinicSpecialistsDashboardDTO toDashboardDTO(Object[] row) {
+        return ExternalClinicMapper.toDashboardDTO((Double) row[1], (Double) row[2],
+                (String) row[3], (String) row[4], (String) row[5], (String) row[6]);
     }
 
     @Override
     @Transactional
-    public void updateSpecialties() {
-        List<ExternalClinicEntity> entities = listAll();
-        for (ExternalClinicEntity entity : entities) {
-            entity.setSpecialty(SpecialtyDetector.detectSpecialty(entity.getNombre()));
-        }
-        persist(entities);
+    public List<ExternalClinic> findAfter(long afterId, int limit) {
+        return find("id > ?1 ORDER BY id", afterId).page(0, limit).list().stream()
+                .map(ExternalClinicMapper::toDomain).toList();
+    }
+
+    @Override
+    public void saveSpecialties(List<ExternalClinic> clinics) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            getEntityManager().unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement("UPDATE"
+                        + " external_clinics SET specialty = ?, content_hash = ? WHERE id = ?")) {
+                    for (ExternalClinic clinic : clinics) {
+                        statement.setString(1, clinic.getSpecialty());
+                        statement.setString(2, clinic.getContentHash());
+                        statement.setLong(3, clinic.getId());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            });
+            // The tile index replaces points by external id, so rows without one need a rebuild
+            boolean keyed = clinics.stream()
+                    .allMatch(clinic -> blankToNull(clinic.getExternalId()) != null);
+            externalClinicsChangedEvent
+                    .fire(new ExternalClinicsChangedEvent(keyed ? clinics : null));
+        });
+    }
+
+    @Override
+    public ExternalClinicTileDTO getTile(int z, int x, int y) {
+        return tileIndex.getTile(z, x, y);
     }
 }
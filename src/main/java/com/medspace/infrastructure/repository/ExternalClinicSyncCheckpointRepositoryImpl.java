@@ -0,0 +1,48 @@
+package com.medspace.infrastructure.repository;
+
+import com.medspace.domain.model.ExternalClinicSyncCheckpoint;
+import com.medspace.domain.repository.ExternalClinicSyncCheckpointRepository;
+import com.medspace.infrastructure.entity.ExternalClinicSyncCheckpointEntity;
+import com.medspace.infrastructure.mapper.ExternalClinicSyncCheckpointMapper;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+import java.time.Instant;
+import java.util.List;
+
+@ApplicationScoped
+public class ExternalClinicSyncCheckpointRepositoryImpl
+        implements ExternalClinicSyncCheckpointRepository,
+        PanacheRepositoryBase<ExternalClinicSyncCheckpointEntity, Long> {
+
+    // Called from background jobs, which have no transaction of their own
+    @Override
+    @Transactional
+    public List<ExternalClinicSyncCheckpoint> getCheckpoints() {
+        return listAll().stream().map(ExternalClinicSyncCheckpointMapper::toDomain).toList();
+    }
+
+    // Its own transaction, so progress survives a later chunk failing
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public ExternalClinicSyncCheckpoint saveCheckpoint(ExternalClinicSyncCheckpoint checkpoint) {
+        ExternalClinicSyncCheckpointEntity entity =
+                find("entityCode = ?1 and activity = ?2", checkpoint.getEntityCode(),
+                        checkpoint.getActivity()).firstResult();
+        if (entity == null) {
+            entity = new ExternalClinicSyncCheckpointEntity();
+        }
+        ExternalClinicSyncCheckpointMapper.updateEntityFromDomain(checkpoint, entity);
+        entity.setUpdatedAt(Instant.now());
+        persist(entity);
+        return ExternalClinicSyncCheckpointMapper.toDomain(entity);
+    }
+
+    @Override
+    @Transactional
+    public void resetCheckpoints() {
+        update("nextRecord = 1, status = ?1, recordsSeen = 0, recordsWritten = 0,"
+                + " lastError = null, updatedAt = ?2", ExternalClinicSyncCheckpoint.Status.PENDING,
+                Instant.now());
+    }
+}
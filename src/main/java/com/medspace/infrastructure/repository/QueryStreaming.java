@@ -0,0 +1,16 @@
+package com.medspace.infrastructure.repository;
+
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+public class QueryStreaming {
+    // Rows handled between persistence context clears when streaming managed entities
+    static final int CLEAR_INTERVAL = 500;
+
+    // MySQL Connector/J only streams a result set row by row with this fetch size; any other
+    // value makes it buffer the whole result on the client first
+    public static <T> TypedQuery<T> streaming(TypedQuery<T> query) {
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+}
@@ -30,6 +30,7 @@ public class RentRequestDayRepositoryImpl
 
         rentRequestDayEntity.setRentRequest(rentRequestEntity);
         persist(rentRequestDayEntity);
+        rentRequestRepository.fireBookingsChanged(rentRequestEntity);
         rentRequestDay = RentRequestDayMapper.toDomain(rentRequestDayEntity);
         return rentRequestDay;
     }
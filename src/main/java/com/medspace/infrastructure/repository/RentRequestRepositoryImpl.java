@@ -1,19 +1,25 @@
 package com.medspace.infrastructure.repository;
 
+import com.medspace.domain.event.ClinicBookingsChangedEvent;
 import com.medspace.domain.model.RentRequest;
 import com.medspace.domain.repository.RentRequestRepository;
 import com.medspace.infrastructure.entity.RentRequestEntity;
 import com.medspace.infrastructure.entity.UserEntity;
+import com.medspace.infrastructure.dto.rentRequest.GetRentRequestDTO;
 import com.medspace.infrastructure.dto.rentRequest.RentRequestQueryFilterDTO;
 import com.medspace.infrastructure.entity.ClinicEntity;
 import com.medspace.infrastructure.entity.TenantSpecialtyEntity;
 import com.medspace.infrastructure.mapper.RentRequestMapper;
+import com.medspace.infrastructure.util.GeoUtils;
+import com.medspace.infrastructure.util.PointColumnsEncoder;
 import com.medspace.infrastructure.dto.rentRequest.GetRentRequestSpecialistsDashboardDTO;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
@@ -24,7 +30,9 @@ import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class RentRequestRepositoryImpl
@@ -32,6 +40,8 @@ public class RentRequestRepositoryImpl
 
     @Inject
     ClinicRepositoryImpl clinicRepository;
+    @Inject
+    Event<ClinicBookingsChangedEvent> clinicBookingsChangedEvent;
 
     @PersistenceContext
     EntityManager entityManager;
@@ -66,6 +76,19 @@ public class RentRequestRepositoryImpl
         return listAll().stream().map(RentRequestMapper::toDomain).collect(Collectors.toList());
     }
 
+    // Projects straight into the response DTO; tenant and clinic ids come from the foreign keys
+    @Override
+    @Transactional
+    public void forEachRentRequest(Consumer<GetRentRequestDTO> consumer) {
+        TypedQuery<GetRentRequestDTO> query = entityManager.createQuery("SELECT new "
+                + GetRentRequestDTO.class.getName() + "(r.id, r.tenant.id, r.clinic.id,"
+                + " r.createdAt, r.comments, r.status) FROM RentRequestEntity r ORDER BY r.id",
+                GetRentRequestDTO.class);
+        try (Stream<GetRentRequestDTO> rows = QueryStreaming.streaming(query).getResultStream()) {
+            rows.forEach(consumer);
+        }
+    }
+
     @Override
     public List<RentRequest> findByLandlordId(RentRequestQueryFilterDTO filterDTO) {
         List<ClinicEntity> clinics =
@@ -112,10 +135,12 @@ public class RentRequestRepositoryImpl
     @Override
     @Transactional
     public boolean deleteById(Long id) {
+        RentRequestEntity entity = findById(id);
         long deletedCount = delete("id", id);
         if (deletedCount == 0) {
             throw new NotFoundException("Cannot delete: RentRequest with id " + id + " not found");
         }
+        fireBookingsChanged(entity);
         return true;
     }
 
@@ -128,6 +153,15 @@ public class RentRequestRepositoryImpl
         }
         entity.setStatus(status);
         persist(entity);
+        fireBookingsChanged(entity);
+    }
+
+    // Lets the booking calendar rebuild the clinic's booked days once the change commits
+    void fireBookingsChanged(RentRequestEntity entity) {
+        if (entity != null && entity.getClinic() != null) {
+            clinicBookingsChangedEvent
+                    .fire(new ClinicBookingsChangedEvent(entity.getClinic().getId()));
+        }
     }
 
     @Override
@@ -171,4 +205,28 @@ public class RentRequestRepositoryImpl
             return dto;
         }).collect(Collectors.toList());
     }
+
+    // Accepted requests as map points: clinic location, tenant specialty and clinic city.
+    // Rows whose clinic has no usable coordinates are left out.
+    @Override
+    @Transactional
+    public PointColumnsEncoder getSpecialistsDashboardPoints() {
+        PointColumnsEncoder encoder = new PointColumnsEncoder("tenantSpecialty", "clinicBorough");
+        TypedQuery<Object[]> query = entityManager.createQuery("SELECT c.addressLatitude,"
+                + " c.addressLongitude, s.name, c.addressCity FROM RentRequestEntity r"
+                + " JOIN r.clinic c JOIN r.tenant t LEFT JOIN t.tenantSpecialty s"
+                + " WHERE r.status = :status", Object[].class)
+                .setParameter("status", RentRequest.Status.ACCEPTED);
+        try (Stream<Object[]> rows = QueryStreaming.streaming(query).getResultStream()) {
+            rows.forEach(row -> {
+                Double latitude = GeoUtils.parseCoordinate((String) row[0], 90);
+                Double longitude = GeoUtils.parseCoordinate((String) row[1], 180);
+                if (latitude != null && longitude != null) {
+                    encoder.point(latitude, longitude).value((String) row[2])
+                            .value((String) row[3]);
+                }
+            });
+        }
+        return encoder;
+    }
 }
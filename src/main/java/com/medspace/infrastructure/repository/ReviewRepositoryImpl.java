@@ -1,5 +1,6 @@
 package com.medspace.infrastructure.repository;
 
+import com.medspace.domain.event.ClinicChangedEvent;
 import com.medspace.domain.model.Review;
 import com.medspace.domain.repository.ReviewRepository;
 import com.medspace.infrastructure.entity.ClinicEntity;
@@ -8,12 +9,16 @@ import com.medspace.infrastructure.entity.ReviewEntity;
 import com.medspace.infrastructure.entity.UserEntity;
 import com.medspace.infrastructure.mapper.ReviewMapper;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -30,6 +35,9 @@ public class ReviewRepositoryImpl
     @Inject
     ClinicRepositoryImpl clinicRepository;
 
+    @Inject
+    Event<ClinicChangedEvent> clinicChangedEvent;
+
     @PersistenceContext
     EntityManager em;
 
@@ -38,6 +46,7 @@ public class ReviewRepositoryImpl
     public Review insertReview(Review review) {
         ReviewEntity reviewEntity = ReviewMapper.toEntity(review);
         persist(reviewEntity);
+        applyClinicRating(reviewEntity, rentRequestIdOf(reviewEntity), 1);
         return ReviewMapper.toDomain(reviewEntity);
     }
 
@@ -68,6 +77,7 @@ public class ReviewRepositoryImpl
         if (entity == null) {
             throw new NotFoundException("review with id " + id + " not found");
         }
+        applyClinicRating(entity, rentRequestIdOf(entity), -1);
         delete(entity);
         return null;
     }
@@ -85,8 +95,11 @@ public class ReviewRepositoryImpl
             throw new NotFoundException("rent request with id " + rentRequestId + " not found");
         }
 
+        // Moves the rating from the previous clinic (if any) to the new one
+        applyClinicRating(reviewEntity, rentRequestIdOf(reviewEntity), -1);
         reviewEntity.setRentRequest(rentRequestEntity);
         persist(reviewEntity);
+        applyClinicRating(reviewEntity, rentRequestId, 1);
         return ReviewMapper.toDomain(reviewEntity);
     }
 
@@ -141,4 +154,49 @@ public class ReviewRepositoryImpl
 
         return reviews.stream().map(ReviewMapper::toDomain).collect(Collectors.toList());
     }
+
+    // Fills the rating aggregate of clinics created before the columns existed
+    @Transactional
+    void backfillClinicRatings(@Observes StartupEvent event) {
+        em.createQuery("UPDATE ClinicEntity c SET "
+                + "c.ratingCount = (SELECT COUNT(r) FROM ReviewEntity r "
+                + "WHERE r.type = :type AND r.rentRequest.clinic.id = c.id), "
+                + "c.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM ReviewEntity r "
+                + "WHERE r.type = :type AND r.rentRequest.clinic.id = c.id) "
+                + "WHERE c.ratingCount IS NULL OR c.ratingSum IS NULL")
+                .setParameter("type", Review.Type.CLINIC).executeUpdate();
+    }
+
+    private Long rentRequestIdOf(ReviewEntity reviewEntity) {
+        return reviewEntity.getRentRequest() != null ? reviewEntity.getRentRequest().getId()
+                : null;
+    }
+
+    // Atomic in-place update so concurrent reviews of the same clinic don't lose writes
+    private void applyClinicRating(ReviewEntity reviewEntity, Long rentRequestId, int sign) {
+        if (reviewEntity.getType() != Review.Type.CLINIC || rentRequestId == null) {
+            return;
+        }
+
+        List<Long> clinicIds = em
+                .createQuery("SELECT r.clinic.id FROM RentRequestEntity r WHERE r.id = :id",
+                        Long.class)
+                .setParameter("id", rentRequestId).getResultList();
+        if (clinicIds.isEmpty() || clinicIds.get(0) == null) {
+            return;
+        }
+        Long clinicId = clinicIds.get(0);
+
+        em.createQuery("UPDATE ClinicEntity c SET "
+                + "c.ratingCount = COALESCE(c.ratingCount, 0) + :count, "
+                + "c.ratingSum = COALESCE(c.ratingSum, 0) + :sum, "
+                + "c.version = COALESCE(c.version, 0) + 1, c.updatedAt = :now "
+                + "WHERE c.id = :clinicId")
+                .setParameter("count", (long) sign)
+                .setParameter("now", Instant.now())
+                .setParameter("sum", (long) sign * reviewEntity.getRating())
+                .setParameter("clinicId", clinicId).executeUpdate();
+        clinicChangedEvent
+                .fire(new ClinicChangedEvent(clinicId, ClinicChangedEvent.Type.UPDATED));
+    }
 }
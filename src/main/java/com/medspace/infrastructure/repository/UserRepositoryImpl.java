@@ -1,7 +1,8 @@
 package com.medspace.infrastructure.repository;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import com.medspace.domain.event.UserChangedEvent;
 import com.medspace.domain.model.TenantSpecialty;
 import com.medspace.domain.model.User;
 import com.medspace.domain.repository.UserRepository;
@@ -13,8 +14,10 @@ import com.medspace.infrastructure.mapper.TenantSpecialtyMapper;
 import com.medspace.infrastructure.mapper.UserMapper;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
@@ -27,23 +30,35 @@ public class UserRepositoryImpl implements UserRepository, PanacheRepositoryBase
     @Inject
     EntityManager em;
 
+    @Inject
+    Event<UserChangedEvent> userChangedEvent;
+
     @Override
     @Transactional
     public User insertUser(User user) {
         UserEntity userEntity = UserMapper.toEntity(user);
         persist(userEntity);
+        userChangedEvent
+                .fire(new UserChangedEvent(userEntity.getId(), userEntity.getFirebaseUid()));
         user = UserMapper.toDomain(userEntity);
         return user;
     }
 
+    // Streams users with their specialty; the persistence context is cleared as rows are mapped
     @Override
-    public List<User> getAllUsers() {
-        List<UserEntity> userEntities = listAll();
-        List<User> users = new ArrayList<>();
-        for (UserEntity userEntity : userEntities) {
-            users.add(UserMapper.toDomain(userEntity));
+    @Transactional
+    public void forEachUser(Consumer<User> consumer) {
+        TypedQuery<UserEntity> query = em.createQuery("SELECT u FROM UserEntity u"
+                + " LEFT JOIN FETCH u.tenantSpecialty ORDER BY u.id", UserEntity.class);
+        try (Stream<UserEntity> rows = QueryStreaming.streaming(query).getResultStream()) {
+            int[] mapped = {0};
+            rows.forEach(userEntity -> {
+                consumer.accept(UserMapper.toDomain(userEntity));
+                if (++mapped[0] % QueryStreaming.CLEAR_INTERVAL == 0) {
+                    em.clear();
+                }
+            });
         }
-        return users;
     }
 
     @Override
@@ -61,6 +76,8 @@ public class UserRepositoryImpl implements UserRepository, PanacheRepositoryBase
         UserEntity userEntity = findById(id);
         if (userEntity != null) {
             delete(userEntity);
+            userChangedEvent
+                    .fire(new UserChangedEvent(userEntity.getId(), userEntity.getFirebaseUid()));
         }
     }
 
@@ -133,6 +150,8 @@ public class UserRepositoryImpl implements UserRepository, PanacheRepositoryBase
             originalUserEntity.setDefaultPaymentMethod(user.getDefaultPaymentMethod());
         }
 
+        // Also covers a changed firebase uid: identities cached under the old uid match by id
+        userChangedEvent.fire(new UserChangedEvent(id, originalUserEntity.getFirebaseUid()));
 
         return UserMapper.toDomain(originalUserEntity);
     }
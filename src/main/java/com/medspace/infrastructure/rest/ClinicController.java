@@ -11,40 +11,52 @@ import com.medspace.application.usecase.clinic.photo.SetPhotoAsPrimaryClinicPhot
 import com.medspace.domain.model.Clinic;
 import com.medspace.domain.model.User;
 import com.medspace.infrastructure.dto.*;
+import com.medspace.infrastructure.dto.clinic.ClinicFacetCountDTO;
 import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
 import com.medspace.infrastructure.dto.clinic.CityFilterDTO;
 import com.medspace.infrastructure.dto.clinic.CreateClinicDTO;
 import com.medspace.infrastructure.dto.clinic.GetClinicAvailabilityDTO;
 import com.medspace.infrastructure.dto.clinic.GetClinicDTO;
 import com.medspace.infrastructure.dto.clinic.GetClinicEquipmentDTO;
+import com.medspace.infrastructure.dto.clinic.GetClinicFreeDatesDTO;
 import com.medspace.infrastructure.dto.clinic.GetClinicPhotoDTO;
 import com.medspace.infrastructure.dto.clinic.MyClinicDTO;
 import com.medspace.infrastructure.dto.clinic.SetPhotoAsPrimaryDTO;
 import com.medspace.infrastructure.dto.clinic.UpdateClinicDTO;
+import com.medspace.infrastructure.dto.common.ResourceVersionDTO;
 import com.medspace.infrastructure.rest.annotations.LandlordOnly;
 import com.medspace.infrastructure.rest.annotations.UserOnly;
 import com.medspace.infrastructure.rest.context.RequestContext;
+import com.medspace.infrastructure.search.ClinicBookingCalendar;
+import com.medspace.infrastructure.util.GeoUtils;
+import com.medspace.infrastructure.util.HttpCaching;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.sql.Date;
-import java.text.Normalizer;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @ApplicationScoped
 @Path("/clinics")
 @Consumes(MediaType.APPLICATION_JSON)
 @Produces(MediaType.APPLICATION_JSON)
 public class ClinicController {
+    private static final int MAX_TEXT_QUERY_LENGTH = 200;
+
     @Inject
     CreateClinicUseCase createClinicUseCase;
     @Inject
@@ -84,6 +96,20 @@ public class ClinicController {
     @Inject
     GetClinicsByCategoryAndCityUseCase getClinicsByCategoryAndCityUseCase;
     @Inject
+    GetClinicFreeDaysUseCase getClinicFreeDaysUseCase;
+    @Inject
+    GetClinicNextFreeDaysUseCase getClinicNextFreeDaysUseCase;
+    @Inject
+    CheckClinicBookableUseCase checkClinicBookableUseCase;
+    @Inject
+    GetClinicsFreeOnDatesUseCase getClinicsFreeOnDatesUseCase;
+    @Inject
+    GetClinicFacetCountsUseCase getClinicFacetCountsUseCase;
+    @Inject
+    GetClinicVersionUseCase getClinicVersionUseCase;
+    @Inject
+    GetClinicCitiesVersionUseCase getClinicCitiesVersionUseCase;
+    @Inject
     RequestContext requestContext;
 
     @POST
@@ -112,36 +138,162 @@ public class ClinicController {
             @QueryParam("availabilities") @DefaultValue("false") boolean includeAvailabilities,
             @QueryParam("date") String targetDate,
             @QueryParam("equipmentList") List<String> equipmentList,
-            @QueryParam("hour") String targetHour, @QueryParam("city") String targetCity) {
+            @QueryParam("hour") String targetHour, @QueryParam("city") String targetCity,
+            @QueryParam("category") String targetCategory, @QueryParam("lat") Double latitude,
+            @QueryParam("lng") Double longitude, @QueryParam("radius") Double radiusKm,
+            @QueryParam("minLat") Double minLatitude, @QueryParam("minLng") Double minLongitude,
+            @QueryParam("maxLat") Double maxLatitude, @QueryParam("maxLng") Double maxLongitude,
+            @QueryParam("limit") Integer limit, @QueryParam("q") String textQuery) {
         try {
-            ClinicQueryDTO queryFilterDTO =
-                    new ClinicQueryDTO(includePhotos, includeEquipments, includeAvailabilities);
+            ClinicQueryDTO queryFilterDTO = buildClinicQuery(includePhotos, includeEquipments,
+                    includeAvailabilities, targetDate, equipmentList, targetHour, targetCity,
+                    targetCategory, latitude, longitude, radiusKm, minLatitude, minLongitude,
+                    maxLatitude, maxLongitude, limit, textQuery);
 
-            if (targetDate != null) {
-                Date formattedDate = Date.valueOf(targetDate);
-                queryFilterDTO.setTargetDate(formattedDate);
-            }
+            List<GetClinicDTO> clinics = getFilteredClinicsUseCase.execute(queryFilterDTO);
+            return Response.ok(ResponseDTO.success("Clinics Fetched", clinics)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        }
+    }
 
-            if (equipmentList != null && !equipmentList.isEmpty()) {
-                queryFilterDTO.setEquipmentList(equipmentList);
-            }
+    // Clinics matching the usual filters that are free on all, or at least minDates, of dates
+    @GET
+    @Path("/availability")
+    @UserOnly
+    public Response getClinicsFreeOnDates(@QueryParam("dates") List<String> dates,
+            @QueryParam("minDates") Integer minFreeDates,
+            @QueryParam("photos") @DefaultValue("false") boolean includePhotos,
+            @QueryParam("equipments") @DefaultValue("false") boolean includeEquipments,
+            @QueryParam("availabilities") @DefaultValue("false") boolean includeAvailabilities,
+            @QueryParam("date") String targetDate,
+            @QueryParam("equipmentList") List<String> equipmentList,
+            @QueryParam("hour") String targetHour, @QueryParam("city") String targetCity,
+            @QueryParam("category") String targetCategory, @QueryParam("lat") Double latitude,
+            @QueryParam("lng") Double longitude, @QueryParam("radius") Double radiusKm,
+            @QueryParam("minLat") Double minLatitude, @QueryParam("minLng") Double minLongitude,
+            @QueryParam("maxLat") Double maxLatitude, @QueryParam("maxLng") Double maxLongitude,
+            @QueryParam("limit") Integer limit, @QueryParam("q") String textQuery) {
+        try {
+            ClinicQueryDTO queryFilterDTO = buildClinicQuery(includePhotos, includeEquipments,
+                    includeAvailabilities, targetDate, equipmentList, targetHour, targetCity,
+                    targetCategory, latitude, longitude, radiusKm, minLatitude, minLongitude,
+                    maxLatitude, maxLongitude, limit, textQuery);
 
-            if (targetHour != null) {
-                queryFilterDTO.setTargetHour(LocalTime.parse(targetHour));
+            if (dates == null || dates.isEmpty()) {
+                throw new IllegalArgumentException("At least one date is required");
             }
-
-            if (targetCity != null) {
-                queryFilterDTO.setTargetCity(targetCity);
+            List<LocalDate> targetDates = dates.stream().map(LocalDate::parse).distinct()
+                    .toList();
+            if (targetDates.size() > ClinicBookingCalendar.MAX_RANGE_DAYS) {
+                throw new IllegalArgumentException(
+                        "At most " + ClinicBookingCalendar.MAX_RANGE_DAYS + " dates are allowed");
             }
+            if (minFreeDates != null && (minFreeDates < 1 || minFreeDates > targetDates.size())) {
+                throw new IllegalArgumentException(
+                        "minDates must be between 1 and the number of dates");
+            }
+            queryFilterDTO.setTargetDates(targetDates);
+            queryFilterDTO.setMinFreeDates(minFreeDates);
 
-            List<GetClinicDTO> clinics = getFilteredClinicsUseCase.execute(queryFilterDTO);
+            List<GetClinicFreeDatesDTO> clinics =
+                    getClinicsFreeOnDatesUseCase.execute(queryFilterDTO);
             return Response.ok(ResponseDTO.success("Clinics Fetched", clinics)).build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(ResponseDTO.error(e.getMessage())).build();
         }
     }
 
+    // ETag of one representation of a clinic. Children bump the clinic version, so one counter
+    // validates every clinic sub-resource. The last write is part of the tag too, so two writes
+    // racing on the same counter value still tag differently.
+    private static EntityTag clinicTag(Long id, String version, Instant lastModified,
+            String variant) {
+        return HttpCaching.entityTag("clinic-" + id + "-v" + version + "-"
+                + (lastModified != null ? lastModified.toEpochMilli() : 0) + "-" + variant);
+    }
+
+    private static EntityTag clinicTag(Long id, ResourceVersionDTO version, String variant) {
+        return clinicTag(id, version.getVersion(), version.getLastModified(), variant);
+    }
+
+    // Parses the search query parameters, throwing IllegalArgumentException on invalid values
+    private ClinicQueryDTO buildClinicQuery(boolean includePhotos, boolean includeEquipments,
+            boolean includeAvailabilities, String targetDate, List<String> equipmentList,
+            String targetHour, String targetCity, String targetCategory, Double latitude,
+            Double longitude, Double radiusKm, Double minLatitude, Double minLongitude,
+            Double maxLatitude, Double maxLongitude, Integer limit, String textQuery) {
+        ClinicQueryDTO queryFilterDTO =
+                new ClinicQueryDTO(includePhotos, includeEquipments, includeAvailabilities);
+
+        if (targetDate != null) {
+            Date formattedDate = Date.valueOf(targetDate);
+            queryFilterDTO.setTargetDate(formattedDate);
+        }
+
+        if (equipmentList != null && !equipmentList.isEmpty()) {
+            queryFilterDTO.setEquipmentList(equipmentList);
+        }
+
+        if (targetHour != null) {
+            queryFilterDTO.setTargetHour(LocalTime.parse(targetHour));
+        }
+
+        if (targetCity != null) {
+            queryFilterDTO.setTargetCity(targetCity);
+        }
+
+        if (targetCategory != null) {
+            queryFilterDTO
+                    .setTargetCategory(Clinic.Category.valueOf(targetCategory.toUpperCase()));
+        }
+
+        if (textQuery != null && !textQuery.isBlank()) {
+            if (textQuery.length() > MAX_TEXT_QUERY_LENGTH) {
+                throw new IllegalArgumentException(
+                        "q must be at most " + MAX_TEXT_QUERY_LENGTH + " characters");
+            }
+            queryFilterDTO.setTextQuery(textQuery);
+        }
+
+        if (latitude != null || longitude != null || radiusKm != null) {
+            if (latitude == null || longitude == null || !GeoUtils.isValidLatitude(latitude)
+                    || !GeoUtils.isValidLongitude(longitude)) {
+                throw new IllegalArgumentException("lat and lng must be valid coordinates");
+            }
+            if (radiusKm != null && radiusKm <= 0) {
+                throw new IllegalArgumentException("radius must be greater than 0");
+            }
+            queryFilterDTO.setLatitude(latitude);
+            queryFilterDTO.setLongitude(longitude);
+            queryFilterDTO.setRadiusKm(radiusKm);
+            queryFilterDTO.setLimit(limit);
+        }
+
+        if (minLatitude != null || minLongitude != null || maxLatitude != null
+                || maxLongitude != null) {
+            if (minLatitude == null || minLongitude == null || maxLatitude == null
+                    || maxLongitude == null) {
+                throw new IllegalArgumentException(
+                        "minLat, minLng, maxLat and maxLng are required for a bounding box");
+            }
+            queryFilterDTO.setMinLatitude(minLatitude);
+            queryFilterDTO.setMinLongitude(minLongitude);
+            queryFilterDTO.setMaxLatitude(maxLatitude);
+            queryFilterDTO.setMaxLongitude(maxLongitude);
+        }
+
+        return queryFilterDTO;
+    }
+
     @GET
     @Path("/my-clinics")
     @LandlordOnly
@@ -158,6 +310,21 @@ public class ClinicController {
         }
     }
 
+    // Category x city (x equipment type) clinic counts, including the per-dimension totals
+    @GET
+    @Path("/facets")
+    public Response getClinicFacetCounts(
+            @QueryParam("equipment") @DefaultValue("false") boolean includeEquipment) {
+        try {
+            List<ClinicFacetCountDTO> counts =
+                    getClinicFacetCountsUseCase.execute(includeEquipment);
+            return Response.ok(ResponseDTO.success("Clinic facets fetched", counts)).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        }
+    }
+
     @GET
     @Path("/clinics-count")
 
@@ -178,12 +345,33 @@ public class ClinicController {
     public Response getClinicById(@PathParam("id") Long id,
             @QueryParam("photos") @DefaultValue("false") boolean includePhotos,
             @QueryParam("equipments") @DefaultValue("false") boolean includeEquipments,
-            @QueryParam("availabilities") @DefaultValue("false") boolean includeAvailabilities) {
+            @QueryParam("availabilities") @DefaultValue("false") boolean includeAvailabilities,
+            @Context Request request) {
         try {
+            ResourceVersionDTO version = getClinicVersionUseCase.execute(id);
+            if (version == null) {
+                throw new NotFoundException("Clinic with id " + id + " not found");
+            }
+            int flags = (includePhotos ? 1 : 0) | (includeEquipments ? 2 : 0)
+                    | (includeAvailabilities ? 4 : 0);
+            String variant = String.valueOf(flags);
+            CacheControl cacheControl = HttpCaching.revalidate();
+            Response notModified = HttpCaching.notModified(request,
+                    clinicTag(id, version, variant), version.getLastModified(), cacheControl);
+            if (notModified != null) {
+                return notModified;
+            }
+
+            // The detail cache drops a clinic only once the write has committed, so the body can
+            // be older than the version read above; tag it with the version it was built from
             ClinicQueryDTO queryFilterDTO =
                     new ClinicQueryDTO(includePhotos, includeEquipments, includeAvailabilities);
             GetClinicDTO clinicResponse = getClinicByIdUseCase.execute(id, queryFilterDTO);
-            return Response.ok(ResponseDTO.success("Clinic Fetched", clinicResponse)).build();
+            EntityTag tag = clinicTag(id, String.valueOf(clinicResponse.getVersion()),
+                    clinicResponse.getLastModified(), variant);
+            return HttpCaching.withValidators(
+                    Response.ok(ResponseDTO.success("Clinic Fetched", clinicResponse)), tag,
+                    clinicResponse.getLastModified(), cacheControl).build();
         } catch (NotFoundException e) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(ResponseDTO.error(e.getMessage())).build();
@@ -215,11 +403,28 @@ public class ClinicController {
     @GET
     @Path("/{id}/photos")
     @UserOnly
-    public Response getPhotosByClinicId(@PathParam("id") Long id) {
+    public Response getPhotosByClinicId(@PathParam("id") Long id, @Context Request request) {
         try {
+            ResourceVersionDTO version = getClinicVersionUseCase.execute(id);
+            EntityTag tag = version != null ? clinicTag(id, version, "photos") : null;
+            CacheControl cacheControl = HttpCaching.revalidate();
+            if (tag != null) {
+                Response notModified = HttpCaching.notModified(request, tag,
+                        version.getLastModified(), cacheControl);
+                if (notModified != null) {
+                    return notModified;
+                }
+            }
+
             List<GetClinicPhotoDTO> clinicPhotos = getPhotosByClinicIdUseCase.execute(id);
 
-            return Response.ok(ResponseDTO.success("ClinicPhoto Fetched", clinicPhotos)).build();
+            Response.ResponseBuilder response =
+                    Response.ok(ResponseDTO.success("ClinicPhoto Fetched", clinicPhotos));
+            if (tag != null) {
+                HttpCaching.withValidators(response, tag, version.getLastModified(),
+                        cacheControl);
+            }
+            return response.build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(ResponseDTO.error(e.getMessage())).build();
@@ -247,13 +452,30 @@ public class ClinicController {
     @GET
     @Path("/{id}/equipments")
     @UserOnly
-    public Response getEquipmentsByClinicId(@PathParam("id") Long id) {
+    public Response getEquipmentsByClinicId(@PathParam("id") Long id,
+            @Context Request request) {
         try {
+            ResourceVersionDTO version = getClinicVersionUseCase.execute(id);
+            EntityTag tag = version != null ? clinicTag(id, version, "equipments") : null;
+            CacheControl cacheControl = HttpCaching.revalidate();
+            if (tag != null) {
+                Response notModified = HttpCaching.notModified(request, tag,
+                        version.getLastModified(), cacheControl);
+                if (notModified != null) {
+                    return notModified;
+                }
+            }
+
             List<GetClinicEquipmentDTO> clinicEquipments =
                     getEquipmentsByClinicIdUseCase.execute(id);
 
-            return Response.ok(ResponseDTO.success("ClinicEquipment Fetched", clinicEquipments))
-                    .build();
+            Response.ResponseBuilder response =
+                    Response.ok(ResponseDTO.success("ClinicEquipment Fetched", clinicEquipments));
+            if (tag != null) {
+                HttpCaching.withValidators(response, tag, version.getLastModified(),
+                        cacheControl);
+            }
+            return response.build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(ResponseDTO.error(e.getMessage())).build();
@@ -277,6 +499,58 @@ public class ClinicController {
         }
     }
 
+    // Free days in [from, to], or the next `count` free days from `from` when `to` is omitted
+    @GET
+    @Path("/{id}/free-days")
+    @UserOnly
+    public Response getFreeDaysByClinicId(@PathParam("id") Long id,
+            @QueryParam("from") String from, @QueryParam("to") String to,
+            @QueryParam("count") @DefaultValue("30") int count) {
+        try {
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+            List<LocalDate> freeDays = to != null
+                    ? getClinicFreeDaysUseCase.execute(id, fromDate, LocalDate.parse(to))
+                    : getClinicNextFreeDaysUseCase.execute(id, fromDate, count);
+
+            return Response.ok(ResponseDTO.success("Free days fetched", freeDays)).build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        }
+    }
+
+    @GET
+    @Path("/{id}/bookable")
+    @UserOnly
+    public Response isClinicBookable(@PathParam("id") Long id,
+            @QueryParam("dates") List<String> dates) {
+        try {
+            if (dates == null || dates.isEmpty()) {
+                throw new IllegalArgumentException("At least one date is required");
+            }
+            List<LocalDate> parsedDates = dates.stream().map(LocalDate::parse).toList();
+            boolean bookable = checkClinicBookableUseCase.execute(id, parsedDates);
+
+            return Response.ok(ResponseDTO.success("Clinic availability checked",
+                    Map.of("bookable", bookable))).build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        }
+    }
+
     @PUT
     @Path("/{id}")
     @LandlordOnly
@@ -327,18 +601,22 @@ public Response getClinicCountByCity(@PathParam("city") String city) {
 @GET
 @Path("/cities")
 @Produces(MediaType.APPLICATION_JSON)
-public Response getAllCitiesWithClinics() {
+public Response getAllCitiesWithClinics(@Context Request request) {
     try {
-        Set<String> rawCities = getAllClinicCitiesUseCase.execute();
+        ResourceVersionDTO version = getClinicCitiesVersionUseCase.execute();
+        EntityTag tag = HttpCaching.entityTag("cities-" + version.getVersion());
+        CacheControl cacheControl = HttpCaching.reference();
+        Response notModified = HttpCaching.notModified(request, tag, version.getLastModified(),
+                cacheControl);
+        if (notModified != null) {
+            return notModified;
+        }
 
-        List<CityFilterDTO> cities = rawCities.stream()
-            .map(city -> new CityFilterDTO(
-                city, // label
-                normalizeCity(city) 
-            ))
-            .collect(Collectors.toList());
+        List<CityFilterDTO> cities = getAllClinicCitiesUseCase.execute();
 
-        return Response.ok(ResponseDTO.success("Cities fetched", cities)).build();
+        return HttpCaching.withValidators(
+                Response.ok(ResponseDTO.success("Cities fetched", cities)), tag,
+                version.getLastModified(), cacheControl).build();
     } catch (Exception e) {
         return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity(ResponseDTO.error("Error retrieving cities")).build();
@@ -371,9 +649,7 @@ public Response getClinicCountByCategoryAndCity(
                     .build();
         }
 
-        String normalizedCity = normalizeCity(cityRaw);
-
-        long count = getClinicsByCategoryAndCityUseCase.execute(category, normalizedCity);
+        long count = getClinicsByCategoryAndCityUseCase.execute(category, cityRaw);
 
         return Response.ok(ResponseDTO.success("Clinic count retrieved", count)).build();
     } catch (Exception e) {
@@ -382,18 +658,6 @@ public Response getClinicCountByCategoryAndCity(
     }
 }
 
-private String normalizeCity(String city) {
-    if (city == null) return null;
-    return city.trim()
-               .toLowerCase()
-               .replaceAll("[áÁ]", "a")
-               .replaceAll("[éÉ]", "e")
-               .replaceAll("[íÍ]", "i")
-               .replaceAll("[óÓ]", "o")
-               .replaceAll("[úÚ]", "u")
-               .replaceAll("\\s+", "_");
-}
-
     }
 
 
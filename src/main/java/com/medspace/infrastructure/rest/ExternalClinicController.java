@@ -1,66 +1,106 @@
 package com.medspace.infrastructure.rest;
 
+import com.medspace.application.usecase.externalClinic.GetExternalClinicTileUseCase;
 import com.medspace.application.usecase.externalClinic.GetExternalClinicsDashboardUseCase;
+import com.medspace.application.usecase.externalClinic.ImportExternalClinicsUseCase;
 import com.medspace.application.usecase.externalClinic.LoadExternalClinicsUseCase;
 import com.medspace.application.usecase.externalClinic.UpdateExternalClinicSpecialtiesUseCase;
 import com.medspace.infrastructure.dto.ResponseDTO;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicTileDTO;
+import com.medspace.infrastructure.dto.externalClinic.ImportExternalClinicsDTO;
 import com.medspace.infrastructure.dto.externalClinic.GetExternalClinicSpecialistsDashboardDTO;
+import com.medspace.infrastructure.dto.job.JobDTO;
 import com.medspace.infrastructure.dto.common.PaginationDTO;
+import com.medspace.infrastructure.util.HttpCaching;
+import com.medspace.infrastructure.util.JsonStreaming;
+import com.medspace.infrastructure.util.PointColumnsEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.net.URI;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
 
 @ApplicationScoped
 @Path("/api/external-clinics")
 @Consumes(MediaType.APPLICATION_JSON)
 @Produces(MediaType.APPLICATION_JSON)
 public class ExternalClinicController {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @Inject
     LoadExternalClinicsUseCase loadExternalClinicsUseCase;
 
+    @Inject
+    ImportExternalClinicsUseCase importExternalClinicsUseCase;
+
     @Inject
     GetExternalClinicsDashboardUseCase getExternalClinicsDashboardUseCase;
 
+    @Inject
+    GetExternalClinicTileUseCase getExternalClinicTileUseCase;
+
     @Inject
     UpdateExternalClinicSpecialtiesUseCase updateExternalClinicSpecialtiesUseCase;
 
+    @Inject
+    ObjectMapper objectMapper;
+
+    // Starts the sync of the external API as a background job; poll /api/jobs/{id} for progress
     @POST
     @Path("/load")
-
     public Response loadClinics() {
-        try {
-            loadExternalClinicsUseCase.execute();
-            return Response.ok(ResponseDTO.success("Clinics loaded successfully")).build();
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(ResponseDTO.error("Error loading clinics: " + e.getMessage())).build();
+        return submitJob("Clinic load started", loadExternalClinicsUseCase::execute);
+    }
+
+    // Loads a DENUE dump file from the import directory instead of the API, as a background job
+    @POST
+    @Path("/import")
+    public Response importClinics(ImportExternalClinicsDTO request) {
+        if (request == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ResponseDTO.error("A dump file is required")).build();
         }
+        return submitJob("Clinic import started", () -> importExternalClinicsUseCase
+                .execute(request.getFile(), request.getCharset()));
     }
 
     @GET
     @Path("/dashboard")
+    @Produces({MediaType.APPLICATION_JSON, PointColumnsEncoder.MEDIA_TYPE})
     public Response getDashboardData(@QueryParam("page") Integer page,
-            @QueryParam("size") Integer size, @QueryParam("all") Boolean getAll) {
+            @QueryParam("size") Integer size, @QueryParam("cursor") String cursor,
+            @QueryParam("all") Boolean getAll, @HeaderParam(HttpHeaders.ACCEPT) String accept,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
         try {
+            if (PointColumnsEncoder.isAccepted(accept)) {
+                // Every point, as columns, for the map
+                return getExternalClinicsDashboardUseCase.executePoints()
+                        .toResponse(acceptEncoding);
+            }
             if (Boolean.TRUE.equals(getAll)) {
-                List<GetExternalClinicSpecialistsDashboardDTO> allData =
-                        getExternalClinicsDashboardUseCase.executeGetAll();
-                return Response.ok(ResponseDTO.success("Dashboard data retrieved successfully",
-                        Map.of("totalRecords", allData.size(), "data", allData))).build();
+                return Response.ok(JsonStreaming.countedList(objectMapper,
+                        "Dashboard data retrieved successfully",
+                        getExternalClinicsDashboardUseCase::executeForEach)).build();
             } else {
-                PaginationDTO pagination =
-                        new PaginationDTO(page != null ? page : 0, size != null ? size : 50);
+                int pageSize = Math.min(size != null && size > 0 ? size : 50, MAX_PAGE_SIZE);
+                PaginationDTO pagination = cursor != null ? new PaginationDTO(cursor, pageSize)
+                        : new PaginationDTO(page != null ? page : 0, pageSize);
                 List<GetExternalClinicSpecialistsDashboardDTO> data =
                         getExternalClinicsDashboardUseCase.executeWithPagination(pagination);
+                // Pass back as ?cursor= for the next page; absent on the last page
                 return Response
                         .ok(ResponseDTO.success("Dashboard data retrieved successfully", data))
-                        .build();
+                        .header(NEXT_CURSOR_HEADER, pagination.getNextCursor()).build();
             }
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(ResponseDTO.error("Error retrieving dashboard data: " + e.getMessage()))
@@ -68,16 +108,48 @@ public class ExternalClinicController {
         }
     }
 
+    // Clusters of one slippy map tile, counted per specialty, for the zoomable dashboard map
+    @GET
+    @Path("/tiles/{z}/{x}/{y}")
+    public Response getTile(@PathParam("z") int z, @PathParam("x") int x,
+            @PathParam("y") int y) {
+        try {
+            ExternalClinicTileDTO tile = getExternalClinicTileUseCase.execute(z, x, y);
+            return Response.ok(ResponseDTO.success("Tile retrieved successfully", tile))
+                    .cacheControl(HttpCaching.reference()).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ResponseDTO.error("Error retrieving tile: " + e.getMessage()))
+                    .build();
+        }
+    }
+
     @POST
     @Path("/update-specialties")
     public Response updateSpecialties() {
+        return submitJob("Specialty update started",
+                updateExternalClinicSpecialtiesUseCase::execute);
+    }
+
+    // 202 with the new job, 400 for invalid arguments, or 409 while a job of the same kind is
+    // still running
+    private static Response submitJob(String message, Supplier<JobDTO> submit) {
         try {
-            updateExternalClinicSpecialtiesUseCase.execute();
-            return Response.ok(ResponseDTO.success("Specialties updated successfully")).build();
+            JobDTO job = submit.get();
+            return Response.accepted(ResponseDTO.success(message, job))
+                    .location(URI.create("/api/jobs/" + job.getId())).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(ResponseDTO.error("Error updating specialties: " + e.getMessage()))
-                    .build();
+                    .entity(ResponseDTO.error("Error starting job: " + e.getMessage())).build();
         }
     }
 }
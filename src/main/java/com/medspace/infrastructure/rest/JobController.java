@@ -0,0 +1,66 @@
+package com.medspace.infrastructure.rest;
+
+import com.medspace.application.usecase.job.CancelJobUseCase;
+import com.medspace.application.usecase.job.GetJobUseCase;
+import com.medspace.infrastructure.dto.ResponseDTO;
+import com.medspace.infrastructure.dto.job.JobDTO;
+import com.medspace.infrastructure.util.HttpCaching;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+@ApplicationScoped
+@Path("/api/jobs")
+@Produces(MediaType.APPLICATION_JSON)
+public class JobController {
+
+    @Inject
+    GetJobUseCase getJobUseCase;
+
+    @Inject
+    CancelJobUseCase cancelJobUseCase;
+
+    // Status, progress and, once finished, the result or error of a background job
+    @GET
+    @Path("/{id}")
+    public Response getJob(@PathParam("id") String id) {
+        try {
+            JobDTO job = getJobUseCase.execute(id);
+            if (job == null) {
+                throw new NotFoundException("Job with id " + id + " not found");
+            }
+            return Response.ok(ResponseDTO.success("Job retrieved successfully", job))
+                    .cacheControl(HttpCaching.noStore()).build();
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ResponseDTO.error("Error retrieving job: " + e.getMessage()))
+                    .build();
+        }
+    }
+
+    // Asks a running job to stop; it reports CANCELLED once it has
+    @DELETE
+    @Path("/{id}")
+    public Response cancelJob(@PathParam("id") String id) {
+        try {
+            JobDTO job = cancelJobUseCase.execute(id);
+            if (job == null) {
+                throw new NotFoundException("Job with id " + id + " not found");
+            }
+            return Response.accepted(ResponseDTO.success("Job cancellation requested", job))
+                    .build();
+        } catch (NotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ResponseDTO.error(e.getMessage())).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ResponseDTO.error("Error cancelling job: " + e.getMessage()))
+                    .build();
+        }
+    }
+}
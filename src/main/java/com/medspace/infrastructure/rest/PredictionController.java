@@ -14,6 +14,7 @@ import com.medspace.infrastructure.dto.ResponseDTO;
 import com.medspace.infrastructure.rest.annotations.LandlordOnly;
 import com.medspace.infrastructure.rest.annotations.UserOnly;
 import com.medspace.infrastructure.rest.context.RequestContext;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -27,6 +28,9 @@ import jakarta.ws.rs.core.Response;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @UserOnly
+// Waits on the prediction service for seconds at a time; a virtual thread keeps that wait off
+// the worker pool
+@RunOnVirtualThread
 public class PredictionController {
 
     @Inject
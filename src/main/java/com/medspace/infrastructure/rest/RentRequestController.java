@@ -25,9 +25,13 @@ import com.medspace.infrastructure.rest.annotations.LandlordOnly;
 import com.medspace.infrastructure.rest.annotations.TenantOnly;
 import com.medspace.infrastructure.rest.annotations.UserOnly;
 import com.medspace.infrastructure.rest.context.RequestContext;
+import com.medspace.infrastructure.util.JsonStreaming;
+import com.medspace.infrastructure.util.PointColumnsEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
@@ -62,13 +66,13 @@ public class RentRequestController {
     @Inject
     RequestContext requestContext;
 
+    @Inject
+    ObjectMapper objectMapper;
+
     @GET
     public Response getAllRentRequests() {
-        List<RentRequest> list = listRentRequests.execute();
-        List<GetRentRequestDTO> dtos =
-                list.stream().map(GetRentRequestDTO::new).collect(Collectors.toList());
-
-        return Response.ok(ResponseDTO.success("Fetched rent-requests", dtos)).build();
+        return Response.ok(JsonStreaming.list(objectMapper,
+                "Fetched rent-requests", listRentRequests::executeForEach)).build();
     }
 
     @GET
@@ -197,7 +201,12 @@ public class RentRequestController {
 
     @GET
     @Path("/specialists-dashboard")
-    public Response getSpecialistsDashboardData() {
+    @Produces({MediaType.APPLICATION_JSON, PointColumnsEncoder.MEDIA_TYPE})
+    public Response getSpecialistsDashboardData(@HeaderParam(HttpHeaders.ACCEPT) String accept,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        if (PointColumnsEncoder.isAccepted(accept)) {
+            return getSpecialistsDashboardDataUseCase.executePoints().toResponse(acceptEncoding);
+        }
         List<GetRentRequestSpecialistsDashboardDTO> data =
                 getSpecialistsDashboardDataUseCase.execute();
         return Response.ok(ResponseDTO.success("Fetched specialists dashboard data", data)).build();
@@ -2,10 +2,12 @@ package com.medspace.infrastructure.rest;
 
 
 import java.util.List;
+import java.util.Objects;
 import com.medspace.application.usecase.user.tenantSpecialties.GetAllTenantSpecialtiesUseCase;
 import com.medspace.application.usecase.user.tenantSpecialties.GetTenantSpecialtyByIdUseCase;
 import com.medspace.domain.model.TenantSpecialty;
 import com.medspace.infrastructure.dto.ResponseDTO;
+import com.medspace.infrastructure.util.HttpCaching;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
@@ -13,6 +15,10 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
 @ApplicationScoped
@@ -49,11 +55,20 @@ public class TenantSpecialtyController {
 
     @GET
     @Path("/")
-    public Response getAllTenantSpecialties() {
+    public Response getAllTenantSpecialties(@Context Request request) {
         try {
             List<TenantSpecialty> tenantSpecialties = getAllTenantSpecialtiesUseCase.execute();
-            return Response.ok(ResponseDTO.success("Fetched Tenant Specialties", tenantSpecialties))
-                    .build();
+
+            // The table has no write path, so the content itself is the version
+            EntityTag tag = HttpCaching.entityTag("specialties-" + contentHash(tenantSpecialties));
+            CacheControl cacheControl = HttpCaching.reference();
+            Response notModified = HttpCaching.notModified(request, tag, null, cacheControl);
+            if (notModified != null) {
+                return notModified;
+            }
+            Response.ResponseBuilder response = Response
+                    .ok(ResponseDTO.success("Fetched Tenant Specialties", tenantSpecialties));
+            return HttpCaching.withValidators(response, tag, null, cacheControl).build();
 
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -61,4 +76,11 @@ public class TenantSpecialtyController {
         }
     }
 
+    private static String contentHash(List<TenantSpecialty> tenantSpecialties) {
+        int hash = 1;
+        for (TenantSpecialty tenantSpecialty : tenantSpecialties) {
+            hash = 31 * hash + Objects.hash(tenantSpecialty.getId(), tenantSpecialty.getName());
+        }
+        return tenantSpecialties.size() + "-" + Integer.toHexString(hash);
+    }
 }
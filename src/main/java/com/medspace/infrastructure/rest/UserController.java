@@ -1,7 +1,6 @@
 package com.medspace.infrastructure.rest;
 
 import java.util.HashMap;
-import java.util.List;
 import com.medspace.application.service.UserService;
 import com.medspace.application.usecase.user.CreateUserUseCase;
 import com.medspace.application.usecase.user.DeleteUserByIdUseCase;
@@ -22,6 +21,8 @@ import com.medspace.infrastructure.dto.user.GetUserPublicProfileDTO;
 import com.medspace.infrastructure.rest.annotations.AnalystOnly;
 import com.medspace.infrastructure.rest.annotations.UserOnly;
 import com.medspace.infrastructure.rest.context.RequestContext;
+import com.medspace.infrastructure.util.JsonStreaming;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -68,6 +69,9 @@ public class UserController {
     @Inject
     UserService userService;
 
+    @Inject
+    ObjectMapper objectMapper;
+
 
     @POST
     @Consumes("application/json")
@@ -157,14 +161,8 @@ public class UserController {
 
     @GET
     public Response getAllUsers() {
-        try {
-            List<User> users = getAllUsersUseCase.execute();
-
-            return Response.ok(ResponseDTO.success("Users Fetched", users)).build();
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(ResponseDTO.error(e.getMessage())).build();
-        }
+        return Response.ok(JsonStreaming.list(objectMapper, "Users Fetched",
+                getAllUsersUseCase::executeForEach)).build();
     }
 
 
@@ -1,14 +1,49 @@
 package com.medspace.infrastructure.rest.context;
 
 import com.medspace.domain.model.User;
+import com.medspace.domain.repository.UserRepository;
+import com.medspace.infrastructure.cache.VerifiedIdentity;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.enterprise.context.RequestScoped;
-import lombok.Getter;
-import lombok.Setter;
+import jakarta.inject.Inject;
 
+/**
+ * Caller of the current request. The auth filter only stores the verified identity; the user is
+ * loaded the first time a role filter or resource asks for it, so endpoints that never read it
+ * don't touch the users table.
+ */
 @RequestScoped
-@Getter
-@Setter
 public class RequestContext {
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    MeterRegistry registry;
+
+    private VerifiedIdentity identity;
     private User user;
-    private String firebaseUid;
+    private boolean userResolved = false;
+
+    public void setIdentity(VerifiedIdentity identity) {
+        this.identity = identity;
+        this.user = null;
+        this.userResolved = false;
+    }
+
+    public String getFirebaseUid() {
+        return identity != null ? identity.getFirebaseUid() : null;
+    }
+
+    public User getUser() {
+        if (!userResolved) {
+            user = identity != null ? identity.resolveUser(this::lookupUser) : null;
+            userResolved = true;
+        }
+        return user;
+    }
+
+    private User lookupUser(String firebaseUid) {
+        return registry.timer("auth.user.lookup")
+                .record(() -> userRepository.getUserByFirebaseId(firebaseUid));
+    }
 }
@@ -10,10 +10,12 @@ import jakarta.ws.rs.ext.Provider;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseToken;
-import com.medspace.domain.model.User;
-import com.medspace.domain.repository.UserRepository;
+import com.medspace.infrastructure.cache.VerifiedIdentity;
+import com.medspace.infrastructure.cache.VerifiedIdentityCache;
 import com.medspace.infrastructure.dto.ResponseDTO;
 import com.medspace.infrastructure.rest.context.RequestContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
 
 @Provider
@@ -21,10 +23,13 @@ import java.io.IOException;
 public class FirebaseAuthFilter implements ContainerRequestFilter {
 
     @Inject
-    private UserRepository userRepository;
+    RequestContext requestContext;
 
     @Inject
-    RequestContext requestContext;
+    VerifiedIdentityCache verifiedIdentityCache;
+
+    @Inject
+    MeterRegistry registry;
 
     @Override
     public void filter(ContainerRequestContext ctx) throws IOException {
@@ -32,27 +37,18 @@ public class FirebaseAuthFilter implements ContainerRequestFilter {
 
         // Check if the header is null or empty
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            requestContext.setUser(null);
-            requestContext.setFirebaseUid(null);
+            requestContext.setIdentity(null);
             return;
         }
 
         // Extract the token from the header
         String token = authHeader.substring("Bearer".length()).trim();
 
-        // Validate the token using Firebase Admin SDK and get the user
+        // Validate the token using Firebase Admin SDK, reusing a previous verification of the
+        // same token while it has not expired; the user itself is loaded by RequestContext
         try {
 
-            FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-            String firebaseUid = decodedToken.getUid();
-            User u = userRepository.getUserByFirebaseId(firebaseUid);
-            requestContext.setFirebaseUid(firebaseUid);
-            requestContext.setUser(u);
-
-        } catch (FirebaseAuthException e) {
-
-            requestContext.setUser(null);
-            requestContext.setFirebaseUid(null);
+            requestContext.setIdentity(verifiedIdentityCache.get(token, () -> verify(token)));
 
         } catch (Exception e) {
 
@@ -63,6 +59,22 @@ public class FirebaseAuthFilter implements ContainerRequestFilter {
         }
     }
 
-}
-
+    // Returns null for tokens Firebase rejects; timings are published as auth.token.verify
+    private VerifiedIdentity verify(String token) {
+        Timer.Sample sample = Timer.start(registry);
+        FirebaseToken decodedToken;
+        try {
+            decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
+        } catch (FirebaseAuthException e) {
+            sample.stop(registry.timer("auth.token.verify", "result", "invalid"));
+            return null;
+        }
+        sample.stop(registry.timer("auth.token.verify", "result", "valid"));
 
+        Object exp = decodedToken.getClaims().get("exp");
+        long expiresAtMillis = exp instanceof Number
+                ? ((Number) exp).longValue() * 1000
+                : System.currentTimeMillis();
+        return new VerifiedIdentity(decodedToken.getUid(), expiresAtMillis);
+    }
+}
@@ -0,0 +1,207 @@
+package com.medspace.infrastructure.search;
+
+import com.medspace.domain.event.ClinicBookingsChangedEvent;
+import com.medspace.domain.event.ClinicChangedEvent;
+import com.medspace.domain.model.ClinicAvailability;
+import com.medspace.domain.model.RentRequest;
+import com.medspace.domain.repository.ClinicCalendarRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.ws.rs.NotFoundException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Booking calendar of every clinic, kept in memory as one {@link ClinicCalendar} per clinic. The
+ * calendars are built from the database on first use and a clinic's calendar is rebuilt after a
+ * commit that changes the clinic, its availabilities or its accepted rent requests. Lookups never
+ * touch the database.
+ */
+@ApplicationScoped
+public class ClinicBookingCalendar implements ClinicCalendarRepository {
+    public static final int MAX_RANGE_DAYS = 366;
+
+    @Inject
+    EntityManager em;
+
+    private final Map<Long, ClinicCalendar> calendars = new ConcurrentHashMap<>();
+    private volatile boolean built = false;
+    // Guards the loads, which read the database; waiters on a virtual thread can unmount
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    @Override
+    public List<LocalDate> getFreeDays(Long clinicId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || to.toEpochDay() - from.toEpochDay() >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException(
+                    "date range must be ordered and span at most " + MAX_RANGE_DAYS + " days");
+        }
+        return getCalendar(clinicId).freeDays(from, to);
+    }
+
+    @Override
+    public List<LocalDate> getNextFreeDays(Long clinicId, LocalDate from, int count) {
+        if (count < 1 || count > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException(
+                    "count must be between 1 and " + MAX_RANGE_DAYS);
+        }
+        return getCalendar(clinicId).nextFreeDays(from, count);
+    }
+
+    // True when every date is free; an empty set of dates is not bookable
+    @Override
+    public boolean isBookable(Long clinicId, Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return false;
+        }
+        ClinicCalendar calendar = getCalendar(clinicId);
+        for (LocalDate date : dates) {
+            if (!calendar.isFree(date)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The given dates on which the clinic is free, in the given order
+    @Override
+    public List<LocalDate> getFreeDates(Long clinicId, List<LocalDate> dates) {
+        ClinicCalendar calendar = getCalendar(clinicId);
+        List<LocalDate> freeDates = new ArrayList<>();
+        for (LocalDate date : dates) {
+            if (calendar.isFree(date)) {
+                freeDates.add(date);
+            }
+        }
+        return freeDates;
+    }
+
+    // Used by the search index on every candidate, so it neither builds nor throws
+    int countFreeDays(Long clinicId, long[] epochDays) {
+        ClinicCalendar calendar = calendars.get(clinicId);
+        return calendar != null ? calendar.countFree(epochDays) : 0;
+    }
+
+    ClinicCalendar getCalendar(Long clinicId) {
+        ensureBuilt();
+        ClinicCalendar calendar = calendars.get(clinicId);
+        if (calendar == null) {
+            throw new NotFoundException("clinic with id " + clinicId + " not found");
+        }
+        return calendar;
+    }
+
+    void onClinicChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) ClinicChangedEvent event) {
+        reload(event.getClinicId());
+    }
+
+    void onBookingsChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) ClinicBookingsChangedEvent event) {
+        reload(event.getClinicId());
+    }
+
+    private void reload(Long clinicId) {
+        loadLock.lock();
+        try {
+            // Not built yet: the initial build will read the committed state
+            if (clinicId == null || !built) {
+                return;
+            }
+            ClinicCalendar calendar = loadCalendars(clinicId).get(clinicId);
+            if (calendar == null) {
+                calendars.remove(clinicId);
+            } else {
+                calendars.put(clinicId, calendar);
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (!built) {
+                calendars.putAll(loadCalendars(null));
+                built = true;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // Loads one clinic, or every clinic when clinicId is null
+    Map<Long, ClinicCalendar> loadCalendars(Long clinicId) {
+        String clinicFilter = clinicId != null ? " WHERE c.id = :clinicId" : "";
+        String availabilityFilter = clinicId != null ? " AND x.clinic.id = :clinicId" : "";
+        String bookingFilter = clinicId != null ? " AND r.clinic.id = :clinicId" : "";
+
+        TypedQuery<Object[]> clinicQuery = em.createQuery(
+                "SELECT c.id, c.availableFromDate, c.availableToDate FROM ClinicEntity c"
+                        + clinicFilter,
+                Object[].class);
+        TypedQuery<Object[]> weekDayQuery = em.createQuery(
+                "SELECT DISTINCT x.clinic.id, x.weekDay FROM ClinicAvailabilityEntity x"
+                        + " WHERE x.clinic IS NOT NULL" + availabilityFilter,
+                Object[].class);
+        TypedQuery<Object[]> bookedQuery = em.createQuery(
+                "SELECT r.clinic.id, d.date FROM RentRequestDayEntity d JOIN d.rentRequest r"
+                        + " WHERE r.status = :status" + bookingFilter,
+                Object[].class).setParameter("status", RentRequest.Status.ACCEPTED);
+        if (clinicId != null) {
+            clinicQuery.setParameter("clinicId", clinicId);
+            weekDayQuery.setParameter("clinicId", clinicId);
+            bookedQuery.setParameter("clinicId", clinicId);
+        }
+
+        Map<Long, long[]> windows = new HashMap<>();
+        for (Object[] row : clinicQuery.getResultList()) {
+            windows.put((Long) row[0], new long[] {toEpochDay((Date) row[1]),
+                    toEpochDay((Date) row[2])});
+        }
+
+        Map<Long, Integer> openWeekDays = new HashMap<>();
+        for (Object[] row : weekDayQuery.getResultList()) {
+            int bit = 1 << ((ClinicAvailability.WeekDay) row[1]).ordinal();
+            openWeekDays.merge((Long) row[0], bit, (a, b) -> a | b);
+        }
+
+        Map<Long, BitSet> bookedDays = new HashMap<>();
+        for (Object[] row : bookedQuery.getResultList()) {
+            long[] window = windows.get((Long) row[0]);
+            long day = toEpochDay((Date) row[1]);
+            // Bookings outside the window don't change the answer, the day is blocked anyway
+            if (window != null && day >= window[0] && day <= window[1]) {
+                bookedDays.computeIfAbsent((Long) row[0], id -> new BitSet())
+                        .set((int) (day - window[0]));
+            }
+        }
+
+        Map<Long, ClinicCalendar> loaded = new HashMap<>();
+        windows.forEach((id, window) -> loaded.put(id,
+                new ClinicCalendar(window[0], window[1],
+                        // Clinics without configured availabilities open every day
+                        openWeekDays.getOrDefault(id, ClinicCalendar.ALL_WEEK_DAYS),
+                        bookedDays.getOrDefault(id, new BitSet()))));
+        return loaded;
+    }
+
+    private static long toEpochDay(Date date) {
+        return date.toLocalDate().toEpochDay();
+    }
+}
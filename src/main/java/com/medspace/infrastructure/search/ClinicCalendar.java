@@ -0,0 +1,83 @@
+package com.medspace.infrastructure.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable day calendar of one clinic. A day is free when it falls inside the clinic's
+ * availability window, the clinic opens on that week day and no accepted rent request books it.
+ * Days are handled as epoch days and the booked days are a bitset relative to the window start.
+ */
+final class ClinicCalendar {
+    static final int ALL_WEEK_DAYS = 0x7F;
+
+    private final long firstDay;
+    private final long lastDay;
+    // Bit 0 is Monday, bit 6 is Sunday
+    private final int openWeekDays;
+    private final BitSet booked;
+
+    ClinicCalendar(long firstDay, long lastDay, int openWeekDays, BitSet booked) {
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.openWeekDays = openWeekDays;
+        this.booked = booked;
+    }
+
+    static int weekDayBit(long epochDay) {
+        // 1970-01-01 was a Thursday
+        return 1 << (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    // Bit position of an epoch day in the booked bitset, or -1 when outside the window
+    int offsetOf(long epochDay) {
+        if (epochDay < firstDay || epochDay > lastDay) {
+            return -1;
+        }
+        return (int) (epochDay - firstDay);
+    }
+
+    boolean isFree(long epochDay) {
+        int offset = offsetOf(epochDay);
+        return offset >= 0 && (openWeekDays & weekDayBit(epochDay)) != 0 && !booked.get(offset);
+    }
+
+    boolean isFree(LocalDate date) {
+        return isFree(date.toEpochDay());
+    }
+
+    int countFree(long[] epochDays) {
+        int free = 0;
+        for (long epochDay : epochDays) {
+            if (isFree(epochDay)) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    List<LocalDate> freeDays(LocalDate from, LocalDate to) {
+        List<LocalDate> freeDays = new ArrayList<>();
+        long start = Math.max(from.toEpochDay(), firstDay);
+        long end = Math.min(to.toEpochDay(), lastDay);
+        for (long day = start; day <= end; day++) {
+            if (isFree(day)) {
+                freeDays.add(LocalDate.ofEpochDay(day));
+            }
+        }
+        return freeDays;
+    }
+
+    List<LocalDate> nextFreeDays(LocalDate from, int count) {
+        List<LocalDate> freeDays = new ArrayList<>(count);
+        for (long day = Math.max(from.toEpochDay(), firstDay); day <= lastDay
+                && freeDays.size() < count; day++) {
+            if (isFree(day)) {
+                freeDays.add(LocalDate.ofEpochDay(day));
+            }
+        }
+        return freeDays;
+    }
+}
@@ -0,0 +1,676 @@
+package com.medspace.infrastructure.search;
+
+import com.medspace.domain.event.ClinicChangedEvent;
+import com.medspace.domain.model.Clinic;
+import com.medspace.domain.model.ClinicAvailability;
+import com.medspace.infrastructure.dto.clinic.ClinicFacetCountDTO;
+import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
+import com.medspace.infrastructure.util.GeoUtils;
+import com.medspace.infrastructure.util.TextNormalizer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the clinic search attributes. Every clinic gets a dense ordinal
+ * and each attribute value keeps a bitset of the ordinals that have it, so a filter is answered by
+ * intersecting bitsets. Parsed coordinates are kept in a {@link GeoGridIndex} so distance and
+ * bounding box filters only look at nearby clinics. The index is built from the database on first
+ * use and kept up to date by observing {@link ClinicChangedEvent} after the writing transaction
+ * commits.
+ */
+@ApplicationScoped
+public class ClinicSearchIndex {
+    private static final int HOURS_PER_DAY = 24;
+    private static final int WEEK_DAYS = ClinicAvailability.WeekDay.values().length;
+    private static final BitSet EMPTY = new BitSet();
+    public static final int DEFAULT_NEAREST_LIMIT = 50;
+    public static final int MAX_NEAREST_LIMIT = 500;
+
+    @Inject
+    EntityManager em;
+    @Inject
+    ClinicBookingCalendar bookingCalendar;
+    @Inject
+    ClinicTextIndex textIndex;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built = false;
+    // Held from loading a clinic until it is applied, so loads are applied in the order they
+    // read the database and a slower, older read can't overwrite a newer one
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private ClinicSearchDocument[] documents = new ClinicSearchDocument[64];
+    private int nextOrdinal = 0;
+
+    private final BitSet live = new BitSet();
+    private final Map<String, BitSet> cityPostings = new HashMap<>();
+    private final Map<Clinic.Category, BitSet> categoryPostings =
+            new EnumMap<>(Clinic.Category.class);
+    private final Map<String, BitSet> equipmentPostings = new HashMap<>();
+    private final BitSet[] slotPostings = new BitSet[WEEK_DAYS * HOURS_PER_DAY];
+    private final GeoGridIndex geoGrid = new GeoGridIndex();
+
+    // Clinic counts for every combination of category, city and equipment type, where a null
+    // dimension stands for any value. Kept in step with put/unindex so reads are lookups.
+    private final Map<FacetCell, Integer> facetCounts = new HashMap<>();
+    private final Map<String, String> cityLabels = new HashMap<>();
+
+    /**
+     * Returns the ids of the clinics matching the filter. When the filter has a center point the
+     * ids are ordered by distance and capped at the requested limit, with a text query they are
+     * ordered by relevance, otherwise they are in ascending id order.
+     */
+    public List<Long> search(ClinicQueryDTO filter) {
+        ensureBuilt();
+
+        long[] targetDays = null;
+        int minFreeDays = 0;
+        if (filter.getTargetDates() != null) {
+            targetDays = filter.getTargetDates().stream().mapToLong(LocalDate::toEpochDay)
+                    .toArray();
+            minFreeDays = filter.getMinFreeDates() != null ? filter.getMinFreeDates()
+                    : targetDays.length;
+            // Built outside the read lock so the first load doesn't block index writers
+            bookingCalendar.ensureBuilt();
+        }
+        Map<Long, Double> textScores =
+                filter.getTextQuery() != null ? textIndex.search(filter.getTextQuery()) : null;
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) live.clone();
+
+            if (filter.getTargetCity() != null) {
+                String city = TextNormalizer.normalizeCity(filter.getTargetCity());
+                candidates.and(cityPostings.getOrDefault(city, EMPTY));
+            }
+
+            if (filter.getTargetCategory() != null) {
+                candidates.and(categoryPostings.getOrDefault(filter.getTargetCategory(), EMPTY));
+            }
+
+            if (textScores != null) {
+                BitSet matchingText = new BitSet();
+                for (Long clinicId : textScores.keySet()) {
+                    Integer ordinal = ordinals.get(clinicId);
+                    if (ordinal != null) {
+                        matchingText.set(ordinal);
+                    }
+                }
+                candidates.and(matchingText);
+            }
+
+            if (filter.getEquipmentList() != null) {
+                BitSet withAnyEquipment = new BitSet();
+                for (String type : filter.getEquipmentList()) {
+                    withAnyEquipment.or(equipmentPostings.getOrDefault(normalizeKey(type), EMPTY));
+                }
+                candidates.and(withAnyEquipment);
+            }
+
+            LocalTime targetHour = filter.getTargetHour();
+            if (targetHour != null) {
+                BitSet openAtHour = new BitSet();
+                for (int weekDay = 0; weekDay < WEEK_DAYS; weekDay++) {
+                    BitSet slot = slotPostings[slotIndex(weekDay, targetHour.getHour())];
+                    if (slot != null) {
+                        openAtHour.or(slot);
+                    }
+                }
+                candidates.and(openAtHour);
+            }
+
+            GeoBounds bounds = GeoBounds.of(filter);
+            if (bounds != null) {
+                candidates.and(geoGrid.within(bounds.minLatitude, bounds.minLongitude,
+                        bounds.maxLatitude, bounds.maxLongitude));
+            }
+            boolean hasCenter = filter.getLatitude() != null && filter.getLongitude() != null;
+
+            // Hour slots and the date window are checked exactly on the surviving candidates
+            long targetDay = filter.getTargetDate() != null
+                    ? filter.getTargetDate().toLocalDate().toEpochDay()
+                    : Long.MIN_VALUE;
+
+            List<Long> clinicIds = new ArrayList<>();
+            NearestClinics nearest = hasCenter ? new NearestClinics(nearestLimit(filter)) : null;
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal =
+                    candidates.nextSetBit(ordinal + 1)) {
+                ClinicSearchDocument document = documents[ordinal];
+                if (filter.getTargetDate() != null && !document.isAvailableOn(targetDay)) {
+                    continue;
+                }
+                if (targetHour != null && !document.isOpenAt(targetHour)) {
+                    continue;
+                }
+                if (bounds != null && !bounds.contains(document)) {
+                    continue;
+                }
+                if (targetDays != null && bookingCalendar.countFreeDays(document.clinicId,
+                        targetDays) < minFreeDays) {
+                    continue;
+                }
+
+                if (hasCenter) {
+                    if (!document.hasCoordinates()) {
+                        continue;
+                    }
+                    double distanceKm = GeoUtils.haversineKm(filter.getLatitude(),
+                            filter.getLongitude(), document.latitude, document.longitude);
+                    if (filter.getRadiusKm() == null || distanceKm <= filter.getRadiusKm()) {
+                        nearest.offer(document.clinicId, distanceKm);
+                    }
+                } else {
+                    clinicIds.add(document.clinicId);
+                }
+            }
+
+            if (hasCenter) {
+                return nearest.toSortedIds();
+            }
+            if (textScores != null) {
+                Comparator<Long> byScore = Comparator.comparing(textScores::get);
+                clinicIds.sort(byScore.reversed().thenComparing(Long::compareTo));
+                return clinicIds;
+            }
+            clinicIds.sort(Long::compareTo);
+            return clinicIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the non-empty cells of the clinic count cube. Cells by equipment type are only
+     * included when requested, as they multiply the size of the response.
+     */
+    public List<ClinicFacetCountDTO> getFacetCounts(boolean includeEquipment) {
+        ensureBuilt();
+
+        lock.readLock().lock();
+        try {
+            List<ClinicFacetCountDTO> counts = new ArrayList<>(facetCounts.size());
+            for (Map.Entry<FacetCell, Integer> entry : facetCounts.entrySet()) {
+                FacetCell cell = entry.getKey();
+                if (cell.equipmentType != null && !includeEquipment) {
+                    continue;
+                }
+                counts.add(new ClinicFacetCountDTO(cell.category, cell.city,
+                        cell.city != null ? cityLabels.get(cell.city) : null, cell.equipmentType,
+                        entry.getValue()));
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of clinics with the given category and city; null matches any value
+    public long countClinics(Clinic.Category category, String city) {
+        ensureBuilt();
+
+        lock.readLock().lock();
+        try {
+            String cityKey = city != null ? TextNormalizer.normalizeCity(city) : null;
+            return facetCounts.getOrDefault(new FacetCell(category, cityKey, null), 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void onClinicChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) ClinicChangedEvent event) {
+        if (event.getClinicId() == null) {
+            return;
+        }
+
+        loadLock.lock();
+        try {
+            // Not built yet: the initial build will read the committed state
+            if (!built) {
+                return;
+            }
+            ClinicSearchDocument document = event.getType() == ClinicChangedEvent.Type.DELETED
+                    ? null
+                    : loadDocuments(event.getClinicId()).get(event.getClinicId());
+
+            lock.writeLock().lock();
+            try {
+                if (document == null) {
+                    remove(event.getClinicId());
+                } else {
+                    put(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private static int nearestLimit(ClinicQueryDTO filter) {
+        if (filter.getLimit() == null) {
+            return DEFAULT_NEAREST_LIMIT;
+        }
+        return Math.max(1, Math.min(filter.getLimit(), MAX_NEAREST_LIMIT));
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+
+        // A change committed during the build waits for it, then loads again
+        loadLock.lock();
+        try {
+            if (built) {
+                return;
+            }
+            Map<Long, ClinicSearchDocument> loaded = loadDocuments(null);
+            lock.writeLock().lock();
+            try {
+                for (ClinicSearchDocument document : loaded.values()) {
+                    put(document);
+                }
+                built = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // Loads one clinic, or every clinic when clinicId is null, as index documents
+    Map<Long, ClinicSearchDocument> loadDocuments(Long clinicId) {
+        String clinicFilter = clinicId != null ? " WHERE c.id = :clinicId" : "";
+        String childFilter = clinicId != null ? " AND x.clinic.id = :clinicId" : "";
+
+        TypedQuery<Object[]> clinicQuery = em.createQuery(
+                "SELECT c.id, c.addressCity, c.category, c.availableFromDate, c.availableToDate,"
+                        + " c.addressLatitude, c.addressLongitude, c.normalizedCity"
+                        + " FROM ClinicEntity c"
+                        + clinicFilter,
+                Object[].class);
+        TypedQuery<Object[]> equipmentQuery = em.createQuery("SELECT x.clinic.id, x.type"
+                + " FROM ClinicEquipmentEntity x WHERE x.clinic IS NOT NULL" + childFilter,
+                Object[].class);
+        TypedQuery<Object[]> availabilityQuery = em.createQuery(
+                "SELECT x.clinic.id, x.weekDay, x.startTime, x.endTime"
+                        + " FROM ClinicAvailabilityEntity x WHERE x.clinic IS NOT NULL"
+                        + childFilter,
+                Object[].class);
+        if (clinicId != null) {
+            clinicQuery.setParameter("clinicId", clinicId);
+            equipmentQuery.setParameter("clinicId", clinicId);
+            availabilityQuery.setParameter("clinicId", clinicId);
+        }
+
+        Map<Long, ClinicSearchDocument> loaded = new LinkedHashMap<>();
+        for (Object[] row : clinicQuery.getResultList()) {
+            // Rows not yet backfilled have no stored key
+            String city = row[7] != null ? (String) row[7]
+                    : TextNormalizer.normalizeCity((String) row[1]);
+            ClinicSearchDocument document = new ClinicSearchDocument((Long) row[0], city,
+                    cityLabel((String) row[1]), (Clinic.Category) row[2],
+                    toEpochDay((Date) row[3]), toEpochDay((Date) row[4]),
+                    GeoUtils.parseCoordinate((String) row[5], 90),
+                    GeoUtils.parseCoordinate((String) row[6], 180));
+            loaded.put(document.clinicId, document);
+        }
+        for (Object[] row : equipmentQuery.getResultList()) {
+            ClinicSearchDocument document = loaded.get((Long) row[0]);
+            if (document != null && row[1] != null) {
+                document.addEquipmentType((String) row[1]);
+            }
+        }
+        for (Object[] row : availabilityQuery.getResultList()) {
+            ClinicSearchDocument document = loaded.get((Long) row[0]);
+            if (document != null) {
+                document.availabilities.add(new ClinicSearchDocument.Slot(
+                        (ClinicAvailability.WeekDay) row[1], (LocalTime) row[2],
+                        (LocalTime) row[3]));
+            }
+        }
+        return loaded;
+    }
+
+    // Callers must hold the write lock
+    private void put(ClinicSearchDocument document) {
+        Integer ordinal = ordinals.get(document.clinicId);
+        if (ordinal != null) {
+            unindex(ordinal);
+        } else {
+            ordinal = nextOrdinal++;
+            ordinals.put(document.clinicId, ordinal);
+            if (ordinal >= documents.length) {
+                documents = Arrays.copyOf(documents, documents.length * 2);
+            }
+        }
+
+        documents[ordinal] = document;
+        live.set(ordinal);
+        posting(cityPostings, document.city).set(ordinal);
+        if (document.category != null) {
+            categoryPostings.computeIfAbsent(document.category, key -> new BitSet())
+                    .set(ordinal);
+        }
+        for (String type : document.equipmentTypes) {
+            posting(equipmentPostings, type).set(ordinal);
+        }
+        for (ClinicSearchDocument.Slot slot : document.availabilities) {
+            for (int hour = slot.start.getHour(); hour <= slot.end.getHour(); hour++) {
+                int index = slotIndex(slot.weekDay.ordinal(), hour);
+                if (slotPostings[index] == null) {
+                    slotPostings[index] = new BitSet();
+                }
+                slotPostings[index].set(ordinal);
+            }
+        }
+        if (document.hasCoordinates()) {
+            geoGrid.add(ordinal, document.latitude, document.longitude);
+        }
+        if (!document.city.isEmpty()) {
+            cityLabels.put(document.city, document.cityLabel);
+        }
+        updateFacets(document, 1);
+    }
+
+    // Callers must hold the write lock
+    private void remove(Long clinicId) {
+        Integer ordinal = ordinals.remove(clinicId);
+        if (ordinal != null) {
+            unindex(ordinal);
+            documents[ordinal] = null;
+        }
+    }
+
+    private void unindex(int ordinal) {
+        ClinicSearchDocument document = documents[ordinal];
+        live.clear(ordinal);
+        clear(cityPostings, document.city, ordinal);
+        if (document.category != null) {
+            clear(categoryPostings, document.category, ordinal);
+        }
+        for (String type : document.equipmentTypes) {
+            clear(equipmentPostings, type, ordinal);
+        }
+        for (ClinicSearchDocument.Slot slot : document.availabilities) {
+            for (int hour = slot.start.getHour(); hour <= slot.end.getHour(); hour++) {
+                BitSet posting = slotPostings[slotIndex(slot.weekDay.ordinal(), hour)];
+                if (posting != null) {
+                    posting.clear(ordinal);
+                }
+            }
+        }
+        if (document.hasCoordinates()) {
+            geoGrid.remove(ordinal, document.latitude, document.longitude);
+        }
+        updateFacets(document, -1);
+    }
+
+    // Adds or removes the document from every cube cell it falls into
+    private void updateFacets(ClinicSearchDocument document, int delta) {
+        List<Clinic.Category> categories = new ArrayList<>(2);
+        categories.add(null);
+        if (document.category != null) {
+            categories.add(document.category);
+        }
+        List<String> cities = new ArrayList<>(2);
+        cities.add(null);
+        if (!document.city.isEmpty()) {
+            cities.add(document.city);
+        }
+        List<String> equipmentTypes = new ArrayList<>(document.equipmentTypes.size() + 1);
+        equipmentTypes.add(null);
+        equipmentTypes.addAll(document.equipmentTypes);
+
+        for (Clinic.Category category : categories) {
+            for (String city : cities) {
+                for (String equipmentType : equipmentTypes) {
+                    FacetCell cell = new FacetCell(category, city, equipmentType);
+                    int count = facetCounts.getOrDefault(cell, 0) + delta;
+                    if (count > 0) {
+                        facetCounts.put(cell, count);
+                    } else {
+                        facetCounts.remove(cell);
+                    }
+                }
+            }
+        }
+    }
+
+    private static BitSet posting(Map<String, BitSet> postings, String key) {
+        return postings.computeIfAbsent(key, k -> new BitSet());
+    }
+
+    private static <K> void clear(Map<K, BitSet> postings, K key, int ordinal) {
+        BitSet posting = postings.get(key);
+        if (posting != null) {
+            posting.clear(ordinal);
+            if (posting.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static int slotIndex(int weekDay, int hour) {
+        return weekDay * HOURS_PER_DAY + hour;
+    }
+
+    private static long toEpochDay(Date date) {
+        return date.toLocalDate().toEpochDay();
+    }
+
+    private static String normalizeKey(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String cityLabel(String city) {
+        return city != null ? city.trim() : "";
+    }
+
+    static final class FacetCell {
+        final Clinic.Category category;
+        final String city;
+        final String equipmentType;
+
+        FacetCell(Clinic.Category category, String city, String equipmentType) {
+            this.category = category;
+            this.city = city;
+            this.equipmentType = equipmentType;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof FacetCell)) {
+                return false;
+            }
+            FacetCell cell = (FacetCell) other;
+            return category == cell.category && Objects.equals(city, cell.city)
+                    && Objects.equals(equipmentType, cell.equipmentType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, city, equipmentType);
+        }
+    }
+
+    static class ClinicSearchDocument {
+        final Long clinicId;
+        final String city;
+        final String cityLabel;
+        final Clinic.Category category;
+        final long availableFromDay;
+        final long availableToDay;
+        final Double latitude;
+        final Double longitude;
+        final Set<String> equipmentTypes = new HashSet<>();
+        final List<Slot> availabilities = new ArrayList<>();
+
+        ClinicSearchDocument(Long clinicId, String city, String cityLabel,
+                Clinic.Category category, long availableFromDay, long availableToDay,
+                Double latitude, Double longitude) {
+            this.clinicId = clinicId;
+            this.city = city;
+            this.cityLabel = cityLabel;
+            this.category = category;
+            this.availableFromDay = availableFromDay;
+            this.availableToDay = availableToDay;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        // Equipment types match case-insensitively
+        void addEquipmentType(String type) {
+            equipmentTypes.add(normalizeKey(type));
+        }
+
+        boolean hasCoordinates() {
+            return latitude != null && longitude != null;
+        }
+
+        boolean isAvailableOn(long epochDay) {
+            return availableFromDay <= epochDay && epochDay <= availableToDay;
+        }
+
+        boolean isOpenAt(LocalTime time) {
+            for (Slot slot : availabilities) {
+                if (!slot.start.isAfter(time) && !slot.end.isBefore(time)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        static class Slot {
+            final ClinicAvailability.WeekDay weekDay;
+            final LocalTime start;
+            final LocalTime end;
+
+            Slot(ClinicAvailability.WeekDay weekDay, LocalTime start, LocalTime end) {
+                this.weekDay = weekDay;
+                this.start = start;
+                this.end = end;
+            }
+        }
+    }
+
+    // Box to pre-filter with: the explicit bounding box, the circle's box, or both intersected
+    static class GeoBounds {
+        final double minLatitude;
+        final double minLongitude;
+        final double maxLatitude;
+        final double maxLongitude;
+
+        GeoBounds(double minLatitude, double minLongitude, double maxLatitude,
+                double maxLongitude) {
+            this.minLatitude = minLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLatitude = maxLatitude;
+            this.maxLongitude = maxLongitude;
+        }
+
+        static GeoBounds of(ClinicQueryDTO filter) {
+            GeoBounds box = null;
+            if (filter.getMinLatitude() != null) {
+                box = new GeoBounds(filter.getMinLatitude(), filter.getMinLongitude(),
+                        filter.getMaxLatitude(), filter.getMaxLongitude());
+            }
+            if (filter.getLatitude() == null || filter.getRadiusKm() == null) {
+                return box;
+            }
+
+            double latitudeDelta = filter.getRadiusKm() / GeoUtils.KM_PER_DEGREE_LATITUDE;
+            double cosLatitude = Math.cos(Math.toRadians(filter.getLatitude()));
+            double longitudeDelta = cosLatitude > 1e-6
+                    ? filter.getRadiusKm() / (GeoUtils.KM_PER_DEGREE_LATITUDE * cosLatitude)
+                    : 180;
+            GeoBounds circle = new GeoBounds(Math.max(-90, filter.getLatitude() - latitudeDelta),
+                    Math.max(-180, filter.getLongitude() - longitudeDelta),
+                    Math.min(90, filter.getLatitude() + latitudeDelta),
+                    Math.min(180, filter.getLongitude() + longitudeDelta));
+            if (box == null) {
+                return circle;
+            }
+            return new GeoBounds(Math.max(box.minLatitude, circle.minLatitude),
+                    Math.max(box.minLongitude, circle.minLongitude),
+                    Math.min(box.maxLatitude, circle.maxLatitude),
+                    Math.min(box.maxLongitude, circle.maxLongitude));
+        }
+
+        boolean contains(ClinicSearchDocument document) {
+            return document.hasCoordinates() && document.latitude >= minLatitude
+                    && document.latitude <= maxLatitude && document.longitude >= minLongitude
+                    && document.longitude <= maxLongitude;
+        }
+    }
+
+    // Bounded max-heap keeping the k closest clinics seen so far
+    static class NearestClinics {
+        private final int limit;
+        private final PriorityQueue<Hit> heap;
+
+        NearestClinics(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit + 1,
+                    Comparator.comparingDouble((Hit hit) -> hit.distanceKm).reversed());
+        }
+
+        void offer(Long clinicId, double distanceKm) {
+            if (heap.size() < limit) {
+                heap.add(new Hit(clinicId, distanceKm));
+            } else if (distanceKm < heap.peek().distanceKm) {
+                heap.poll();
+                heap.add(new Hit(clinicId, distanceKm));
+            }
+        }
+
+        List<Long> toSortedIds() {
+            List<Hit> hits = new ArrayList<>(heap);
+            hits.sort(Comparator.comparingDouble((Hit hit) -> hit.distanceKm)
+                    .thenComparing(hit -> hit.clinicId));
+            List<Long> clinicIds = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                clinicIds.add(hit.clinicId);
+            }
+            return clinicIds;
+        }
+
+        static class Hit {
+            final Long clinicId;
+            final double distanceKm;
+
+            Hit(Long clinicId, double distanceKm) {
+                this.clinicId = clinicId;
+                this.distanceKm = distanceKm;
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.medspace.infrastructure.search;
+
+import com.medspace.domain.event.ClinicChangedEvent;
+import com.medspace.infrastructure.util.TextNormalizer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory full-text index over the clinic display name and description, scored with BM25.
+ * Text is accent folded and tokenized with {@link TextNormalizer}, so "clinica" matches
+ * "Clínica". Query tokens also match indexed terms that start with or contain them, found
+ * through a trigram index over the vocabulary, which lets the search run on every keystroke.
+ * Like {@link ClinicSearchIndex} it is built on first use and updated after clinic writes commit.
+ */
+@ApplicationScoped
+public class ClinicTextIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Display name terms count as if they appeared this many times
+    private static final int NAME_WEIGHT = 3;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final Set<String> STOP_WORDS = Set.of("a", "al", "con", "de", "del", "el",
+            "en", "la", "las", "lo", "los", "para", "por", "un", "una", "y");
+
+    @Inject
+    EntityManager em;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built = false;
+    // Held from loading a clinic until it is applied, as in ClinicSearchIndex
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    // term -> clinic id -> weighted term frequency
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigramTerms = new HashMap<>();
+    private final Map<Long, Map<String, Integer>> documentTerms = new HashMap<>();
+    private final Map<Long, Integer> documentLengths = new HashMap<>();
+    private long totalLength = 0;
+
+    /**
+     * Scores the clinics matching every term of the query. Returns null when the query has no
+     * searchable terms, meaning it should not filter at all.
+     */
+    public Map<Long, Double> search(String query) {
+        Set<String> queryTerms = new HashSet<>(terms(query));
+        if (queryTerms.isEmpty()) {
+            return null;
+        }
+        ensureBuilt();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            double averageLength = documentLengths.isEmpty() ? 1
+                    : (double) totalLength / documentLengths.size();
+
+            for (String queryTerm : queryTerms) {
+                // Best expansion per clinic, so a term matching several words isn't overcounted
+                Map<Long, Double> termScores = new HashMap<>();
+                for (String term : expand(queryTerm)) {
+                    Map<Long, Integer> posting = postings.get(term);
+                    double weight = (double) queryTerm.length() / term.length();
+                    double idf = Math.log(1 + (documentLengths.size() - posting.size() + 0.5)
+                            / (posting.size() + 0.5));
+                    for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                        int frequency = entry.getValue();
+                        double norm = K1 * (1 - B
+                                + B * documentLengths.get(entry.getKey()) / averageLength);
+                        double score =
+                                weight * idf * frequency * (K1 + 1) / (frequency + norm);
+                        termScores.merge(entry.getKey(), score, Math::max);
+                    }
+                }
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((clinicId, score) -> score + termScores.get(clinicId));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void onClinicChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) ClinicChangedEvent event) {
+        if (event.getClinicId() == null) {
+            return;
+        }
+
+        loadLock.lock();
+        try {
+            // Not built yet: the initial build will read the committed state
+            if (!built) {
+                return;
+            }
+            Map<String, Integer> terms = event.getType() == ClinicChangedEvent.Type.DELETED
+                    ? null
+                    : loadDocuments(event.getClinicId()).get(event.getClinicId());
+
+            lock.writeLock().lock();
+            try {
+                remove(event.getClinicId());
+                if (terms != null) {
+                    put(event.getClinicId(), terms);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // Indexed terms matching a query term exactly, by prefix or, from three letters, by infix.
+    // Past MAX_EXPANSIONS the exact term comes first, then the terms in most clinics, then
+    // alphabetical order, so a query expands the same way on every run.
+    private Set<String> expand(String queryTerm) {
+        Set<String> matches = new HashSet<>(postings
+                .subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).keySet());
+        if (queryTerm.length() >= 3) {
+            Set<String> candidates = null;
+            for (String trigram : trigrams(queryTerm)) {
+                Set<String> terms = trigramTerms.getOrDefault(trigram, Set.of());
+                if (candidates == null) {
+                    candidates = new HashSet<>(terms);
+                } else {
+                    candidates.retainAll(terms);
+                }
+            }
+            for (String term : candidates) {
+                if (term.contains(queryTerm)) {
+                    matches.add(term);
+                }
+            }
+        }
+        if (matches.size() <= MAX_EXPANSIONS) {
+            return matches;
+        }
+
+        List<String> ranked = new ArrayList<>(matches);
+        ranked.sort(Comparator.comparingInt((String term) -> term.equals(queryTerm) ? 0 : 1)
+                .thenComparingInt(term -> -postings.get(term).size())
+                .thenComparing(Comparator.naturalOrder()));
+        return new HashSet<>(ranked.subList(0, MAX_EXPANSIONS));
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+
+        loadLock.lock();
+        try {
+            if (built) {
+                return;
+            }
+            Map<Long, Map<String, Integer>> loaded = loadDocuments(null);
+            lock.writeLock().lock();
+            try {
+                loaded.forEach(this::put);
+                built = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // Loads the weighted terms of one clinic, or of every clinic when clinicId is null
+    Map<Long, Map<String, Integer>> loadDocuments(Long clinicId) {
+        TypedQuery<Object[]> query = em.createQuery(
+                "SELECT c.id, c.displayName, c.description FROM ClinicEntity c"
+                        + (clinicId != null ? " WHERE c.id = :clinicId" : ""),
+                Object[].class);
+        if (clinicId != null) {
+            query.setParameter("clinicId", clinicId);
+        }
+
+        Map<Long, Map<String, Integer>> loaded = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            loaded.put((Long) row[0], documentTerms((String) row[1], (String) row[2]));
+        }
+        return loaded;
+    }
+
+    // Weighted terms of a clinic's display name and description
+    static Map<String, Integer> documentTerms(String displayName, String description) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String term : terms(displayName)) {
+            terms.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : terms(description)) {
+            terms.merge(term, 1, Integer::sum);
+        }
+        return terms;
+    }
+
+    // Callers must hold the write lock
+    private void put(Long clinicId, Map<String, Integer> terms) {
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+            Map<Long, Integer> posting = postings.get(entry.getKey());
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(entry.getKey(), posting);
+                for (String trigram : trigrams(entry.getKey())) {
+                    trigramTerms.computeIfAbsent(trigram, key -> new HashSet<>())
+                            .add(entry.getKey());
+                }
+            }
+            posting.put(clinicId, entry.getValue());
+            length += entry.getValue();
+        }
+        documentTerms.put(clinicId, terms);
+        documentLengths.put(clinicId, length);
+        totalLength += length;
+    }
+
+    // Callers must hold the write lock
+    private void remove(Long clinicId) {
+        Map<String, Integer> terms = documentTerms.remove(clinicId);
+        if (terms == null) {
+            return;
+        }
+        totalLength -= documentLengths.remove(clinicId);
+        for (String term : terms.keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(clinicId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String trigram : trigrams(term)) {
+                    Set<String> trigramPosting = trigramTerms.get(trigram);
+                    trigramPosting.remove(term);
+                    if (trigramPosting.isEmpty()) {
+                        trigramTerms.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> terms(String text) {
+        List<String> terms = TextNormalizer.tokenize(text);
+        terms.removeIf(STOP_WORDS::contains);
+        return terms;
+    }
+
+    private static Set<String> trigrams(String term) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            trigrams.add(term.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,175 @@
+package com.medspace.infrastructure.search;
+
+import com.medspace.domain.event.ExternalClinicsChangedEvent;
+import com.medspace.domain.model.ExternalClinic;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicTileDTO;
+import com.medspace.infrastructure.mapper.ExternalClinicMapper;
+import com.medspace.infrastructure.repository.QueryStreaming;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Clustered map tiles of the external clinics, served from an in-memory {@link TilePyramid}. The
+ * pyramid is built from the database on first use. Upserted or reclassified clinics arrive with
+ * the commit of each chunk and are queued; the next request derives a new pyramid with their
+ * points replaced, without reading the table. Changes that can't be matched to points, or too
+ * many of them, mark the pyramid stale instead, and the next request rebuilds it. Either way
+ * concurrent requests keep reading the previous snapshot.
+ */
+@ApplicationScoped
+public class ExternalClinicTileIndex {
+    // Past this many queued points a rebuild from the table is cheaper than replacing them
+    static final int MAX_PENDING_POINTS = 100_000;
+
+    @Inject
+    EntityManager em;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile TilePyramid pyramid;
+    private volatile boolean stale = true;
+    // Points of committed chunks not yet in the pyramid, guarded by itself
+    private final List<PendingPoint> pending = new ArrayList<>();
+
+    public ExternalClinicTileDTO getTile(int z, int x, int y) {
+        return current().tile(z, x, y);
+    }
+
+    void onExternalClinicsChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) ExternalClinicsChangedEvent event) {
+        synchronized (pending) {
+            if (event.getClinics() == null || stale
+                    || pending.size() + event.getClinics().size() > MAX_PENDING_POINTS) {
+                stale = true;
+                pending.clear();
+                return;
+            }
+            for (ExternalClinic clinic : event.getClinics()) {
+                pending.add(new PendingPoint(key(clinic.getExternalId()), clinic.getLatitud(),
+                        clinic.getLongitud(),
+                        ExternalClinicMapper.specialtyOf(clinic.getSpecialty(),
+                                clinic.getNombre())));
+            }
+        }
+    }
+
+    private TilePyramid current() {
+        TilePyramid snapshot = pyramid;
+        if (!stale && snapshot != null && !hasPending()) {
+            return snapshot;
+        }
+
+        if (snapshot == null) {
+            // Nothing to serve yet: wait for whoever is building it
+            rebuildLock.lock();
+        } else if (!rebuildLock.tryLock()) {
+            return snapshot;
+        }
+        try {
+            // Taken together, so a change committed during the build is either read by it or
+            // left queued for the next request
+            List<PendingPoint> changes;
+            boolean rebuild;
+            synchronized (pending) {
+                rebuild = stale || pyramid == null;
+                stale = false;
+                changes = new ArrayList<>(pending);
+                pending.clear();
+            }
+            try {
+                pyramid = rebuild ? load() : replace(pyramid, changes);
+            } catch (RuntimeException e) {
+                stale = true;
+                throw e;
+            }
+            return pyramid;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean hasPending() {
+        synchronized (pending) {
+            return !pending.isEmpty();
+        }
+    }
+
+    // Streams the projection read-only in a transaction of its own, so only the builder grows
+    // with the number of clinics
+    private TilePyramid load() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            TilePyramid.Builder builder = new TilePyramid.Builder();
+            TypedQuery<Object[]> query = em.createQuery(
+                    "SELECT e.externalId, e.latitud, e.longitud, e.specialty, e.nombre"
+                            + " FROM ExternalClinicEntity e"
+                            + " WHERE e.latitud IS NOT NULL AND e.longitud IS NOT NULL",
+                    Object[].class);
+            try (Stream<Object[]> rows = QueryStreaming.streaming(query).getResultStream()) {
+                rows.forEach(row -> builder.add(key((String) row[0]), (Double) row[1],
+                        (Double) row[2],
+                        ExternalClinicMapper.specialtyOf((String) row[3], (String) row[4])));
+            }
+            return builder.build();
+        });
+    }
+
+    // The pyramid with each changed clinic's previous point, if any, swapped for its latest one
+    static TilePyramid replace(TilePyramid current, List<PendingPoint> changes) {
+        Map<Long, PendingPoint> latest = new LinkedHashMap<>();
+        List<PendingPoint> points = new ArrayList<>();
+        for (PendingPoint point : changes) {
+            if (point.key == TilePyramid.NO_KEY) {
+                points.add(point);
+            } else {
+                latest.put(point.key, point);
+            }
+        }
+        points.addAll(latest.values());
+        TilePyramid.Builder builder = current.toBuilder(latest.keySet());
+        for (PendingPoint point : points) {
+            // Clinics that lost their coordinates are only removed
+            if (point.latitude != null && point.longitude != null) {
+                builder.add(point.key, point.latitude, point.longitude, point.specialty);
+            }
+        }
+        return builder.build();
+    }
+
+    // 64-bit FNV-1a hash of the external id. Clinics without one are inserted as new rows by
+    // every load, so their points are never replaced.
+    static long key(String externalId) {
+        if (externalId == null || externalId.isBlank()) {
+            return TilePyramid.NO_KEY;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < externalId.length(); i++) {
+            hash ^= externalId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash != TilePyramid.NO_KEY ? hash : 1;
+    }
+
+    static class PendingPoint {
+        final long key;
+        final Double latitude;
+        final Double longitude;
+        final String specialty;
+
+        PendingPoint(long key, Double latitude, Double longitude, String specialty) {
+            this.key = key;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.specialty = specialty;
+        }
+    }
+}
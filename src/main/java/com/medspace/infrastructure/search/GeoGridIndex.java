@@ -0,0 +1,82 @@
+package com.medspace.infrastructure.search;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Uniform latitude/longitude grid over index ordinals. Each non-empty cell keeps a bitset of the
+ * ordinals located in it, so a bounding box is answered by OR-ing the cells it overlaps.
+ */
+class GeoGridIndex {
+    private static final double CELL_DEGREES = 0.1; // roughly 11 km at the equator
+    private static final long LONGITUDE_CELLS = Math.round(360 / CELL_DEGREES) + 2;
+
+    private final Map<Long, BitSet> cells = new HashMap<>();
+
+    void add(int ordinal, double latitude, double longitude) {
+        cells.computeIfAbsent(cellKey(latitude, longitude), key -> new BitSet()).set(ordinal);
+    }
+
+    void remove(int ordinal, double latitude, double longitude) {
+        long key = cellKey(latitude, longitude);
+        BitSet cell = cells.get(key);
+        if (cell != null) {
+            cell.clear(ordinal);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    // Ordinals in every cell overlapping the box; callers still check exact coordinates
+    BitSet within(double minLatitude, double minLongitude, double maxLatitude,
+            double maxLongitude) {
+        BitSet result = new BitSet();
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            return result;
+        }
+
+        long minLatCell = latitudeCell(minLatitude);
+        long maxLatCell = latitudeCell(maxLatitude);
+        long minLngCell = longitudeCell(minLongitude);
+        long maxLngCell = longitudeCell(maxLongitude);
+        long boxCells = (maxLatCell - minLatCell + 1) * (maxLngCell - minLngCell + 1);
+
+        if (boxCells > cells.size()) {
+            // Large boxes: walk the occupied cells instead of the box
+            for (Map.Entry<Long, BitSet> entry : cells.entrySet()) {
+                long latCell = Math.floorDiv(entry.getKey(), LONGITUDE_CELLS);
+                long lngCell = Math.floorMod(entry.getKey(), LONGITUDE_CELLS);
+                if (latCell >= minLatCell && latCell <= maxLatCell && lngCell >= minLngCell
+                        && lngCell <= maxLngCell) {
+                    result.or(entry.getValue());
+                }
+            }
+            return result;
+        }
+
+        for (long latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (long lngCell = minLngCell; lngCell <= maxLngCell; lngCell++) {
+                BitSet cell = cells.get(latCell * LONGITUDE_CELLS + lngCell);
+                if (cell != null) {
+                    result.or(cell);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return latitudeCell(latitude) * LONGITUDE_CELLS + longitudeCell(longitude);
+    }
+
+    private static long latitudeCell(double latitude) {
+        return (long) Math.floor(latitude / CELL_DEGREES);
+    }
+
+    // Shifted so longitude cells are never negative
+    private static long longitudeCell(double longitude) {
+        return (long) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+}
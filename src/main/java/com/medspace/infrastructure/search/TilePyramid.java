@@ -0,0 +1,385 @@
+package com.medspace.infrastructure.search;
+
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicTileCellDTO;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicTileDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable multi-resolution grid over map points. Every point gets a web mercator Morton code at
+ * the deepest level and the points are sorted by it, so the points of any tile form one contiguous
+ * run and the code of a coarser cell is a prefix of its points' codes. Cell counts, centroids and
+ * specialty breakdowns are precomputed for the shallow levels, where a tile covers many points;
+ * deeper tiles are aggregated from their run of points on demand.
+ *
+ * <p>
+ * A tile (z, x, y) is split into {@value #TILE_CELLS}×{@value #TILE_CELLS} cells, which are the
+ * cells of grid level z + {@value #CELL_BITS}.
+ *
+ * <p>
+ * Points may carry a key, so a new pyramid can be derived with some points replaced through
+ * {@link #toBuilder(Set)} instead of collecting every point again.
+ */
+class TilePyramid {
+    static final int MAX_LEVEL = 21;
+    static final int CELL_BITS = 3;
+    static final int TILE_CELLS = 1 << CELL_BITS;
+    static final int MAX_TILE_ZOOM = MAX_LEVEL - CELL_BITS;
+    // Levels up to here are kept aggregated; a tile one level deeper covers few enough points
+    static final int PYRAMID_MAX_LEVEL = 12;
+    // Key of points that can't be replaced
+    static final long NO_KEY = 0;
+    private static final double MAX_MERCATOR_LATITUDE = 85.05112878;
+    private static final long GRID_SIZE = 1L << MAX_LEVEL;
+
+    private final long[] codes;
+    private final long[] keys;
+    private final float[] latitudes;
+    private final float[] longitudes;
+    private final short[] specialties;
+    private final String[] specialtyNames;
+    private final Level[] levels = new Level[PYRAMID_MAX_LEVEL + 1];
+
+    private TilePyramid(long[] codes, long[] keys, float[] latitudes, float[] longitudes,
+            short[] specialties, String[] specialtyNames) {
+        this.codes = codes;
+        this.keys = keys;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.specialties = specialties;
+        this.specialtyNames = specialtyNames;
+        for (int level = 0; level <= PYRAMID_MAX_LEVEL; level++) {
+            levels[level] = aggregate(0, codes.length, level);
+        }
+    }
+
+    int size() {
+        return codes.length;
+    }
+
+    // Builder holding every point except those with the given keys, so they can be added again
+    Builder toBuilder(Set<Long> replacedKeys) {
+        Builder builder = new Builder(Math.max(codes.length, 1));
+        for (String specialty : specialtyNames) {
+            builder.specialtyId(specialty);
+        }
+        for (int i = 0; i < codes.length; i++) {
+            if (keys[i] == NO_KEY || !replacedKeys.contains(keys[i])) {
+                builder.add(codes[i], keys[i], latitudes[i], longitudes[i], specialties[i]);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Cells of one slippy map tile with their clinic counts, centroids and per specialty counts.
+     * Empty cells are left out.
+     *
+     * @throws IllegalArgumentException when the tile does not exist at that zoom
+     */
+    ExternalClinicTileDTO tile(int z, int x, int y) {
+        if (z < 0 || z > MAX_TILE_ZOOM) {
+            throw new IllegalArgumentException(
+                    "Zoom must be between 0 and " + MAX_TILE_ZOOM + ": " + z);
+        }
+        long tiles = 1L << z;
+        if (x < 0 || x >= tiles || y < 0 || y >= tiles) {
+            throw new IllegalArgumentException(
+                    "Tile " + x + "/" + y + " does not exist at zoom " + z);
+        }
+
+        int cellLevel = z + CELL_BITS;
+        long tileCode = interleave(x, y);
+        Level level;
+        int from;
+        int to;
+        if (cellLevel <= PYRAMID_MAX_LEVEL) {
+            level = levels[cellLevel];
+            int shift = 2 * CELL_BITS;
+            from = lowerBound(level.cellCodes, level.size, tileCode << shift);
+            to = lowerBound(level.cellCodes, level.size, (tileCode + 1) << shift);
+        } else {
+            int shift = 2 * (MAX_LEVEL - z);
+            level = aggregate(lowerBound(codes, codes.length, tileCode << shift),
+                    lowerBound(codes, codes.length, (tileCode + 1) << shift), cellLevel);
+            from = 0;
+            to = level.size;
+        }
+
+        List<ExternalClinicTileCellDTO> cells = new ArrayList<>(to - from);
+        long total = 0;
+        for (int cell = from; cell < to; cell++) {
+            int count = level.counts[cell];
+            Map<String, Integer> breakdown = new LinkedHashMap<>();
+            for (int entry = level.specialtyStart[cell]; entry < level.specialtyStart[cell + 1];
+                    entry++) {
+                breakdown.put(specialtyNames[level.specialtyIds[entry]],
+                        level.specialtyCounts[entry]);
+            }
+            cells.add(new ExternalClinicTileCellDTO(level.latitudeSums[cell] / count,
+                    level.longitudeSums[cell] / count, count, breakdown));
+            total += count;
+        }
+        return new ExternalClinicTileDTO(z, x, y, total, cells);
+    }
+
+    // Groups the sorted points in [from, to) by their cell at the given level
+    private Level aggregate(int from, int to, int level) {
+        int shift = 2 * (MAX_LEVEL - level);
+        Level result = new Level(Math.min(to - from, 1 << Math.min(2 * level, 20)));
+        int[] specialtyCounts = new int[specialtyNames.length];
+        short[] seen = new short[specialtyNames.length];
+
+        int start = from;
+        while (start < to) {
+            long cellCode = codes[start] >>> shift;
+            int end = start;
+            double latitudeSum = 0;
+            double longitudeSum = 0;
+            int distinct = 0;
+            while (end < to && codes[end] >>> shift == cellCode) {
+                latitudeSum += latitudes[end];
+                longitudeSum += longitudes[end];
+                short specialty = specialties[end];
+                if (specialtyCounts[specialty]++ == 0) {
+                    seen[distinct++] = specialty;
+                }
+                end++;
+            }
+            // Largest specialty first, so clients can label a cluster by its first entry
+            short[] order = Arrays.copyOf(seen, distinct);
+            sortByCountDescending(order, specialtyCounts);
+            result.add(cellCode, end - start, latitudeSum, longitudeSum, order, specialtyCounts);
+            for (int i = 0; i < distinct; i++) {
+                specialtyCounts[seen[i]] = 0;
+            }
+            start = end;
+        }
+        return result;
+    }
+
+    private static void sortByCountDescending(short[] ids, int[] counts) {
+        for (int i = 1; i < ids.length; i++) {
+            short id = ids[i];
+            int j = i - 1;
+            while (j >= 0 && (counts[ids[j]] < counts[id]
+                    || counts[ids[j]] == counts[id] && ids[j] > id)) {
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            ids[j + 1] = id;
+        }
+    }
+
+    // First index in the sorted prefix whose value is >= key
+    private static int lowerBound(long[] sorted, int size, long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Morton code of a deepest level grid position, x on the even bits and y on the odd ones
+    static long code(double latitude, double longitude) {
+        double clampedLatitude =
+                Math.max(-MAX_MERCATOR_LATITUDE, Math.min(MAX_MERCATOR_LATITUDE, latitude));
+        double sin = Math.sin(Math.toRadians(clampedLatitude));
+        double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        double x = (longitude + 180) / 360;
+        return interleave(gridPosition(x), gridPosition(y));
+    }
+
+    private static long gridPosition(double fraction) {
+        return Math.max(0, Math.min(GRID_SIZE - 1, (long) Math.floor(fraction * GRID_SIZE)));
+    }
+
+    static long interleave(long x, long y) {
+        return spread(x) | spread(y) << 1;
+    }
+
+    // Moves bit i of the value to bit 2i
+    private static long spread(long value) {
+        long v = value & 0x1FFFFFL;
+        v = (v | v << 16) & 0x0000FFFF0000FFFFL;
+        v = (v | v << 8) & 0x00FF00FF00FF00FFL;
+        v = (v | v << 4) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | v << 2) & 0x3333333333333333L;
+        v = (v | v << 1) & 0x5555555555555555L;
+        return v;
+    }
+
+    // Aggregated cells of one level, sorted by cell code, with the specialty counts of cell i in
+    // specialtyIds/specialtyCounts[specialtyStart[i], specialtyStart[i + 1])
+    private static class Level {
+        long[] cellCodes;
+        int[] counts;
+        double[] latitudeSums;
+        double[] longitudeSums;
+        int[] specialtyStart;
+        short[] specialtyIds = new short[16];
+        int[] specialtyCounts = new int[16];
+        int size = 0;
+
+        Level(int capacity) {
+            int initial = Math.max(capacity, 1);
+            cellCodes = new long[initial];
+            counts = new int[initial];
+            latitudeSums = new double[initial];
+            longitudeSums = new double[initial];
+            specialtyStart = new int[initial + 1];
+        }
+
+        void add(long cellCode, int count, double latitudeSum, double longitudeSum,
+                short[] ids, int[] countsById) {
+            if (size == cellCodes.length) {
+                int capacity = size * 2;
+                cellCodes = Arrays.copyOf(cellCodes, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                latitudeSums = Arrays.copyOf(latitudeSums, capacity);
+                longitudeSums = Arrays.copyOf(longitudeSums, capacity);
+                specialtyStart = Arrays.copyOf(specialtyStart, capacity + 1);
+            }
+            int entries = specialtyStart[size];
+            if (entries + ids.length > specialtyIds.length) {
+                int capacity = Math.max(specialtyIds.length * 2, entries + ids.length);
+                specialtyIds = Arrays.copyOf(specialtyIds, capacity);
+                specialtyCounts = Arrays.copyOf(specialtyCounts, capacity);
+            }
+            for (short id : ids) {
+                specialtyIds[entries] = id;
+                specialtyCounts[entries] = countsById[id];
+                entries++;
+            }
+            cellCodes[size] = cellCode;
+            counts[size] = count;
+            latitudeSums[size] = latitudeSum;
+            longitudeSums[size] = longitudeSum;
+            size++;
+            specialtyStart[size] = entries;
+        }
+    }
+
+    // Collects points in any order; build() sorts them into a pyramid
+    static class Builder {
+        private static final int INDEX_BITS = 64 - 2 * MAX_LEVEL - 1;
+
+        private final Map<String, Short> specialtyIds = new HashMap<>();
+        private final List<String> specialtyNames = new ArrayList<>();
+        private long[] codes;
+        private long[] keys;
+        private float[] latitudes;
+        private float[] longitudes;
+        private short[] specialties;
+        private int size = 0;
+
+        Builder() {
+            this(1024);
+        }
+
+        private Builder(int capacity) {
+            codes = new long[capacity];
+            keys = new long[capacity];
+            latitudes = new float[capacity];
+            longitudes = new float[capacity];
+            specialties = new short[capacity];
+        }
+
+        Builder add(double latitude, double longitude, String specialty) {
+            return add(NO_KEY, latitude, longitude, specialty);
+        }
+
+        // Null specialties are counted under the empty string
+        Builder add(long key, double latitude, double longitude, String specialty) {
+            add(code(latitude, longitude), key, (float) latitude, (float) longitude,
+                    specialtyId(specialty != null ? specialty : ""));
+            return this;
+        }
+
+        private void add(long code, long key, float latitude, float longitude, short specialty) {
+            if (size == codes.length) {
+                int capacity = size * 2;
+                codes = Arrays.copyOf(codes, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                specialties = Arrays.copyOf(specialties, capacity);
+            }
+            codes[size] = code;
+            keys[size] = key;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            specialties[size] = specialty;
+            size++;
+        }
+
+        private short specialtyId(String specialty) {
+            Short id = specialtyIds.get(specialty);
+            if (id == null) {
+                if (specialtyNames.size() > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct specialties");
+                }
+                id = (short) specialtyNames.size();
+                specialtyIds.put(specialty, id);
+                specialtyNames.add(specialty);
+            }
+            return id;
+        }
+
+        TilePyramid build() {
+            int[] order = sortedOrder();
+            long[] sortedCodes = new long[size];
+            long[] sortedKeys = new long[size];
+            float[] sortedLatitudes = new float[size];
+            float[] sortedLongitudes = new float[size];
+            short[] sortedSpecialties = new short[size];
+            for (int i = 0; i < size; i++) {
+                int point = order[i];
+                sortedCodes[i] = codes[point];
+                sortedKeys[i] = keys[point];
+                sortedLatitudes[i] = latitudes[point];
+                sortedLongitudes[i] = longitudes[point];
+                sortedSpecialties[i] = specialties[point];
+            }
+            return new TilePyramid(sortedCodes, sortedKeys, sortedLatitudes, sortedLongitudes,
+                    sortedSpecialties, specialtyNames.toArray(new String[0]));
+        }
+
+        // Point indexes in code order. Codes take 42 bits, so up to 2^21 points the index is
+        // packed under the code and a primitive sort does the work without boxing.
+        private int[] sortedOrder() {
+            int[] order = new int[size];
+            if (size <= 1 << INDEX_BITS) {
+                long[] packed = new long[size];
+                for (int i = 0; i < size; i++) {
+                    packed[i] = codes[i] << INDEX_BITS | i;
+                }
+                Arrays.sort(packed);
+                for (int i = 0; i < size; i++) {
+                    order[i] = (int) (packed[i] & (1L << INDEX_BITS) - 1);
+                }
+                return order;
+            }
+            Integer[] boxed = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                boxed[i] = i;
+            }
+            Arrays.sort(boxed, (a, b) -> Long.compare(codes[a], codes[b]));
+            for (int i = 0; i < size; i++) {
+                order[i] = boxed[i];
+            }
+            return order;
+        }
+    }
+}
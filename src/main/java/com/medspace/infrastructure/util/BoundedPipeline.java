@@ -0,0 +1,245 @@
+package com.medspace.infrastructure.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * A chain of stages, each on its own virtual thread, joined by bounded queues. A fast stage
+ * blocks once its output queue is full, so the records in memory are capped by the queue sizes
+ * and the last stage's chunk however many records flow through. Each stage reports how many
+ * records it handled, how long it was busy and how long it waited on its neighbours.
+ *
+ * <pre>
+ * List&lt;StageStats&gt; stats = BoundedPipeline.from("parse", 1000, client::fetch)
+ *         .map("map", Mapper::toDomain)
+ *         .into("save", 500, repository::saveAll);
+ * </pre>
+ */
+public class BoundedPipeline<T> {
+    private static final Object END = new Object();
+    private static final int STOP_TIMEOUT_SECONDS = 30;
+
+    private final int queueCapacity;
+    private final List<Stage> stages;
+
+    private BoundedPipeline(int queueCapacity, List<Stage> stages) {
+        this.queueCapacity = queueCapacity;
+        this.stages = stages;
+    }
+
+    // The source hands each record to the consumer it is given, then returns
+    public static <T> BoundedPipeline<T> from(String name, int queueCapacity,
+            Consumer<Consumer<T>> source) {
+        List<Stage> stages = new ArrayList<>();
+        stages.add(new Stage(name) {
+            @Override
+            void run(BlockingQueue<Object> input, BlockingQueue<Object> output)
+                    throws InterruptedException {
+                try {
+                    source.accept(record -> {
+                        stats.records++;
+                        try {
+                            put(output, record);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new PipelineInterruptedException();
+                        }
+                    });
+                } catch (PipelineInterruptedException e) {
+                    throw new InterruptedException();
+                }
+                put(output, END);
+            }
+        });
+        return new BoundedPipeline<>(queueCapacity, stages);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R> BoundedPipeline<R> map(String name, Function<T, R> function) {
+        List<Stage> next = new ArrayList<>(stages);
+        next.add(new Stage(name) {
+            @Override
+            void run(BlockingQueue<Object> input, BlockingQueue<Object> output)
+                    throws InterruptedException {
+                for (Object record = take(input); record != END; record = take(input)) {
+                    stats.records++;
+                    put(output, function.apply((T) record));
+                }
+                put(output, END);
+            }
+        });
+        return new BoundedPipeline<>(queueCapacity, next);
+    }
+
+    /**
+     * Ends the pipeline in a sink that takes records in lists of up to chunkSize, then runs every
+     * stage and waits for them. The first failure stops all stages and is rethrown.
+     */
+    @SuppressWarnings("unchecked")
+    public List<StageStats> into(String name, int chunkSize, Consumer<List<T>> sink) {
+        List<Stage> all = new ArrayList<>(stages);
+        all.add(new Stage(name) {
+            @Override
+            void run(BlockingQueue<Object> input, BlockingQueue<Object> output)
+                    throws InterruptedException {
+                // A new list per chunk: the sink may keep the one it was given
+                List<T> chunk = new ArrayList<>(chunkSize);
+                for (Object record = take(input); record != END; record = take(input)) {
+                    stats.records++;
+                    chunk.add((T) record);
+                    if (chunk.size() == chunkSize) {
+                        sink.accept(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    sink.accept(chunk);
+                }
+            }
+        });
+        return run(all);
+    }
+
+    private List<StageStats> run(List<Stage> all) {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        BlockingQueue<Object> input = null;
+        for (Stage stage : all) {
+            BlockingQueue<Object> output = new ArrayBlockingQueue<>(queueCapacity);
+            BlockingQueue<Object> stageInput = input;
+            executor.execute(() -> {
+                long started = System.nanoTime();
+                try {
+                    stage.run(stageInput, output);
+                } catch (InterruptedException e) {
+                    // Stopped because another stage failed
+                } catch (Throwable e) {
+                    if (failure.compareAndSet(null, e)) {
+                        executor.shutdownNow();
+                    }
+                } finally {
+                    stage.stats.elapsedNanos = System.nanoTime() - started;
+                }
+            });
+            input = output;
+        }
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Long loads simply keep waiting
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            awaitStopped(executor);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the pipeline", e);
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return all.stream().map(stage -> stage.stats).toList();
+    }
+
+    // Stages stop at their next queue operation; wait for them so none outlives the caller
+    private static void awaitStopped(ExecutorService executor) {
+        try {
+            executor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // Interrupted twice: give up waiting
+        }
+    }
+
+    private abstract static class Stage {
+        final StageStats stats;
+
+        Stage(String name) {
+            this.stats = new StageStats(name);
+        }
+
+        abstract void run(BlockingQueue<Object> input, BlockingQueue<Object> output)
+                throws InterruptedException;
+
+        Object take(BlockingQueue<Object> queue) throws InterruptedException {
+            long started = System.nanoTime();
+            Object record = queue.take();
+            stats.waitingNanos += System.nanoTime() - started;
+            return record;
+        }
+
+        void put(BlockingQueue<Object> queue, Object record) throws InterruptedException {
+            long started = System.nanoTime();
+            queue.put(record);
+            stats.waitingNanos += System.nanoTime() - started;
+        }
+    }
+
+    // Carries an interrupt out of the source's consumer, which can't throw checked exceptions
+    private static class PipelineInterruptedException extends RuntimeException {
+        PipelineInterruptedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Written by the stage's own thread only, and read after the pipeline has finished
+    public static class StageStats {
+        @Getter
+        private final String stage;
+        @Getter
+        private long records;
+        private long elapsedNanos;
+        private long waitingNanos;
+
+        StageStats(String stage) {
+            this.stage = stage;
+        }
+
+        // Totals per stage name over several runs, in the order the names first appear
+        public static List<StageStats> sum(List<StageStats> stats) {
+            Map<String, StageStats> totals = new LinkedHashMap<>();
+            for (StageStats run : stats) {
+                StageStats total = totals.computeIfAbsent(run.stage, StageStats::new);
+                total.records += run.records;
+                total.elapsedNanos += run.elapsedNanos;
+                total.waitingNanos += run.waitingNanos;
+            }
+            return new ArrayList<>(totals.values());
+        }
+
+        public double getBusySeconds() {
+            return Math.max(0, elapsedNanos - waitingNanos) / 1e9;
+        }
+
+        public double getWaitingSeconds() {
+            return waitingNanos / 1e9;
+        }
+
+        // Records per second of work, excluding time spent waiting on the other stages
+        public double getRecordsPerSecond() {
+            double busy = getBusySeconds();
+            return busy > 0 ? records / busy : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d records, %.1fs busy, %.1fs waiting, %.0f records/s",
+                    stage, records, getBusySeconds(), getWaitingSeconds(),
+                    getRecordsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.medspace.infrastructure.util;
+
+public class GeoUtils {
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    // Great-circle distance between two points, in kilometers
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(lat1))
+                * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // Parses a coordinate stored as text, returning null when it is missing or out of range
+    public static Double parseCoordinate(String value, double maxAbs) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            double coordinate = Double.parseDouble(value.trim());
+            return Math.abs(coordinate) <= maxAbs ? coordinate : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static boolean isValidLatitude(double latitude) {
+        return latitude >= -90 && latitude <= 90;
+    }
+
+    public static boolean isValidLongitude(double longitude) {
+        return longitude >= -180 && longitude <= 180;
+    }
+}
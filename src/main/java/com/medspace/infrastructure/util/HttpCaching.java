@@ -0,0 +1,76 @@
+package com.medspace.infrastructure.util;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+public class HttpCaching {
+    // Reference data may be served stale for a day while the client revalidates in background
+    public static final int REFERENCE_MAX_AGE_SECONDS = 300;
+    public static final int REFERENCE_STALE_SECONDS = 86400;
+
+    // Per-user data: always revalidate, never stored by shared caches
+    public static CacheControl revalidate() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        cacheControl.setNoTransform(false);
+        return cacheControl;
+    }
+
+    // Live status that is stale as soon as it is sent, such as job progress
+    public static CacheControl noStore() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoStore(true);
+        cacheControl.setNoTransform(false);
+        return cacheControl;
+    }
+
+    public static CacheControl reference() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setMaxAge(REFERENCE_MAX_AGE_SECONDS);
+        cacheControl.setNoTransform(false);
+        cacheControl.getCacheExtension().put("stale-while-revalidate",
+                String.valueOf(REFERENCE_STALE_SECONDS));
+        return cacheControl;
+    }
+
+    public static EntityTag entityTag(String value) {
+        return new EntityTag(value);
+    }
+
+    /**
+     * Evaluates If-None-Match / If-Modified-Since against the current validators, returning a
+     * complete 304 response when the client copy is still valid and null otherwise.
+     */
+    public static Response notModified(Request request, EntityTag tag, Instant lastModified,
+            CacheControl cacheControl) {
+        Date date = httpDate(lastModified);
+        Response.ResponseBuilder builder = date != null
+                ? request.evaluatePreconditions(date, tag)
+                : request.evaluatePreconditions(tag);
+        if (builder == null) {
+            return null;
+        }
+        return withValidators(builder, tag, lastModified, cacheControl).build();
+    }
+
+    public static Response.ResponseBuilder withValidators(Response.ResponseBuilder builder,
+            EntityTag tag, Instant lastModified, CacheControl cacheControl) {
+        builder.tag(tag).cacheControl(cacheControl);
+        Date date = httpDate(lastModified);
+        if (date != null) {
+            builder.lastModified(date);
+        }
+        return builder;
+    }
+
+    // HTTP dates have second precision; comparing milliseconds would never match
+    private static Date httpDate(Instant instant) {
+        return instant != null ? Date.from(instant.truncatedTo(ChronoUnit.SECONDS)) : null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.medspace.infrastructure.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes the ResponseDTO envelope around rows as they are produced, so a list response never has
+ * to be held in memory. The producer runs while the body is written, inside whatever transaction
+ * it opens itself; a failure past the first row can only truncate the body, since the status has
+ * already been sent.
+ */
+public class JsonStreaming {
+
+    // {"success":true,"message":...,"data":[...]}
+    public static <T> StreamingOutput list(ObjectMapper mapper, String message,
+            Consumer<Consumer<T>> producer) {
+        return output -> {
+            JsonGenerator generator = start(mapper, output, message);
+            writeRows(generator, producer);
+            generator.writeEndObject();
+            generator.flush();
+        };
+    }
+
+    // {"success":true,"message":...,"data":{"data":[...],"totalRecords":n}}
+    public static <T> StreamingOutput countedList(ObjectMapper mapper, String message,
+            Consumer<Consumer<T>> producer) {
+        return output -> {
+            JsonGenerator generator = start(mapper, output, message);
+            generator.writeStartObject();
+            generator.writeFieldName("data");
+            long count = writeRows(generator, producer);
+            generator.writeNumberField("totalRecords", count);
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.flush();
+        };
+    }
+
+    private static JsonGenerator start(ObjectMapper mapper, OutputStream output,
+            String message) throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeBooleanField("success", true);
+        generator.writeStringField("message", message);
+        generator.writeFieldName("data");
+        return generator;
+    }
+
+    private static <T> long writeRows(JsonGenerator generator, Consumer<Consumer<T>> producer)
+            throws IOException {
+        long[] count = {0};
+        generator.writeStartArray();
+        try {
+            producer.accept(row -> {
+                try {
+                    generator.writeObject(row);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndArray();
+        return count[0];
+    }
+}
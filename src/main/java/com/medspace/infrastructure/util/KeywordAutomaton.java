@@ -0,0 +1,166 @@
+package com.medspace.infrastructure.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Aho-Corasick matcher for a fixed set of keywords, finding every whole-word occurrence in one
+ * pass over the text. Keywords and text are compared after
+ * {@link TextNormalizer#normalizeWords}: accent-folded, lowercased, with any run of characters
+ * other than letters and digits read as one space. The automaton is compiled into a dense
+ * transition table, so each character costs one array lookup.
+ */
+public class KeywordAutomaton {
+    private static final int ROOT = 0;
+    private static final int ASCII = 128;
+
+    // Symbol 0 stands for every character that appears in no keyword
+    private final int[] asciiSymbols;
+    private final Map<Character, Integer> otherSymbols;
+    private final int[][] transitions;
+    // Keywords ending in each state, including those reached through failure links
+    private final int[][] outputs;
+    private final int[] keywordLengths;
+
+    private KeywordAutomaton(int[] asciiSymbols, Map<Character, Integer> otherSymbols,
+            int[][] transitions, int[][] outputs, int[] keywordLengths) {
+        this.asciiSymbols = asciiSymbols;
+        this.otherSymbols = otherSymbols;
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.keywordLengths = keywordLengths;
+    }
+
+    // Matches report keywords by their index in this list
+    public static KeywordAutomaton compile(List<String> keywords) {
+        int[] asciiSymbols = new int[ASCII];
+        Map<Character, Integer> otherSymbols = new HashMap<>();
+        int symbolCount = 1;
+        List<String> normalized = new ArrayList<>(keywords.size());
+        for (String keyword : keywords) {
+            String key = TextNormalizer.normalizeWords(keyword);
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("Keyword has no letters or digits: " + keyword);
+            }
+            normalized.add(key);
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (c < ASCII && asciiSymbols[c] == 0) {
+                    asciiSymbols[c] = symbolCount++;
+                } else if (c >= ASCII && !otherSymbols.containsKey(c)) {
+                    otherSymbols.put(c, symbolCount++);
+                }
+            }
+        }
+
+        // Trie of the keywords, one row of child states per state
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(new int[symbolCount]);
+        ends.add(new ArrayList<>());
+        int[] keywordLengths = new int[normalized.size()];
+        for (int keyword = 0; keyword < normalized.size(); keyword++) {
+            String key = normalized.get(keyword);
+            keywordLengths[keyword] = key.length();
+            int state = ROOT;
+            for (int i = 0; i < key.length(); i++) {
+                int symbol = symbolOf(asciiSymbols, otherSymbols, key.charAt(i));
+                if (children.get(state)[symbol] == 0) {
+                    children.get(state)[symbol] = children.size();
+                    children.add(new int[symbolCount]);
+                    ends.add(new ArrayList<>());
+                }
+                state = children.get(state)[symbol];
+            }
+            ends.get(state).add(keyword);
+        }
+
+        // Breadth first, so a state's failure link is complete before its children need it.
+        // Missing children become the failure state's transition, which turns the trie into a
+        // DFA that never backtracks.
+        int[][] transitions = children.toArray(new int[0][]);
+        int[][] outputs = new int[transitions.length][];
+        int[] failure = new int[transitions.length];
+        outputs[ROOT] = new int[0];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 1; symbol < symbolCount; symbol++) {
+            int child = transitions[ROOT][symbol];
+            if (child != 0) {
+                failure[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = concat(ends.get(state), outputs[failure[state]]);
+            for (int symbol = 1; symbol < symbolCount; symbol++) {
+                int child = transitions[state][symbol];
+                if (child != 0) {
+                    failure[child] = transitions[failure[state]][symbol];
+                    queue.add(child);
+                } else {
+                    transitions[state][symbol] = transitions[failure[state]][symbol];
+                }
+            }
+        }
+        return new KeywordAutomaton(asciiSymbols, otherSymbols, transitions, outputs,
+                keywordLengths);
+    }
+
+    // Every keyword occurring in the normalized text as whole words, in order of where they end
+    // and, for the same end, longest first
+    public List<Match> findAll(String normalizedText) {
+        List<Match> matches = new ArrayList<>();
+        int state = ROOT;
+        int length = normalizedText.length();
+        for (int i = 0; i < length; i++) {
+            int symbol = symbolOf(asciiSymbols, otherSymbols, normalizedText.charAt(i));
+            state = symbol == 0 ? ROOT : transitions[state][symbol];
+            int end = i + 1;
+            if (outputs[state].length == 0 || (end < length && normalizedText.charAt(end) != ' ')) {
+                continue;
+            }
+            for (int keyword : outputs[state]) {
+                int start = end - keywordLengths[keyword];
+                if (start == 0 || normalizedText.charAt(start - 1) == ' ') {
+                    matches.add(new Match(keyword, start, end));
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static int symbolOf(int[] asciiSymbols, Map<Character, Integer> otherSymbols,
+            char c) {
+        return c < ASCII ? asciiSymbols[c] : otherSymbols.getOrDefault(c, 0);
+    }
+
+    private static int[] concat(List<Integer> own, int[] inherited) {
+        int[] all = Arrays.copyOf(inherited, own.size() + inherited.length);
+        System.arraycopy(inherited, 0, all, own.size(), inherited.length);
+        for (int i = 0; i < own.size(); i++) {
+            all[i] = own.get(i);
+        }
+        return all;
+    }
+
+    // A keyword occurrence: the keyword's index and its [start, end) in the normalized text
+    @Getter
+    @AllArgsConstructor
+    public static class Match {
+        private final int keyword;
+        private final int start;
+        private final int end;
+
+        public int getLength() {
+            return end - start;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.medspace.infrastructure.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through read-only memory mappings of consecutive windows, so a multi-gigabyte dump
+ * is paged in by the OS as it is read instead of being copied through a heap buffer. Each window
+ * is released to the garbage collector once the stream moves past it.
+ */
+public class MappedFileInputStream extends InputStream {
+    private static final long WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private long windowStart = 0;
+    private MappedByteBuffer window;
+
+    public MappedFileInputStream(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    @Override
+    public int read() throws IOException {
+        return nextWindow() ? window.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextWindow()) {
+            return -1;
+        }
+        int count = Math.min(length, window.remaining());
+        window.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return window != null ? window.remaining() : 0;
+    }
+
+    // Maps the next window once the current one is used up; false at the end of the file
+    private boolean nextWindow() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        if (window != null) {
+            windowStart += window.capacity();
+            window = null;
+        }
+        if (windowStart >= size) {
+            return false;
+        }
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                Math.min(WINDOW_BYTES, size - windowStart));
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
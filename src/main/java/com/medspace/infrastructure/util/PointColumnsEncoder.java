@@ -0,0 +1,202 @@
+package com.medspace.infrastructure.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Columnar binary encoding of map points for the dashboards. Rows are appended straight from a
+ * projection into primitive arrays, and string columns are dictionary-encoded, so a row costs
+ * 8 bytes plus 2 bytes per column. All numbers are little-endian:
+ *
+ * <pre>
+ * "MSPT" u8 version u8 columnCount u16 0 u32 rowCount
+ * per column: u16 nameLength, name, u16 dictionarySize, per entry: u16 length, UTF-8 bytes
+ * zero padding to a multiple of 4
+ * f32[rowCount] latitude, f32[rowCount] longitude
+ * per column: u16[rowCount] dictionary codes
+ * </pre>
+ *
+ * The float arrays are 4-byte aligned, so a browser can view them as Float32Arrays in place.
+ */
+public class PointColumnsEncoder {
+    public static final String MEDIA_TYPE = "application/x-medspace-points";
+
+    private static final byte[] MAGIC = {'M', 'S', 'P', 'T'};
+    private static final byte VERSION = 1;
+    private static final int MAX_DICTIONARY_SIZE = 0xFFFF;
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final String[] columnNames;
+    private final List<Map<String, Integer>> codesByValue = new ArrayList<>();
+    private final List<List<String>> dictionaries = new ArrayList<>();
+
+    private float[] latitudes = new float[1024];
+    private float[] longitudes = new float[1024];
+    private final short[][] codes;
+    private int rows = 0;
+    private int nextColumn = 0;
+
+    public PointColumnsEncoder(String... columnNames) {
+        this.columnNames = columnNames;
+        this.codes = new short[columnNames.length][1024];
+        for (int column = 0; column < columnNames.length; column++) {
+            codesByValue.add(new HashMap<>());
+            dictionaries.add(new ArrayList<>());
+        }
+    }
+
+    // True when an Accept header asks for this encoding rather than JSON
+    public static boolean isAccepted(String acceptHeader) {
+        return acceptHeader != null && acceptHeader.contains(MEDIA_TYPE);
+    }
+
+    // Starts a row; follow with one value(...) call per column, in column order
+    public PointColumnsEncoder point(double latitude, double longitude) {
+        if (nextColumn != 0 && nextColumn != columnNames.length) {
+            throw new IllegalStateException("Previous row is missing column values");
+        }
+        if (rows == latitudes.length) {
+            int capacity = rows * 2;
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            for (int column = 0; column < codes.length; column++) {
+                codes[column] = Arrays.copyOf(codes[column], capacity);
+            }
+        }
+        latitudes[rows] = (float) latitude;
+        longitudes[rows] = (float) longitude;
+        rows++;
+        nextColumn = 0;
+        return this;
+    }
+
+    // Nulls are stored as the empty string
+    public PointColumnsEncoder value(String value) {
+        if (rows == 0 || nextColumn == columnNames.length) {
+            throw new IllegalStateException("value() must follow point() once per column");
+        }
+        int column = nextColumn++;
+        String key = value != null ? value : "";
+        Map<String, Integer> columnCodes = codesByValue.get(column);
+        Integer code = columnCodes.get(key);
+        if (code == null) {
+            List<String> dictionary = dictionaries.get(column);
+            if (dictionary.size() == MAX_DICTIONARY_SIZE) {
+                throw new IllegalStateException(
+                        "Too many distinct values in column " + columnNames[column]);
+            }
+            code = dictionary.size();
+            dictionary.add(key);
+            columnCodes.put(key, code);
+        }
+        codes[column][rows - 1] = (short) code.intValue();
+        return this;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    // Response carrying the encoded points, gzipped when the client accepts it
+    public Response toResponse(String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingOutput body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, WRITE_BUFFER_BYTES);
+                writeTo(compressed);
+                compressed.finish();
+            } else {
+                writeTo(output);
+            }
+        };
+        Response.ResponseBuilder response = Response.ok(body, MEDIA_TYPE)
+                .header(HttpHeaders.VARY, "Accept, Accept-Encoding");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.build();
+    }
+
+    public void writeTo(OutputStream output) throws IOException {
+        if (rows > 0 && nextColumn != columnNames.length) {
+            throw new IllegalStateException("Last row is missing column values");
+        }
+        ByteBuffer buffer =
+                ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long written = 0;
+
+        buffer.put(MAGIC).put(VERSION).put((byte) columnNames.length).putShort((short) 0)
+                .putInt(rows);
+        for (int column = 0; column < columnNames.length; column++) {
+            written += putString(output, buffer, columnNames[column]);
+            List<String> dictionary = dictionaries.get(column);
+            written += ensure(output, buffer, 2);
+            buffer.putShort((short) dictionary.size());
+            for (String entry : dictionary) {
+                written += putString(output, buffer, entry);
+            }
+        }
+        while ((written + buffer.position()) % 4 != 0) {
+            written += ensure(output, buffer, 1);
+            buffer.put((byte) 0);
+        }
+
+        for (float[] column : new float[][] {latitudes, longitudes}) {
+            for (int row = 0; row < rows; row++) {
+                written += ensure(output, buffer, 4);
+                buffer.putFloat(column[row]);
+            }
+        }
+        for (short[] column : codes) {
+            for (int row = 0; row < rows; row++) {
+                written += ensure(output, buffer, 2);
+                buffer.putShort(column[row]);
+            }
+        }
+        drain(output, buffer);
+        output.flush();
+    }
+
+    private static int putString(OutputStream output, ByteBuffer buffer, String value)
+            throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        int drained = ensure(output, buffer, 2);
+        buffer.putShort((short) length);
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining()) {
+                drained += drain(output, buffer);
+            }
+            int chunk = Math.min(length - offset, buffer.remaining());
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+        return drained;
+    }
+
+    // Makes room for the next value, returning how many bytes had to be flushed for it
+    private static int ensure(OutputStream output, ByteBuffer buffer, int bytes)
+            throws IOException {
+        return buffer.remaining() < bytes ? drain(output, buffer) : 0;
+    }
+
+    private static int drain(OutputStream output, ByteBuffer buffer) throws IOException {
+        int length = buffer.position();
+        output.write(buffer.array(), 0, length);
+        buffer.clear();
+        return length;
+    }
+}
@@ -1,14 +1,28 @@
 package com.medspace.infrastructure.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
+/**
+ * Guesses a clinic's specialty from its name. Keywords are matched as whole words, ignoring case
+ * and accents, by one {@link KeywordAutomaton} pass built when the class loads. When several
+ * keywords match, one that lies inside a longer match is dropped ("terapia" in "terapia
+ * física"), then the specialty listed first in SPECIALTY_PRIORITY wins, then the earliest match.
+ */
 public class SpecialtyDetector {
     private static final Map<String, String> SPECIALTY_KEYWORDS = new HashMap<>();
     private static final String DEFAULT_SPECIALTY = "Clínica General";
-    private static final Pattern GENERAL_MEDICINE_PATTERN = Pattern.compile(
-            "\\b(doctor|dra|dr|médico|medica|consulta|clínica|atención|servicios|salud|médica|medico|general|familiar|primaria|integral|básica|preventiva|comunidad|comunitaria|especialidades|especialidad|múltiples|múltiple|varias|varios|varios servicios|varias especialidades|médicos|médicas|doctores|doctoras|atención médica|servicios médicos|consulta médica|clínica médica|atención integral|servicios integrales|atención básica|servicios básicos|atención preventiva|servicios preventivos|atención comunitaria|servicios comunitarios|atención familiar|servicios familiares|atención primaria|servicios primarios|atención general|servicios generales|atención múltiple|servicios múltiples|atención variada|servicios variados|atención diversa|servicios diversos|atención completa|servicios completos|atención total|servicios totales|atención global|servicios globales|atención universal|servicios universales|atención generalizada|servicios generalizados|atención amplia|servicios amplios|atención extensa|servicios extensos|atención abarcadora|servicios abarcadores|atención comprensiva|servicios comprensivos|atención exhaustiva|servicios exhaustivos|atención integral|servicios integrales|atención holística|servicios holísticos|atención completa|servicios completos|atención total|servicios totales|atención global|servicios globales|atención universal|servicios universales|atención generalizada|servicios generalizados|atención amplia|servicios amplios|atención extensa|servicios extensos|atención abarcadora|servicios abarcadores|atención comprensiva|servicios comprensivos|atención exhaustiva|servicios exhaustivos|atención integral|servicios integrales|atención holística|servicios holísticos)\\b");
+    private static final List<String> SPECIALTY_PRIORITY = List.of("Pediatría", "Ginecología",
+            "Odontología", "Oftalmología", "Dermatología", "Traumatología", "Cardiología",
+            "Neurología", "Gastroenterología", "Endocrinología", "Psicología", "Nutrición",
+            "Fisioterapia", "Urología", "Otorrinolaringología", "Alergología", "Reumatología");
+
+    private static final List<String> KEYWORDS = new ArrayList<>();
+    // Priority of each keyword's specialty, by keyword index
+    private static final int[] KEYWORD_PRIORITIES;
+    private static final KeywordAutomaton AUTOMATON;
 
     static {
         // Pediatría
@@ -468,6 +482,19 @@ public class SpecialtyDetector {
         SPECIALTY_KEYWORDS.put("terapia de artritis", "Reumatología");
         SPECIALTY_KEYWORDS.put("terapia de reumatismo", "Reumatología");
         SPECIALTY_KEYWORDS.put("terapia de artrosis", "Reumatología");
+
+        // Sorted, so the automaton is the same on every run whatever the map's order
+        KEYWORDS.addAll(SPECIALTY_KEYWORDS.keySet());
+        KEYWORDS.sort(null);
+        KEYWORD_PRIORITIES = new int[KEYWORDS.size()];
+        for (int i = 0; i < KEYWORDS.size(); i++) {
+            String specialty = SPECIALTY_KEYWORDS.get(KEYWORDS.get(i));
+            KEYWORD_PRIORITIES[i] = SPECIALTY_PRIORITY.indexOf(specialty);
+            if (KEYWORD_PRIORITIES[i] < 0) {
+                throw new IllegalStateException("No priority for specialty " + specialty);
+            }
+        }
+        AUTOMATON = KeywordAutomaton.compile(KEYWORDS);
     }
 
     public static String detectSpecialty(String clinicName) {
@@ -475,21 +502,37 @@ public class SpecialtyDetector {
             return DEFAULT_SPECIALTY;
         }
 
-        String normalizedName = clinicName.toLowerCase().trim();
-
-        // First check for specific specialties
-        for (Map.Entry<String, String> entry : SPECIALTY_KEYWORDS.entrySet()) {
-            if (normalizedName.contains(entry.getKey())) {
-                return entry.getValue();
+        List<KeywordAutomaton.Match> matches =
+                AUTOMATON.findAll(TextNormalizer.normalizeWords(clinicName));
+        KeywordAutomaton.Match best = null;
+        for (KeywordAutomaton.Match match : matches) {
+            if (!isInsideLongerMatch(match, matches)
+                    && (best == null || isPreferred(match, best))) {
+                best = match;
             }
         }
 
-        // If no specific specialty is found, check if it matches the general medicine pattern
-        if (GENERAL_MEDICINE_PATTERN.matcher(normalizedName).find()) {
-            return DEFAULT_SPECIALTY;
+        // A name without any specialty keyword is taken to be a general clinic
+        return best != null ? SPECIALTY_KEYWORDS.get(KEYWORDS.get(best.getKeyword()))
+                : DEFAULT_SPECIALTY;
+    }
+
+    private static boolean isInsideLongerMatch(KeywordAutomaton.Match match,
+            List<KeywordAutomaton.Match> matches) {
+        for (KeywordAutomaton.Match other : matches) {
+            if (other.getLength() > match.getLength() && other.getStart() <= match.getStart()
+                    && other.getEnd() >= match.getEnd()) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        // If no specific specialty is found, it's likely a general clinic
-        return DEFAULT_SPECIALTY;
+    private static boolean isPreferred(KeywordAutomaton.Match match,
+            KeywordAutomaton.Match current) {
+        int priority = KEYWORD_PRIORITIES[match.getKeyword()];
+        int currentPriority = KEYWORD_PRIORITIES[current.getKeyword()];
+        return priority != currentPriority ? priority < currentPriority
+                : match.getStart() < current.getStart();
     }
 }
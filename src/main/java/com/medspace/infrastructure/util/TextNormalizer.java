@@ -0,0 +1,98 @@
+package com.medspace.infrastructure.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TextNormalizer {
+
+    // Lowercases and strips diacritics, so "Clínica Niño" and "clinica nino" compare equal
+    public static String fold(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = decompose(value);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(Character.toLowerCase(c));
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Key under which a city is stored and compared: folded, trimmed, with runs of whitespace and
+     * underscores collapsed into one underscore. "  San Andrés Cholula" becomes
+     * "san_andres_cholula". Already-normalized keys map to themselves.
+     */
+    public static String normalizeCity(String city) {
+        if (city == null) {
+            return "";
+        }
+        String decomposed = decompose(city);
+        StringBuilder key = new StringBuilder(decomposed.length());
+        boolean pendingSeparator = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isWhitespace(c) || c == '_') {
+                pendingSeparator = key.length() > 0;
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                if (pendingSeparator) {
+                    key.append('_');
+                    pendingSeparator = false;
+                }
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    // Folded words joined by single spaces: "Clínica  Dental-Niño" becomes "clinica dental nino"
+    public static String normalizeWords(String value) {
+        String folded = fold(value);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    // Folded runs of letters and digits; everything else separates tokens
+    public static List<String> tokenize(String value) {
+        String folded = fold(value);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Plain ASCII, the common case, has nothing to decompose
+    private static String decompose(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0x7F) {
+                return Normalizer.normalize(value, Normalizer.Form.NFD);
+            }
+        }
+        return value;
+    }
+}
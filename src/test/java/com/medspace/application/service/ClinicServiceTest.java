@@ -89,4 +89,25 @@ class ClinicServiceTest {
         assert isOwner == true;
         assert isNotOwner == false;
     }
+
+    @Test
+    void testGetAverageRatingFromStoredAggregate() {
+        testClinic.setRatingCount(4L);
+        testClinic.setRatingSum(18L);
+        when(clinicRepository.getClinicById(1L)).thenReturn(testClinic);
+
+        assert clinicService.getAverageRatingById(1L) == 4.5;
+    }
+
+    @Test
+    void testGetAverageRatingWithoutRatings() {
+        testClinic.setRatingCount(0L);
+        testClinic.setRatingSum(0L);
+        assert clinicService.getAverageRating(testClinic) == null;
+
+        // Rows the startup backfill has not reached yet
+        testClinic.setRatingCount(null);
+        testClinic.setRatingSum(null);
+        assert clinicService.getAverageRating(testClinic) == null;
+    }
 }
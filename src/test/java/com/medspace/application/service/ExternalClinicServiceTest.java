@@ -4,15 +4,26 @@ import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.medspace.domain.model.ExternalClinic;
+import com.medspace.domain.model.ExternalClinicSyncCheckpoint;
 import com.medspace.domain.repository.ExternalClinicRepository;
+import com.medspace.domain.repository.ExternalClinicSyncCheckpointRepository;
 import com.medspace.infrastructure.client.ExternalClinicApiClient;
 import com.medspace.infrastructure.dto.common.PaginationDTO;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicResponseDTO;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicSyncReportDTO;
 import com.medspace.infrastructure.dto.externalClinic.GetExternalClinicSpecialistsDashboardDTO;
+import com.medspace.infrastructure.job.JobProgress;
+import com.medspace.infrastructure.mapper.ExternalClinicResponseMapper;
+import com.medspace.infrastructure.util.SpecialtyDetector;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 @QuarkusTest
 class ExternalClinicServiceTest {
@@ -22,6 +33,9 @@ class ExternalClinicServiceTest {
     @InjectMock
     ExternalClinicApiClient apiClient;
 
+    @InjectMock
+    ExternalClinicSyncCheckpointRepository checkpointRepository;
+
     @Inject
     ExternalClinicService service;
 
@@ -37,25 +51,161 @@ class ExternalClinicServiceTest {
     }
 
     @Test
-    void testGetDashboardDataAll() {
-        List<GetExternalClinicSpecialistsDashboardDTO> mockList = List.of();
-        when(repository.getAllExternalClinicSpecialistsDashboardData()).thenReturn(mockList);
-        List<GetExternalClinicSpecialistsDashboardDTO> result = service.getDashboardDataAll();
-        assertNotNull(result);
-        assertEquals(0, result.size());
+    @SuppressWarnings("unchecked")
+    void testForEachDashboardRow() {
+        GetExternalClinicSpecialistsDashboardDTO row =
+                new GetExternalClinicSpecialistsDashboardDTO();
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(row);
+            return null;
+        }).when(repository).forEachDashboardRow(any());
+        List<GetExternalClinicSpecialistsDashboardDTO> result = new ArrayList<>();
+        service.forEachDashboardRow(result::add);
+        assertEquals(List.of(row), result);
+    }
+
+    // Stands in for the API: one record in Mexico City (state 09), none anywhere else
+    @SuppressWarnings("unchecked")
+    private void givenOneRecordInState09() {
+        ExternalClinicResponseDTO record = new ExternalClinicResponseDTO();
+        record.setId("42");
+        record.setNombre("Consultorio pediátrico");
+        doAnswer(invocation -> {
+            if ("09".equals(invocation.getArgument(0))) {
+                invocation.getArgument(3, Consumer.class).accept(record);
+            }
+            return null;
+        }).when(apiClient).fetchClinics(anyString(), anyString(), anyLong(), any());
     }
 
     @Test
     void testFetchAndSaveClinics() {
-        List<ExternalClinic> clinics = new ArrayList<>();
-        when(apiClient.fetchClinics()).thenReturn(clinics);
-        service.fetchAndSaveClinics();
-        verify(repository).saveAll(clinics);
+        givenOneRecordInState09();
+        when(repository.findChanged(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ExternalClinicSyncReportDTO report = service.fetchAndSaveClinics(JobProgress.NONE);
+
+        verify(repository).saveAll(argThat(clinics -> clinics.size() == 1
+                && "42".equals(clinics.get(0).getExternalId())
+                && "Pediatría".equals(clinics.get(0).getSpecialty())
+                && clinics.get(0).getContentHash() != null
+                && clinics.get(0).getCreatedAt() != null));
+        assertEquals(32, report.getShards().size());
+        assertFalse(report.isResumed());
+        assertTrue(report.getShards().stream().allMatch(
+                shard -> shard.getStatus() == ExternalClinicSyncCheckpoint.Status.COMPLETED));
+        verify(checkpointRepository, atLeastOnce()).saveCheckpoint(
+                argThat(shard -> "09".equals(shard.getEntityCode())
+                        && shard.getNextRecord() == 2 && shard.getRecordsWritten() == 1));
+    }
+
+    @Test
+    void testFetchAndSaveClinicsSkipsUnchangedRecords() {
+        givenOneRecordInState09();
+        when(repository.findChanged(anyList())).thenReturn(List.of());
+
+        service.fetchAndSaveClinics(JobProgress.NONE);
+
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    // Every shard completed at the given time except 09, which failed at record 2001
+    private void givenFailedShard09(Instant completedAt) {
+        ExternalClinicSyncCheckpoint failed = new ExternalClinicSyncCheckpoint("09",
+                ExternalClinicApiClient.DEFAULT_ACTIVITY);
+        failed.setId(9L);
+        failed.setStatus(ExternalClinicSyncCheckpoint.Status.FAILED);
+        failed.setNextRecord(2001L);
+        failed.setUpdatedAt(Instant.now());
+        List<ExternalClinicSyncCheckpoint> checkpoints = new ArrayList<>(List.of(failed));
+        for (int state = 1; state <= 32; state++) {
+            if (state != 9) {
+                ExternalClinicSyncCheckpoint done = new ExternalClinicSyncCheckpoint(
+                        String.format("%02d", state), ExternalClinicApiClient.DEFAULT_ACTIVITY);
+                done.setId((long) state);
+                done.setStatus(ExternalClinicSyncCheckpoint.Status.COMPLETED);
+                done.setUpdatedAt(completedAt);
+                checkpoints.add(done);
+            }
+        }
+        when(checkpointRepository.getCheckpoints()).thenReturn(checkpoints);
+    }
+
+    @Test
+    void testFetchAndSaveClinicsResumesUnfinishedShards() {
+        givenFailedShard09(Instant.now().minus(Duration.ofHours(1)));
+
+        ExternalClinicSyncReportDTO report = service.fetchAndSaveClinics(JobProgress.NONE);
+
+        assertTrue(report.isResumed());
+        verify(apiClient).fetchClinics(eq("09"), anyString(), eq(2001L), any());
+        verify(apiClient, times(1)).fetchClinics(anyString(), anyString(), anyLong(), any());
+        verify(checkpointRepository, never()).resetCheckpoints();
+    }
+
+    @Test
+    void testFetchAndSaveClinicsRestartsCyclesPastTheRefreshInterval() {
+        givenFailedShard09(Instant.now().minus(Duration.ofDays(30)));
+
+        ExternalClinicSyncReportDTO report = service.fetchAndSaveClinics(JobProgress.NONE);
+
+        assertFalse(report.isResumed());
+        verify(checkpointRepository).resetCheckpoints();
+        verify(apiClient, times(32)).fetchClinics(anyString(), anyString(), eq(1L), any());
+    }
+
+    private static ExternalClinic storedClinic(long id, String nombre) {
+        ExternalClinic clinic = new ExternalClinic();
+        clinic.setId(id);
+        clinic.setExternalId("ext-" + id);
+        clinic.setNombre(nombre);
+        clinic.setContentHash("stale");
+        return clinic;
+    }
+
+    @Test
+    void testUpdateSpecialtiesWritesOnlyChangedClinics() {
+        JobProgress progress = mock(JobProgress.class);
+        ExternalClinic unchanged = storedClinic(1, "Consultorio dental");
+        unchanged.setSpecialty(SpecialtyDetector.detectSpecialty(unchanged.getNombre()));
+        unchanged.setContentHash(ExternalClinicResponseMapper.contentHash(unchanged));
+        ExternalClinic changed = storedClinic(2, "Consultorio dental");
+        when(repository.findAfter(0L, 1000)).thenReturn(List.of(unchanged, changed));
+
+        service.updateSpecialties(progress);
+
+        verify(repository).saveSpecialties(List.of(changed));
+        assertEquals(unchanged.getContentHash(), changed.getContentHash());
+        verify(progress).advance(2, 1);
+        verify(repository, times(1)).findAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    void testUpdateSpecialtiesSeeksPastEachChunk() {
+        JobProgress progress = mock(JobProgress.class);
+        List<ExternalClinic> chunk = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            chunk.add(storedClinic(id * 2, "Consultorio " + id));
+        }
+        when(repository.findAfter(0L, 1000)).thenReturn(chunk);
+        when(repository.findAfter(2000L, 1000)).thenReturn(List.of());
+
+        service.updateSpecialties(progress);
+
+        verify(repository).saveSpecialties(chunk);
+        verify(progress).advance(1000, 1000);
+        verify(progress).advance(0, 0);
     }
 
     @Test
-    void testUpdateSpecialties() {
-        service.updateSpecialties();
-        verify(repository).updateSpecialties();
+    void testUpdateSpecialtiesStopsWhenCancelled() {
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class,
+                    () -> service.updateSpecialties(JobProgress.NONE));
+        } finally {
+            Thread.interrupted();
+        }
+        verify(repository, never()).findAfter(anyLong(), anyInt());
     }
 }
@@ -0,0 +1,55 @@
+package com.medspace.application.usecase.clinic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.medspace.application.service.ClinicService;
+import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
+import com.medspace.infrastructure.dto.clinic.GetClinicDTO;
+import com.medspace.infrastructure.dto.clinic.GetClinicFreeDatesDTO;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+
+@QuarkusTest
+class GetClinicsFreeOnDatesUseCaseTest {
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+    private static final LocalDate TUESDAY = LocalDate.of(2026, 3, 3);
+
+    @InjectMock
+    ClinicService clinicService;
+
+    @InjectMock
+    GetFilteredClinicsUseCase getFilteredClinicsUseCase;
+
+    @Inject
+    GetClinicsFreeOnDatesUseCase getClinicsFreeOnDatesUseCase;
+
+    private static GetClinicDTO clinic(long id) {
+        GetClinicDTO clinic = new GetClinicDTO();
+        clinic.setId(id);
+        return clinic;
+    }
+
+    @Test
+    void testSkipsClinicsDeletedAfterTheSearch() {
+        ClinicQueryDTO query = new ClinicQueryDTO(false, false, false);
+        query.setTargetDates(List.of(MONDAY, TUESDAY));
+        when(getFilteredClinicsUseCase.execute(any()))
+                .thenReturn(List.of(clinic(1), clinic(2), clinic(3)));
+        when(clinicService.getFreeDates(1L, query.getTargetDates())).thenReturn(List.of(MONDAY));
+        when(clinicService.getFreeDates(2L, query.getTargetDates()))
+                .thenThrow(new NotFoundException("clinic with id 2 not found"));
+        when(clinicService.getFreeDates(3L, query.getTargetDates()))
+                .thenReturn(List.of(MONDAY, TUESDAY));
+
+        List<GetClinicFreeDatesDTO> result = getClinicsFreeOnDatesUseCase.execute(query);
+
+        assertEquals(List.of(3L, 1L),
+                result.stream().map(row -> row.getClinic().getId()).toList());
+    }
+}
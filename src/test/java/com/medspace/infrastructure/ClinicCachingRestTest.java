@@ -0,0 +1,180 @@
+package com.medspace.infrastructure;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.emptyOrNullString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.medspace.application.usecase.clinic.GetAllCitiesWithClinicsUseCase;
+import com.medspace.application.usecase.clinic.GetClinicByIdUseCase;
+import com.medspace.application.usecase.clinic.GetClinicCitiesVersionUseCase;
+import com.medspace.application.usecase.clinic.GetClinicVersionUseCase;
+import com.medspace.application.usecase.clinic.equipment.GetEquipmentsByClinicIdUseCase;
+import com.medspace.application.usecase.clinic.photo.GetPhotosByClinicIdUseCase;
+import com.medspace.domain.model.User;
+import com.medspace.domain.repository.UserRepository;
+import com.medspace.infrastructure.cache.VerifiedIdentity;
+import com.medspace.infrastructure.cache.VerifiedIdentityCache;
+import com.medspace.infrastructure.dto.clinic.GetClinicDTO;
+import com.medspace.infrastructure.dto.common.ResourceVersionDTO;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class ClinicCachingRestTest {
+    private static final String TOKEN = "Bearer test-token";
+    private static final Instant WRITTEN_AT = Instant.parse("2026-03-01T10:00:00Z");
+
+    @InjectMock
+    VerifiedIdentityCache verifiedIdentityCache;
+
+    @InjectMock
+    UserRepository userRepository;
+
+    @InjectMock
+    GetClinicVersionUseCase getClinicVersionUseCase;
+
+    @InjectMock
+    GetClinicByIdUseCase getClinicByIdUseCase;
+
+    @InjectMock
+    GetPhotosByClinicIdUseCase getPhotosByClinicIdUseCase;
+
+    @InjectMock
+    GetEquipmentsByClinicIdUseCase getEquipmentsByClinicIdUseCase;
+
+    @InjectMock
+    GetClinicCitiesVersionUseCase getClinicCitiesVersionUseCase;
+
+    @InjectMock
+    GetAllCitiesWithClinicsUseCase getAllCitiesWithClinicsUseCase;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setFirebaseUid("firebase-uid-123");
+        user.setUserType(User.UserType.TENANT);
+        when(verifiedIdentityCache.get(eq("test-token"), any()))
+                .thenReturn(new VerifiedIdentity("firebase-uid-123", Long.MAX_VALUE));
+        when(userRepository.getUserByFirebaseId("firebase-uid-123")).thenReturn(user);
+    }
+
+    private void givenClinicVersion(String version, Instant lastModified) {
+        when(getClinicVersionUseCase.execute(1L))
+                .thenReturn(new ResourceVersionDTO(version, lastModified));
+    }
+
+    private static GetClinicDTO clinic(long version, Instant lastModified) {
+        GetClinicDTO clinic = new GetClinicDTO();
+        clinic.setId(1L);
+        clinic.setDisplayName("Clinic v" + version);
+        clinic.setVersion(version);
+        clinic.setLastModified(lastModified);
+        return clinic;
+    }
+
+    @Test
+    void testTagsACachedBodyWithTheVersionItWasBuiltFrom() {
+        // A write has committed, but the detail cache still holds the body built before it
+        Instant rewrittenAt = WRITTEN_AT.plusSeconds(60);
+        givenClinicVersion("2", rewrittenAt);
+        when(getClinicByIdUseCase.execute(eq(1L), any())).thenReturn(clinic(1, WRITTEN_AT));
+
+        String staleTag = given().header("Authorization", TOKEN).when().get("/clinics/1")
+                .then().statusCode(200).body("data.displayName", containsString("v1"))
+                .extract().header("ETag");
+        assertTrue(staleTag.contains("-v1-"), staleTag);
+
+        // Once the cache is dropped, revalidating with that tag gets the new body, not a 304
+        when(getClinicByIdUseCase.execute(eq(1L), any())).thenReturn(clinic(2, rewrittenAt));
+        given().header("Authorization", TOKEN).header("If-None-Match", staleTag).when()
+                .get("/clinics/1").then().statusCode(200)
+                .body("data.displayName", containsString("v2"))
+                .header("ETag", containsString("-v2-"));
+    }
+
+    // Fetches path, then revalidates with the returned ETag; returns that tag
+    private static String assertRevalidates(String path) {
+        String tag = given().header("Authorization", TOKEN).when().get(path).then()
+                .statusCode(200).header("Last-Modified", not(emptyOrNullString()))
+                .extract().header("ETag");
+        given().header("Authorization", TOKEN).header("If-None-Match", tag).when().get(path)
+                .then().statusCode(304).header("ETag", tag);
+        return tag;
+    }
+
+    @Test
+    void testClinicRoundTrip() {
+        givenClinicVersion("1", WRITTEN_AT);
+        when(getClinicByIdUseCase.execute(eq(1L), any())).thenReturn(clinic(1, WRITTEN_AT));
+
+        String tag = assertRevalidates("/clinics/1");
+        verify(getClinicByIdUseCase, times(1)).execute(eq(1L), any());
+
+        // Each include variant has its own tag
+        given().header("Authorization", TOKEN).header("If-None-Match", tag).when()
+                .get("/clinics/1?photos=true").then().statusCode(200);
+
+        // Once the clinic is written, the old tag no longer matches
+        Instant rewrittenAt = WRITTEN_AT.plusSeconds(60);
+        givenClinicVersion("2", rewrittenAt);
+        when(getClinicByIdUseCase.execute(eq(1L), any())).thenReturn(clinic(2, rewrittenAt));
+        given().header("Authorization", TOKEN).header("If-None-Match", tag).when()
+                .get("/clinics/1").then().statusCode(200).header("ETag", containsString("-v2-"));
+    }
+
+    @Test
+    void testPhotosRoundTrip() {
+        givenClinicVersion("1", WRITTEN_AT);
+        when(getPhotosByClinicIdUseCase.execute(1L)).thenReturn(List.of());
+
+        String tag = assertRevalidates("/clinics/1/photos");
+        verify(getPhotosByClinicIdUseCase, times(1)).execute(1L);
+
+        givenClinicVersion("2", WRITTEN_AT.plusSeconds(60));
+        given().header("Authorization", TOKEN).header("If-None-Match", tag).when()
+                .get("/clinics/1/photos").then().statusCode(200);
+    }
+
+    @Test
+    void testEquipmentsRoundTrip() {
+        givenClinicVersion("1", WRITTEN_AT);
+        when(getEquipmentsByClinicIdUseCase.execute(1L)).thenReturn(List.of());
+
+        String tag = assertRevalidates("/clinics/1/equipments");
+        verify(getEquipmentsByClinicIdUseCase, times(1)).execute(1L);
+
+        givenClinicVersion("2", WRITTEN_AT.plusSeconds(60));
+        given().header("Authorization", TOKEN).header("If-None-Match", tag).when()
+                .get("/clinics/1/equipments").then().statusCode(200);
+    }
+
+    @Test
+    void testCitiesRoundTrip() {
+        when(getClinicCitiesVersionUseCase.execute())
+                .thenReturn(new ResourceVersionDTO("7", WRITTEN_AT));
+        when(getAllCitiesWithClinicsUseCase.execute()).thenReturn(List.of());
+
+        String tag = assertRevalidates("/clinics/cities");
+        verify(getAllCitiesWithClinicsUseCase, times(1)).execute();
+
+        // Clients without an ETag fall back to the date
+        given().header("If-Modified-Since", "Sun, 01 Mar 2026 10:00:00 GMT").when()
+                .get("/clinics/cities").then().statusCode(304);
+
+        when(getClinicCitiesVersionUseCase.execute())
+                .thenReturn(new ResourceVersionDTO("8", WRITTEN_AT.plusSeconds(60)));
+        given().header("If-None-Match", tag).when().get("/clinics/cities").then()
+                .statusCode(200).header("ETag", containsString("cities-8"));
+    }
+}
@@ -1,17 +1,96 @@
 package com.medspace.infrastructure;
 
+import com.medspace.domain.model.ExternalClinic;
+import com.medspace.domain.repository.ExternalClinicRepository;
+import com.medspace.infrastructure.util.KeysetCursor;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 
 @QuarkusTest
 class ExternalClinicRestTest {
+    private static final String SEEDED_ID_PREFIX = "keyset-test-";
 
+    @Inject
+    ExternalClinicRepository externalClinicRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    // Stores clinics at latitudes 1..count and returns their ids in order
+    private List<Long> seedClinics(int count) {
+        List<ExternalClinic> clinics = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            ExternalClinic clinic = new ExternalClinic();
+            clinic.setExternalId(SEEDED_ID_PREFIX + i);
+            clinic.setNombre("Consultorio " + i);
+            clinic.setLatitud((double) i);
+            clinic.setLongitud(-99.0);
+            clinics.add(clinic);
+        }
+        externalClinicRepository.saveAll(clinics);
+        return QuarkusTransaction.requiringNew().call(() -> entityManager
+                .createQuery("SELECT e.id FROM ExternalClinicEntity e"
+                        + " WHERE e.externalId LIKE :prefix ORDER BY e.id", Long.class)
+                .setParameter("prefix", SEEDED_ID_PREFIX + "%").getResultList());
+    }
+
+    @AfterEach
+    void removeSeededClinics() {
+        QuarkusTransaction.requiringNew().run(() -> entityManager
+                .createQuery("DELETE FROM ExternalClinicEntity e WHERE e.externalId LIKE :prefix")
+                .setParameter("prefix", SEEDED_ID_PREFIX + "%").executeUpdate());
+    }
 
     @Test
     void testGetDashboardData() {
         given().when().get("/api/external-clinics/dashboard").then().statusCode(200).body("success",
                 is(true));
     }
+
+    @Test
+    void testDashboardCursorAdvancesToTheLastPage() {
+        List<Long> ids = seedClinics(3);
+
+        String next = given().queryParam("cursor", KeysetCursor.encode(ids.get(0) - 1))
+                .queryParam("size", 2).when().get("/api/external-clinics/dashboard").then()
+                .statusCode(200).body("data.latitud", contains(1.0f, 2.0f))
+                .header("X-Next-Cursor", KeysetCursor.encode(ids.get(1)))
+                .extract().header("X-Next-Cursor");
+
+        // A short page is the last one
+        given().queryParam("cursor", next).queryParam("size", 2).when()
+                .get("/api/external-clinics/dashboard").then().statusCode(200)
+                .body("data.latitud", contains(3.0f)).header("X-Next-Cursor", nullValue());
+    }
+
+    @Test
+    void testDashboardCursorPastAFullLastPage() {
+        List<Long> ids = seedClinics(2);
+
+        String next = given().queryParam("cursor", KeysetCursor.encode(ids.get(0) - 1))
+                .queryParam("size", 2).when().get("/api/external-clinics/dashboard").then()
+                .statusCode(200).body("data.latitud", contains(1.0f, 2.0f))
+                .extract().header("X-Next-Cursor");
+
+        given().queryParam("cursor", next).queryParam("size", 2).when()
+                .get("/api/external-clinics/dashboard").then().statusCode(200)
+                .body("data", empty()).header("X-Next-Cursor", nullValue());
+    }
+
+    @Test
+    void testDashboardRejectsTamperedCursors() {
+        given().queryParam("cursor", "not a cursor!").when()
+                .get("/api/external-clinics/dashboard").then().statusCode(400)
+                .body("success", is(false));
+        given().queryParam("cursor", KeysetCursor.encode(42).substring(1)).when()
+                .get("/api/external-clinics/dashboard").then().statusCode(400);
+    }
 }
@@ -0,0 +1,93 @@
+package com.medspace.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void testLoadsOnceThenHits() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+        assertEquals("A", cache.get("a", key -> "A"));
+        assertEquals("A", cache.get("a", key -> "reloaded"));
+
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testDoesNotCacheNull() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+        assertNull(cache.get("a", key -> null));
+        assertEquals("A", cache.get("a", key -> "A"));
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void testEvictsTheLeastRecentlyUsedEntry() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(1));
+        cache.get("a", key -> "A");
+        cache.get("b", key -> "B");
+        cache.get("a", key -> "A");
+        cache.get("c", key -> "C");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertEquals("A", cache.get("a", key -> "A2"));
+        assertEquals("C", cache.get("c", key -> "C2"));
+        assertEquals("B2", cache.get("b", key -> "B2"));
+    }
+
+    @Test
+    void testReloadsExpiredEntries() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ZERO);
+        cache.get("a", key -> "A");
+
+        assertEquals("A2", cache.get("a", key -> "A2"));
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    void testInvalidate() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        cache.get("a", key -> "A");
+        cache.get("b", key -> "B");
+
+        cache.invalidate("a");
+
+        assertEquals("A2", cache.get("a", key -> "A2"));
+        assertEquals("B", cache.get("b", key -> "B2"));
+    }
+
+    @Test
+    void testInvalidateValues() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        cache.get("a", key -> "drop");
+        cache.get("b", key -> "keep");
+
+        cache.invalidateValues("drop"::equals);
+
+        assertEquals(1, cache.size());
+        assertEquals("keep", cache.get("b", key -> "reloaded"));
+    }
+
+    @Test
+    void testDoesNotStoreALoadThatOverlapsAnInvalidation() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+        // A write commits while the value is being read
+        String loaded = cache.get("a", key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertEquals(0, cache.size());
+        assertEquals("fresh", cache.get("a", key -> "fresh"));
+    }
+}
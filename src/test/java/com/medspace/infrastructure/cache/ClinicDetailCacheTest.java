@@ -0,0 +1,66 @@
+package com.medspace.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.medspace.domain.event.ClinicChangedEvent;
+import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
+import com.medspace.infrastructure.dto.clinic.GetClinicDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ClinicDetailCacheTest {
+    private static final ClinicQueryDTO PLAIN = new ClinicQueryDTO(false, false, false);
+    private static final ClinicQueryDTO WITH_PHOTOS = new ClinicQueryDTO(true, false, false);
+
+    private ClinicDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ClinicDetailCache();
+        cache.maxEntries = 100;
+        cache.ttl = Duration.ofMinutes(10);
+        cache.registry = new SimpleMeterRegistry();
+        cache.init();
+    }
+
+    private static GetClinicDTO clinic(long id, String displayName) {
+        GetClinicDTO clinic = new GetClinicDTO();
+        clinic.setId(id);
+        clinic.setDisplayName(displayName);
+        return clinic;
+    }
+
+    @Test
+    void testKeepsOneEntryPerIncludeVariant() {
+        cache.get(1L, PLAIN, () -> clinic(1, "plain"));
+        cache.get(1L, WITH_PHOTOS, () -> clinic(1, "with photos"));
+
+        assertEquals("plain", cache.get(1L, PLAIN, () -> clinic(1, "reloaded")).getDisplayName());
+        assertEquals("with photos",
+                cache.get(1L, WITH_PHOTOS, () -> clinic(1, "reloaded")).getDisplayName());
+    }
+
+    @Test
+    void testClinicChangedEventDropsEveryVariantOfThatClinic() {
+        cache.get(1L, PLAIN, () -> clinic(1, "before"));
+        cache.get(1L, WITH_PHOTOS, () -> clinic(1, "before"));
+        cache.get(2L, PLAIN, () -> clinic(2, "other"));
+
+        cache.onClinicChanged(new ClinicChangedEvent(1L, ClinicChangedEvent.Type.UPDATED));
+
+        assertEquals("after", cache.get(1L, PLAIN, () -> clinic(1, "after")).getDisplayName());
+        assertEquals("after",
+                cache.get(1L, WITH_PHOTOS, () -> clinic(1, "after")).getDisplayName());
+        assertEquals("other", cache.get(2L, PLAIN, () -> clinic(2, "after")).getDisplayName());
+    }
+
+    @Test
+    void testIgnoresEventsWithoutAClinicId() {
+        cache.get(1L, PLAIN, () -> clinic(1, "before"));
+
+        cache.onClinicChanged(new ClinicChangedEvent(null, ClinicChangedEvent.Type.UPDATED));
+
+        assertEquals("before", cache.get(1L, PLAIN, () -> clinic(1, "after")).getDisplayName());
+    }
+}
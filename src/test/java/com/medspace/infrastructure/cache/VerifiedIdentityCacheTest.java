@@ -0,0 +1,83 @@
+package com.medspace.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.medspace.domain.event.UserChangedEvent;
+import com.medspace.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VerifiedIdentityCacheTest {
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private VerifiedIdentityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedIdentityCache();
+        cache.maxEntries = 100;
+        cache.ttl = Duration.ofHours(1);
+        cache.registry = new SimpleMeterRegistry();
+        cache.init();
+    }
+
+    private static User user(long id, String firebaseUid) {
+        User user = new User();
+        user.setId(id);
+        user.setFirebaseUid(firebaseUid);
+        return user;
+    }
+
+    @Test
+    void testServesTheVerifiedIdentityUntilItExpires() {
+        VerifiedIdentity identity = cache.get("token", () -> new VerifiedIdentity("uid-1", NEVER));
+
+        assertSame(identity, cache.get("token", () -> new VerifiedIdentity("uid-1", NEVER)));
+
+        VerifiedIdentity expired = cache.get("old-token", () -> new VerifiedIdentity("uid-1", 0));
+        VerifiedIdentity reverified =
+                cache.get("old-token", () -> new VerifiedIdentity("uid-1", NEVER));
+        assertNotSame(expired, reverified);
+    }
+
+    @Test
+    void testDoesNotCacheInvalidTokens() {
+        assertNull(cache.get("bad-token", () -> null));
+
+        VerifiedIdentity identity =
+                cache.get("bad-token", () -> new VerifiedIdentity("uid-1", NEVER));
+        assertEquals("uid-1", identity.getFirebaseUid());
+    }
+
+    @Test
+    void testUserChangedEventDropsIdentitiesByFirebaseUid() {
+        // Cached before sign-up: no user yet
+        VerifiedIdentity identity = cache.get("token", () -> new VerifiedIdentity("uid-1", NEVER));
+        assertNull(identity.resolveUser(uid -> null));
+
+        cache.onUserChanged(new UserChangedEvent(1L, "uid-1"));
+
+        VerifiedIdentity reloaded = cache.get("token", () -> new VerifiedIdentity("uid-1", NEVER));
+        assertNotSame(identity, reloaded);
+        assertEquals(1L, reloaded.resolveUser(uid -> user(1, uid)).getId());
+    }
+
+    @Test
+    void testUserChangedEventDropsIdentitiesByUserId() {
+        VerifiedIdentity identity = cache.get("token", () -> new VerifiedIdentity("uid-1", NEVER));
+        identity.resolveUser(uid -> user(1, uid));
+        VerifiedIdentity other = cache.get("other", () -> new VerifiedIdentity("uid-2", NEVER));
+        other.resolveUser(uid -> user(2, uid));
+
+        // Matched on the resolved user's id alone
+        cache.onUserChanged(new UserChangedEvent(1L, null));
+
+        assertNotSame(identity,
+                cache.get("token", () -> new VerifiedIdentity("uid-1", NEVER)));
+        assertSame(other, cache.get("other", () -> new VerifiedIdentity("uid-2", NEVER)));
+    }
+}
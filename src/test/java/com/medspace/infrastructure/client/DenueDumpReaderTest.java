@@ -0,0 +1,103 @@
+package com.medspace.infrastructure.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicResponseDTO;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DenueDumpReaderTest {
+    private static final String CSV = "\uFEFFid,clee,nom_estab,nombre_act,cod_postal,localidad,"
+            + "municipio,entidad,latitud,longitud\r\n"
+            + "1,09A,\"CONSULTORIO \"\"SAN JOSÉ\"\", PEDIATRÍA\",Consultorios dentales,06700,"
+            + "Ciudad de México,Cuauhtémoc,CIUDAD DE MÉXICO,19.41,-99.16\r\n"
+            + "2,14B,\"CLÍNICA\nDENTAL\",Consultorios dentales,44100,,Guadalajara,JALISCO,"
+            + "20.67,-103.35\n";
+
+    private final DenueDumpReader reader = new DenueDumpReader();
+    private final List<Path> files = new ArrayList<>();
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private Path write(String suffix, byte[] content, boolean gzip) throws IOException {
+        Path file = Files.createTempFile("denue", suffix);
+        files.add(file);
+        try (OutputStream output = gzip ? new GZIPOutputStream(Files.newOutputStream(file))
+                : Files.newOutputStream(file)) {
+            output.write(content);
+        }
+        return file;
+    }
+
+    private List<ExternalClinicResponseDTO> read(Path file, Charset charset) {
+        List<ExternalClinicResponseDTO> records = new ArrayList<>();
+        reader.read(file, charset, records::add);
+        return records;
+    }
+
+    @Test
+    void testReadsGzippedCsvInBulkDownloadColumns() throws IOException {
+        Path file = write(".csv.gz", CSV.getBytes(StandardCharsets.UTF_8), true);
+
+        List<ExternalClinicResponseDTO> records = read(file, StandardCharsets.UTF_8);
+
+        assertEquals(2, records.size());
+        ExternalClinicResponseDTO first = records.get(0);
+        assertEquals("1", first.getId());
+        assertEquals("09A", first.getClee());
+        assertEquals("CONSULTORIO \"SAN JOSÉ\", PEDIATRÍA", first.getNombre());
+        assertEquals("Consultorios dentales", first.getClase_actividad());
+        assertEquals("06700", first.getCp());
+        assertEquals("Ciudad de México, Cuauhtémoc, CIUDAD DE MÉXICO", first.getUbicacion());
+        assertEquals("-99.16", first.getLongitud());
+        assertEquals("CLÍNICA\nDENTAL", records.get(1).getNombre());
+        assertEquals("Guadalajara, JALISCO", records.get(1).getUbicacion());
+        assertNull(records.get(1).getTelefono());
+    }
+
+    @Test
+    void testReadsLatin1Csv() throws IOException {
+        Path file = write(".csv", CSV.substring(1).getBytes(StandardCharsets.ISO_8859_1), false);
+
+        List<ExternalClinicResponseDTO> records = read(file, StandardCharsets.ISO_8859_1);
+
+        assertEquals(2, records.size());
+        assertEquals("Cuauhtémoc", records.get(0).getUbicacion().split(", ")[1]);
+    }
+
+    @Test
+    void testReadsJsonInApiFormat() throws IOException {
+        String json = "  [{\"Id\":\"7\",\"Nombre\":\"Consultorio\",\"Clase_actividad\":"
+                + "\"Consultorios dentales\",\"Ubicacion\":\"Centro, León, GUANAJUATO\","
+                + "\"Extra\":\"ignored\"},{\"Id\":\"8\"}]";
+        Path file = write(".json", json.getBytes(StandardCharsets.UTF_8), false);
+
+        List<ExternalClinicResponseDTO> records = read(file, StandardCharsets.UTF_8);
+
+        assertEquals(2, records.size());
+        assertEquals("7", records.get(0).getId());
+        assertEquals("Centro, León, GUANAJUATO", records.get(0).getUbicacion());
+        assertEquals("8", records.get(1).getId());
+    }
+
+    @Test
+    void testReadsEmptyFile() throws IOException {
+        Path file = write(".csv", new byte[0], false);
+
+        assertEquals(0, read(file, StandardCharsets.UTF_8).size());
+    }
+}
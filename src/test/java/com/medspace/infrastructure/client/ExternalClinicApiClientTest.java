@@ -0,0 +1,183 @@
+package com.medspace.infrastructure.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicResponseDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Runs the client against a local stand-in for the DENUE API
+class ExternalClinicApiClientTest {
+    private static final int TOTAL_RECORDS = 25;
+
+    private HttpServer server;
+    private final Map<Long, AtomicInteger> requestsByFirstRecord = new ConcurrentHashMap<>();
+    private final AtomicInteger rateLimitedResponses = new AtomicInteger();
+    private final List<String> requestedEntities = new ArrayList<>();
+    private volatile int failuresBeforeSuccess = 0;
+    private volatile int failureStatus = 429;
+    private volatile String retryAfter = "0";
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/denue", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    // Path: /denue/{activity}/{entity}/{first}/{last}/{token}
+    private void handle(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        synchronized (requestedEntities) {
+            requestedEntities.add(path[3]);
+        }
+        long first = Long.parseLong(path[4]);
+        long last = Math.min(Long.parseLong(path[5]), TOTAL_RECORDS);
+        int attempt = requestsByFirstRecord.computeIfAbsent(first, key -> new AtomicInteger())
+                .incrementAndGet();
+
+        if (attempt <= failuresBeforeSuccess) {
+            rateLimitedResponses.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", retryAfter);
+            send(exchange, failureStatus, "{\"error\":\"try later\"}".getBytes(), false);
+            return;
+        }
+
+        StringBuilder json = new StringBuilder("[");
+        for (long record = first; record <= last; record++) {
+            json.append(record > first ? "," : "").append("{\"Id\":\"").append(record)
+                    .append("\",\"Nombre\":\"Consultorio ").append(record)
+                    .append("\",\"Latitud\":\"19.43\",\"Longitud\":\"-99.13\"}");
+        }
+        json.append("]");
+        boolean gzip = exchange.getRequestHeaders().getFirst("Accept-Encoding") != null
+                && exchange.getRequestHeaders().getFirst("Accept-Encoding").contains("gzip");
+        send(exchange, 200, json.toString().getBytes(StandardCharsets.UTF_8), gzip);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body, boolean gzip)
+            throws IOException {
+        byte[] payload = body;
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+                output.write(body);
+            }
+            payload = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, payload.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(payload);
+        }
+    }
+
+    private ExternalClinicApiClient client(int pageSize, int parallelism, long maxRecords) {
+        return new ExternalClinicApiClient("token",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/denue", pageSize,
+                parallelism, maxRecords, Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    private static List<ExternalClinicResponseDTO> fetchAll(ExternalClinicApiClient client) {
+        List<ExternalClinicResponseDTO> records = new ArrayList<>();
+        client.fetchClinics(records::add);
+        return records;
+    }
+
+    @Test
+    void testFetchesEveryPageInOrder() {
+        List<ExternalClinicResponseDTO> clinics = fetchAll(client(10, 3, 0));
+
+        assertEquals(TOTAL_RECORDS, clinics.size());
+        for (int i = 0; i < TOTAL_RECORDS; i++) {
+            assertEquals(String.valueOf(i + 1), clinics.get(i).getId());
+        }
+        assertEquals("Consultorio 25", clinics.get(24).getNombre());
+        assertEquals("19.43", clinics.get(0).getLatitud());
+    }
+
+    @Test
+    void testStopsAtMaxRecords() {
+        List<ExternalClinicResponseDTO> clinics = fetchAll(client(10, 4, 15));
+
+        assertEquals(15, clinics.size());
+        assertTrue(requestsByFirstRecord.keySet().stream().allMatch(first -> first <= 15));
+    }
+
+    @Test
+    void testResumesOneShardFromARecord() {
+        List<ExternalClinicResponseDTO> clinics = new ArrayList<>();
+        client(10, 2, 0).fetchClinics("09", "Consultorios dentales", 11, clinics::add);
+
+        assertEquals(TOTAL_RECORDS - 10, clinics.size());
+        assertEquals("11", clinics.get(0).getId());
+        assertTrue(requestsByFirstRecord.keySet().stream().allMatch(first -> first >= 11));
+        assertTrue(requestedEntities.stream().allMatch("09"::equals));
+    }
+
+    @Test
+    void testRetriesRateLimitedPages() {
+        failuresBeforeSuccess = 2;
+
+        List<ExternalClinicResponseDTO> clinics = fetchAll(client(10, 2, 0));
+
+        assertEquals(TOTAL_RECORDS, clinics.size());
+        assertEquals(3, requestsByFirstRecord.get(1L).get());
+        assertTrue(rateLimitedResponses.get() >= 2);
+    }
+
+    @Test
+    void testGivesUpWhenAskedToWaitTooLong() {
+        failuresBeforeSuccess = Integer.MAX_VALUE;
+        retryAfter = "3600";
+
+        RuntimeException error =
+                assertThrows(RuntimeException.class, () -> fetchAll(client(10, 1, 0)));
+
+        assertTrue(error.getMessage().contains("retry requested after 3600s"));
+        assertEquals(1, requestsByFirstRecord.get(1L).get());
+    }
+
+    @Test
+    void testGivesUpOnClientErrors() {
+        failuresBeforeSuccess = Integer.MAX_VALUE;
+        failureStatus = 404;
+
+        RuntimeException error =
+                assertThrows(RuntimeException.class, () -> fetchAll(client(10, 1, 0)));
+
+        assertTrue(error.getMessage().contains("Response code: 404"));
+        assertEquals(1, requestsByFirstRecord.get(1L).get());
+    }
+
+    @Test
+    void testGivesUpAfterRepeatedServerErrors() {
+        failuresBeforeSuccess = Integer.MAX_VALUE;
+        failureStatus = 503;
+
+        assertThrows(RuntimeException.class, () -> fetchAll(client(10, 1, 0)));
+        assertEquals(4, requestsByFirstRecord.get(1L).get());
+    }
+}
@@ -0,0 +1,123 @@
+package com.medspace.infrastructure.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BackgroundJobRunnerTest {
+    private final BackgroundJobRunner runner = new BackgroundJobRunner();
+
+    @AfterEach
+    void shutdown() {
+        runner.shutdown();
+    }
+
+    private static void awaitFinished(BackgroundJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(job.isFinished(), "job did not finish");
+    }
+
+    @Test
+    void testReportsProgressAndResult() throws InterruptedException {
+        BackgroundJob job = runner.submit("load", progress -> {
+            progress.step("Loading");
+            progress.advance(1000, 10);
+            progress.advance(500, 0);
+            return "done";
+        });
+        awaitFinished(job);
+
+        assertEquals(BackgroundJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals("done", job.getResult());
+        assertEquals("Loading", job.getStep());
+        assertEquals(2, job.getPages());
+        assertEquals(1500, job.getRows());
+        assertEquals(10, job.getRowsWritten());
+        assertEquals(job, runner.getJob(job.getId()));
+    }
+
+    @Test
+    void testRunsOneJobPerKind() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BackgroundJob first = runner.submit("load", progress -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+
+        assertThrows(IllegalStateException.class, () -> runner.submit("load", progress -> null));
+        BackgroundJob other = runner.submit("specialties", progress -> null);
+        awaitFinished(other);
+
+        release.countDown();
+        awaitFinished(first);
+        BackgroundJob next = runner.submit("load", progress -> null);
+        assertNotEquals(first.getId(), next.getId());
+    }
+
+    @Test
+    void testJobsSharingAKeyRunOneAtATime() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BackgroundJob load = runner.submit("load", "clinics", progress -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+
+        IllegalStateException conflict = assertThrows(IllegalStateException.class,
+                () -> runner.submit("specialties", "clinics", progress -> null));
+        assertTrue(conflict.getMessage().contains("load job"));
+
+        release.countDown();
+        awaitFinished(load);
+        awaitFinished(runner.submit("specialties", "clinics", progress -> null));
+    }
+
+    @Test
+    void testCancelInterruptsTheJob() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        BackgroundJob job = runner.submit("load", progress -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted", e);
+            }
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        runner.cancel(job.getId());
+        awaitFinished(job);
+
+        assertEquals(BackgroundJob.Status.CANCELLED, job.getStatus());
+        assertNull(job.getError());
+    }
+
+    @Test
+    void testRecordsFailures() throws InterruptedException {
+        BackgroundJob job = runner.submit("load", progress -> {
+            throw new IllegalArgumentException("Bad page");
+        });
+        awaitFinished(job);
+
+        assertEquals(BackgroundJob.Status.FAILED, job.getStatus());
+        assertEquals("Bad page", job.getError());
+    }
+}
@@ -0,0 +1,49 @@
+package com.medspace.infrastructure.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.medspace.application.usecase.externalClinic.LoadExternalClinicsUseCase;
+import com.medspace.domain.model.ExternalClinicSyncCheckpoint;
+import com.medspace.domain.repository.ExternalClinicSyncCheckpointRepository;
+import com.medspace.infrastructure.client.ExternalClinicApiClient;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+// Runs a real load job on the runner's thread, with only the API stubbed out
+@QuarkusTest
+class ExternalClinicLoadJobTest {
+    @InjectMock
+    ExternalClinicApiClient apiClient;
+
+    @Inject
+    LoadExternalClinicsUseCase loadExternalClinicsUseCase;
+
+    @Inject
+    BackgroundJobRunner jobRunner;
+
+    @Inject
+    ExternalClinicSyncCheckpointRepository checkpointRepository;
+
+    @Test
+    void testLoadJobReadsAndSavesCheckpoints() throws InterruptedException {
+        BackgroundJob job = jobRunner.getJob(loadExternalClinicsUseCase.execute().getId());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(BackgroundJob.Status.SUCCEEDED, job.getStatus(), job.getError());
+        List<ExternalClinicSyncCheckpoint> shards = checkpointRepository.getCheckpoints().stream()
+                .filter(shard -> ExternalClinicApiClient.DEFAULT_ACTIVITY
+                        .equals(shard.getActivity()))
+                .toList();
+        assertEquals(32, shards.size());
+        assertTrue(shards.stream().allMatch(
+                shard -> shard.getStatus() == ExternalClinicSyncCheckpoint.Status.COMPLETED));
+    }
+}
@@ -0,0 +1,98 @@
+package com.medspace.infrastructure.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import com.medspace.domain.model.ExternalClinic;
+import com.medspace.infrastructure.entity.ExternalClinicEntity;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+@QuarkusTest
+class ExternalClinicRepositoryImplTest {
+    private static final String SEEDED_ID_PREFIX = "upsert-test-";
+    private static final Instant FIRST_LOADED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Inject
+    ExternalClinicRepositoryImpl repository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @AfterEach
+    void removeSeededClinics() {
+        QuarkusTransaction.requiringNew().run(() -> entityManager
+                .createQuery("DELETE FROM ExternalClinicEntity e WHERE e.externalId LIKE :prefix")
+                .setParameter("prefix", SEEDED_ID_PREFIX + "%").executeUpdate());
+    }
+
+    private static ExternalClinic clinic(int number, String nombre, Instant createdAt) {
+        ExternalClinic clinic = new ExternalClinic();
+        clinic.setExternalId(SEEDED_ID_PREFIX + number);
+        clinic.setNombre(nombre);
+        clinic.setLatitud(19.4);
+        clinic.setLongitud(-99.1);
+        clinic.setContentHash(nombre);
+        clinic.setCreatedAt(createdAt);
+        return clinic;
+    }
+
+    private List<ExternalClinicEntity> stored() {
+        return QuarkusTransaction.requiringNew().call(() -> entityManager
+                .createQuery("FROM ExternalClinicEntity e WHERE e.externalId LIKE :prefix"
+                        + " ORDER BY e.externalId", ExternalClinicEntity.class)
+                .setParameter("prefix", SEEDED_ID_PREFIX + "%").getResultList());
+    }
+
+    @Test
+    void testSaveAllUpdatesReloadedClinicsInPlace() {
+        repository.saveAll(List.of(clinic(1, "Consultorio", FIRST_LOADED_AT),
+                clinic(2, "Farmacia", FIRST_LOADED_AT)));
+        List<ExternalClinicEntity> first = stored();
+
+        repository.saveAll(List.of(clinic(1, "Consultorio dental", Instant.now()),
+                clinic(3, "Laboratorio", Instant.now())));
+        List<ExternalClinicEntity> second = stored();
+
+        assertEquals(3, second.size());
+        // Same row, new content, original created_at
+        assertEquals(first.get(0).getId(), second.get(0).getId());
+        assertEquals("Consultorio dental", second.get(0).getNombre());
+        assertEquals(FIRST_LOADED_AT,
+                second.get(0).getCreatedAt().truncatedTo(ChronoUnit.SECONDS));
+        assertEquals("Farmacia", second.get(1).getNombre());
+        assertEquals("Laboratorio", second.get(2).getNombre());
+    }
+
+    @Test
+    void testSaveAllWritesEveryChunk() {
+        // More than one upsert chunk
+        List<ExternalClinic> clinics = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            clinics.add(clinic(i, "Consultorio " + i, FIRST_LOADED_AT));
+        }
+
+        repository.saveAll(clinics);
+
+        assertEquals(2500, stored().size());
+    }
+
+    @Test
+    void testFindChangedComparesContentHashes() {
+        repository.saveAll(List.of(clinic(1, "Consultorio", FIRST_LOADED_AT),
+                clinic(2, "Farmacia", FIRST_LOADED_AT)));
+
+        ExternalClinic unchanged = clinic(1, "Consultorio", Instant.now());
+        ExternalClinic changed = clinic(2, "Farmacia del centro", Instant.now());
+        ExternalClinic added = clinic(3, "Laboratorio", Instant.now());
+
+        assertEquals(List.of(changed, added),
+                repository.findChanged(List.of(unchanged, changed, added)));
+    }
+}
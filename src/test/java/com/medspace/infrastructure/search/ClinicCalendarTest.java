@@ -0,0 +1,52 @@
+package com.medspace.infrastructure.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ClinicCalendarTest {
+
+    // Monday 2025-06-02 to Sunday 2025-06-15, open Monday to Friday, Wednesday 4th booked
+    private ClinicCalendar calendar() {
+        LocalDate first = LocalDate.of(2025, 6, 2);
+        BitSet booked = new BitSet();
+        booked.set(2);
+        return new ClinicCalendar(first.toEpochDay(), LocalDate.of(2025, 6, 15).toEpochDay(),
+                0b0011111, booked);
+    }
+
+    @Test
+    void testIsFree() {
+        ClinicCalendar calendar = calendar();
+
+        assertTrue(calendar.isFree(LocalDate.of(2025, 6, 2)));
+        assertFalse(calendar.isFree(LocalDate.of(2025, 6, 4)));
+        assertFalse(calendar.isFree(LocalDate.of(2025, 6, 7)));
+        assertFalse(calendar.isFree(LocalDate.of(2025, 6, 1)));
+        assertFalse(calendar.isFree(LocalDate.of(2025, 6, 16)));
+    }
+
+    @Test
+    void testFreeDaysInRange() {
+        List<LocalDate> freeDays =
+                calendar().freeDays(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 8));
+
+        assertEquals(List.of(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 3),
+                LocalDate.of(2025, 6, 5), LocalDate.of(2025, 6, 6)), freeDays);
+    }
+
+    @Test
+    void testNextFreeDays() {
+        List<LocalDate> freeDays = calendar().nextFreeDays(LocalDate.of(2025, 6, 6), 3);
+
+        assertEquals(List.of(LocalDate.of(2025, 6, 6), LocalDate.of(2025, 6, 9),
+                LocalDate.of(2025, 6, 10)), freeDays);
+        // Stops at the end of the availability window
+        assertEquals(List.of(LocalDate.of(2025, 6, 12), LocalDate.of(2025, 6, 13)),
+                calendar().nextFreeDays(LocalDate.of(2025, 6, 12), 10));
+    }
+}
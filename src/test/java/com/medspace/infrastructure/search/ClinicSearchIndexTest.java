@@ -0,0 +1,300 @@
+package com.medspace.infrastructure.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.medspace.domain.event.ClinicChangedEvent;
+import com.medspace.domain.model.Clinic;
+import com.medspace.domain.model.ClinicAvailability;
+import com.medspace.infrastructure.dto.clinic.ClinicFacetCountDTO;
+import com.medspace.infrastructure.dto.clinic.ClinicQueryDTO;
+import com.medspace.infrastructure.util.TextNormalizer;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Runs the index over clinics held in memory instead of the database
+class ClinicSearchIndexTest {
+    private static final LocalDate JUNE_1 = LocalDate.of(2025, 6, 1);
+    private static final LocalDate DECEMBER_31 = LocalDate.of(2025, 12, 31);
+
+    private final Map<Long, Row> rows = new LinkedHashMap<>();
+    private ClinicSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Clinics 1 and 2 are about a kilometre apart in Guadalajara, 3 is in Querétaro and 4
+        // has no coordinates. Clinic 2 is only available in June and booked on June 3rd.
+        add(new Row(1L, "Guadalajara", Clinic.Category.DENTIST, 20.6597, -103.3496)
+                .text("Clínica Dental Sonrisa", "Consultorio con rayos x")
+                .equipment("Rayos X").slot(ClinicAvailability.WeekDay.MONDAY, 9, 14));
+        add(new Row(2L, "Guadalajara", Clinic.Category.PEDIATRIC, 20.6700, -103.3500)
+                .text("Consultorio Pediátrico", "Atención dental infantil")
+                .equipment("Camilla").slot(ClinicAvailability.WeekDay.TUESDAY, 16, 20)
+                .window(JUNE_1, LocalDate.of(2025, 6, 30)).booked(LocalDate.of(2025, 6, 3)));
+        add(new Row(3L, "Querétaro", Clinic.Category.PSYCHOLOGICAL, 20.5888, -100.3899)
+                .text("Centro Psicológico", "Terapia individual").equipment("Diván"));
+        add(new Row(4L, "Monterrey", Clinic.Category.GENERAL_PURPOSE, null, null)
+                .text("Clínica General Norte", null));
+
+        index = new ClinicSearchIndex() {
+            @Override
+            Map<Long, ClinicSearchDocument> loadDocuments(Long clinicId) {
+                Map<Long, ClinicSearchDocument> loaded = new LinkedHashMap<>();
+                for (Row row : rowsFor(clinicId)) {
+                    loaded.put(row.id, row.document());
+                }
+                return loaded;
+            }
+        };
+        index.textIndex = new ClinicTextIndex() {
+            @Override
+            Map<Long, Map<String, Integer>> loadDocuments(Long clinicId) {
+                Map<Long, Map<String, Integer>> loaded = new HashMap<>();
+                for (Row row : rowsFor(clinicId)) {
+                    loaded.put(row.id, documentTerms(row.displayName, row.description));
+                }
+                return loaded;
+            }
+        };
+        index.bookingCalendar = new ClinicBookingCalendar() {
+            @Override
+            Map<Long, ClinicCalendar> loadCalendars(Long clinicId) {
+                Map<Long, ClinicCalendar> loaded = new HashMap<>();
+                for (Row row : rowsFor(clinicId)) {
+                    loaded.put(row.id, row.calendar());
+                }
+                return loaded;
+            }
+        };
+    }
+
+    @Test
+    void testFiltersByCityAndCategory() {
+        ClinicQueryDTO byCity = new ClinicQueryDTO();
+        byCity.setTargetCity(" GUADALAJARA ");
+        assertEquals(List.of(1L, 2L), index.search(byCity));
+
+        // City names match regardless of accents and case
+        byCity.setTargetCity("queretaro");
+        assertEquals(List.of(3L), index.search(byCity));
+
+        byCity.setTargetCity("Guadalajara");
+        byCity.setTargetCategory(Clinic.Category.PEDIATRIC);
+        assertEquals(List.of(2L), index.search(byCity));
+    }
+
+    @Test
+    void testMatchesAnyEquipmentIgnoringCase() {
+        ClinicQueryDTO filter = new ClinicQueryDTO();
+        filter.setEquipmentList(List.of("rayos x", "CAMILLA"));
+        assertEquals(List.of(1L, 2L), index.search(filter));
+
+        filter.setEquipmentList(List.of("Resonancia"));
+        assertEquals(List.of(), index.search(filter));
+    }
+
+    @Test
+    void testFiltersByDateWindowAndHour() {
+        ClinicQueryDTO filter = new ClinicQueryDTO();
+        filter.setTargetDate(Date.valueOf(LocalDate.of(2025, 7, 15)));
+        assertEquals(List.of(1L, 3L, 4L), index.search(filter));
+
+        // Slot ends are inclusive
+        ClinicQueryDTO byHour = new ClinicQueryDTO();
+        byHour.setTargetHour(LocalTime.of(14, 0));
+        assertEquals(List.of(1L), index.search(byHour));
+        byHour.setTargetHour(LocalTime.of(18, 30));
+        assertEquals(List.of(2L), index.search(byHour));
+    }
+
+    @Test
+    void testNearbyOrderedByDistance() {
+        ClinicQueryDTO filter = new ClinicQueryDTO();
+        filter.setLatitude(20.6597);
+        filter.setLongitude(-103.3496);
+        // Clinics without coordinates are never near anything
+        assertEquals(List.of(1L, 2L, 3L), index.search(filter));
+
+        filter.setRadiusKm(5.0);
+        assertEquals(List.of(1L, 2L), index.search(filter));
+
+        filter.setRadiusKm(null);
+        filter.setLimit(1);
+        assertEquals(List.of(1L), index.search(filter));
+    }
+
+    @Test
+    void testBoundingBox() {
+        ClinicQueryDTO filter = new ClinicQueryDTO();
+        filter.setMinLatitude(20.5);
+        filter.setMinLongitude(-101.0);
+        filter.setMaxLatitude(21.0);
+        filter.setMaxLongitude(-100.0);
+        assertEquals(List.of(3L), index.search(filter));
+
+        filter.setMinLongitude(-104.0);
+        filter.setTargetCategory(Clinic.Category.DENTIST);
+        assertEquals(List.of(1L), index.search(filter));
+    }
+
+    @Test
+    void testFreeOnDateSet() {
+        ClinicQueryDTO filter = new ClinicQueryDTO();
+        filter.setTargetDates(List.of(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 3)));
+        // Without a minimum every date must be free
+        assertEquals(List.of(1L, 3L, 4L), index.search(filter));
+
+        filter.setMinFreeDates(1);
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.search(filter));
+
+        filter.setTargetDates(List.of(LocalDate.of(2025, 7, 1)));
+        assertEquals(List.of(1L, 3L, 4L), index.search(filter));
+    }
+
+    @Test
+    void testTextQueryRankedByRelevance() {
+        ClinicQueryDTO filter = new ClinicQueryDTO();
+        // Name matches outweigh description matches
+        filter.setTextQuery("dental");
+        assertEquals(List.of(1L, 2L), index.search(filter));
+
+        // Accents are folded and partial words match while typing
+        filter.setTextQuery("psico");
+        assertEquals(List.of(3L), index.search(filter));
+
+        filter.setTextQuery("dental");
+        filter.setTargetCategory(Clinic.Category.PEDIATRIC);
+        assertEquals(List.of(2L), index.search(filter));
+    }
+
+    @Test
+    void testFacetCounts() {
+        assertEquals(4, index.countClinics(null, null));
+        assertEquals(2, index.countClinics(null, "guadalajara"));
+        assertEquals(1, index.countClinics(Clinic.Category.DENTIST, "Guadalajara"));
+        assertEquals(0, index.countClinics(Clinic.Category.DENTIST, "Querétaro"));
+
+        List<ClinicFacetCountDTO> counts = index.getFacetCounts(true);
+        assertEquals(1, count(counts, null, "guadalajara", "rayos x"));
+        assertTrue(counts.stream().anyMatch(cell -> "guadalajara".equals(cell.getCity())
+                && "Guadalajara".equals(cell.getCityLabel())));
+        assertTrue(index.getFacetCounts(false).stream()
+                .allMatch(cell -> cell.getEquipmentType() == null));
+    }
+
+    @Test
+    void testAppliesCommittedChanges() {
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.search(new ClinicQueryDTO()));
+
+        add(new Row(2L, "Querétaro", Clinic.Category.PEDIATRIC, 20.59, -100.39));
+        index.onClinicChanged(new ClinicChangedEvent(2L, ClinicChangedEvent.Type.UPDATED));
+        rows.remove(1L);
+        index.onClinicChanged(new ClinicChangedEvent(1L, ClinicChangedEvent.Type.DELETED));
+
+        ClinicQueryDTO byCity = new ClinicQueryDTO();
+        byCity.setTargetCity("Guadalajara");
+        assertEquals(List.of(), index.search(byCity));
+        byCity.setTargetCity("Querétaro");
+        assertEquals(List.of(2L, 3L), index.search(byCity));
+        assertEquals(3, index.countClinics(null, null));
+        assertEquals(0, count(index.getFacetCounts(true), null, null, "rayos x"));
+    }
+
+    private void add(Row row) {
+        rows.put(row.id, row);
+    }
+
+    private List<Row> rowsFor(Long clinicId) {
+        if (clinicId == null) {
+            return new ArrayList<>(rows.values());
+        }
+        return rows.containsKey(clinicId) ? List.of(rows.get(clinicId)) : List.of();
+    }
+
+    private static long count(List<ClinicFacetCountDTO> counts, Clinic.Category category,
+            String city, String equipmentType) {
+        return counts.stream()
+                .filter(cell -> cell.getCategory() == category)
+                .filter(cell -> city == null ? cell.getCity() == null : city.equals(cell.getCity()))
+                .filter(cell -> equipmentType.equals(cell.getEquipmentType()))
+                .mapToLong(ClinicFacetCountDTO::getCount)
+                .sum();
+    }
+
+    // A clinic as the index would read it from its table and child tables
+    private static class Row {
+        final Long id;
+        final String city;
+        final Clinic.Category category;
+        final Double latitude;
+        final Double longitude;
+        String displayName;
+        String description;
+        LocalDate availableFrom = LocalDate.of(2025, 1, 1);
+        LocalDate availableTo = DECEMBER_31;
+        final List<String> equipmentTypes = new ArrayList<>();
+        final List<ClinicSearchIndex.ClinicSearchDocument.Slot> slots = new ArrayList<>();
+        final BitSet booked = new BitSet();
+
+        Row(Long id, String city, Clinic.Category category, Double latitude, Double longitude) {
+            this.id = id;
+            this.city = city;
+            this.category = category;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        Row text(String displayName, String description) {
+            this.displayName = displayName;
+            this.description = description;
+            return this;
+        }
+
+        Row equipment(String type) {
+            equipmentTypes.add(type);
+            return this;
+        }
+
+        Row slot(ClinicAvailability.WeekDay weekDay, int fromHour, int toHour) {
+            slots.add(new ClinicSearchIndex.ClinicSearchDocument.Slot(weekDay,
+                    LocalTime.of(fromHour, 0), LocalTime.of(toHour, 0)));
+            return this;
+        }
+
+        Row window(LocalDate from, LocalDate to) {
+            availableFrom = from;
+            availableTo = to;
+            return this;
+        }
+
+        Row booked(LocalDate day) {
+            booked.set((int) (day.toEpochDay() - availableFrom.toEpochDay()));
+            return this;
+        }
+
+        // A new document per load, as the index keeps the instance it is given
+        ClinicSearchIndex.ClinicSearchDocument document() {
+            ClinicSearchIndex.ClinicSearchDocument document =
+                    new ClinicSearchIndex.ClinicSearchDocument(id,
+                            TextNormalizer.normalizeCity(city), city, category,
+                            availableFrom.toEpochDay(), availableTo.toEpochDay(), latitude,
+                            longitude);
+            equipmentTypes.forEach(document::addEquipmentType);
+            document.availabilities.addAll(slots);
+            return document;
+        }
+
+        ClinicCalendar calendar() {
+            return new ClinicCalendar(availableFrom.toEpochDay(), availableTo.toEpochDay(),
+                    ClinicCalendar.ALL_WEEK_DAYS, booked);
+        }
+    }
+}
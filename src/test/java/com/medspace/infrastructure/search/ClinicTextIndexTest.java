@@ -0,0 +1,58 @@
+package com.medspace.infrastructure.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ClinicTextIndexTest {
+
+    private static ClinicTextIndex indexOf(Map<Long, String> names) {
+        return new ClinicTextIndex() {
+            @Override
+            Map<Long, Map<String, Integer>> loadDocuments(Long clinicId) {
+                Map<Long, Map<String, Integer>> loaded = new HashMap<>();
+                names.forEach((id, name) -> {
+                    if (clinicId == null || clinicId.equals(id)) {
+                        loaded.put(id, documentTerms(name, ""));
+                    }
+                });
+                return loaded;
+            }
+        };
+    }
+
+    @Test
+    void testCapsExpansionsByDocumentFrequencyThenTerm() {
+        // 70 words containing "dent" once each, and one in two clinics
+        Map<Long, String> names = new HashMap<>();
+        for (long id = 1; id <= 70; id++) {
+            names.put(id, String.format("xdent%02d", id));
+        }
+        names.put(101L, "zdentz");
+        names.put(102L, "zdentz");
+
+        Map<Long, Double> scores = indexOf(names).search("dent");
+
+        // zdentz, then the first 63 of xdent01..xdent70
+        assertEquals(65, scores.size());
+        assertTrue(scores.containsKey(101L));
+        assertTrue(scores.containsKey(102L));
+        assertTrue(scores.containsKey(63L));
+        assertFalse(scores.containsKey(64L));
+    }
+
+    @Test
+    void testKeepsTheExactTermPastTheCap() {
+        Map<Long, String> names = new HashMap<>();
+        for (long id = 1; id <= 70; id++) {
+            names.put(id, String.format("dent%02d", id));
+            names.put(100 + id, String.format("dent%02d", id));
+        }
+        names.put(200L, "dent");
+
+        assertTrue(indexOf(names).search("dent").containsKey(200L));
+    }
+}
@@ -0,0 +1,146 @@
+package com.medspace.infrastructure.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicTileCellDTO;
+import com.medspace.infrastructure.dto.externalClinic.ExternalClinicTileDTO;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TilePyramidTest {
+
+    // Two clinics a few metres apart in Mexico City and one in Guadalajara
+    private TilePyramid pyramid() {
+        return new TilePyramid.Builder()
+                .add(19.4326, -99.1332, "Dental")
+                .add(19.4327, -99.1333, "Pediatría")
+                .add(20.6597, -103.3496, "Dental")
+                .build();
+    }
+
+    @Test
+    void testWorldTileCountsEveryPoint() {
+        ExternalClinicTileDTO tile = pyramid().tile(0, 0, 0);
+
+        // At this zoom both cities share one 45 degree cell
+        assertEquals(3, tile.getTotal());
+        assertEquals(1, tile.getCells().size());
+        assertEquals(Map.of("Dental", 2, "Pediatría", 1),
+                tile.getCells().get(0).getSpecialties());
+    }
+
+    @Test
+    void testCellBreakdownAndCentroid() {
+        ExternalClinicTileDTO tile = pyramid().tile(10, tileX(-99.1332, 10), tileY(19.4326, 10));
+
+        assertEquals(2, tile.getTotal());
+        List<ExternalClinicTileCellDTO> cells = tile.getCells();
+        assertEquals(1, cells.size());
+        assertEquals(Map.of("Dental", 1, "Pediatría", 1), cells.get(0).getSpecialties());
+        assertEquals(19.43265, cells.get(0).getLatitude(), 1e-4);
+        assertEquals(-99.13325, cells.get(0).getLongitude(), 1e-4);
+    }
+
+    @Test
+    void testDeepTilesAreAggregatedFromPoints() {
+        TilePyramid pyramid = pyramid();
+
+        // Below the precomputed levels the two Mexico City clinics fall into separate cells
+        ExternalClinicTileDTO tile =
+                pyramid.tile(18, tileX(-99.1332, 18), tileY(19.4326, 18));
+        assertEquals(2, tile.getTotal());
+        assertEquals(2, tile.getCells().size());
+        assertEquals(1, pyramid.tile(18, tileX(-103.3496, 18), tileY(20.6597, 18)).getTotal());
+        assertEquals(0, pyramid.tile(18, 0, 0).getTotal());
+    }
+
+    @Test
+    void testSpecialtiesOrderedByCount() {
+        TilePyramid pyramid = new TilePyramid.Builder()
+                .add(19.4326, -99.1332, "Dental")
+                .add(19.4326, -99.1332, "Pediatría")
+                .add(19.4326, -99.1332, "Pediatría")
+                .add(19.4326, -99.1332, null)
+                .build();
+
+        Map<String, Integer> specialties =
+                pyramid.tile(0, 0, 0).getCells().get(0).getSpecialties();
+        assertEquals(List.of("Pediatría", "Dental", ""), List.copyOf(specialties.keySet()));
+    }
+
+    @Test
+    void testReplacesPointsByKey() {
+        TilePyramid pyramid = new TilePyramid.Builder()
+                .add(1, 19.4326, -99.1332, "Dental")
+                .add(2, 20.6597, -103.3496, "Dental")
+                .add(19.4327, -99.1333, "Pediatría")
+                .build();
+
+        // Clinic 1 moves to Guadalajara and clinic 2 is re-classified; the unkeyed point stays
+        TilePyramid replaced = pyramid.toBuilder(Set.of(1L, 2L))
+                .add(1, 20.6597, -103.3496, "Dental")
+                .add(2, 20.6597, -103.3496, "Pediatría")
+                .build();
+
+        assertEquals(3, replaced.size());
+        assertEquals(Map.of("Pediatría", 1), replaced
+                .tile(10, tileX(-99.1332, 10), tileY(19.4326, 10)).getCells().get(0)
+                .getSpecialties());
+        assertEquals(Map.of("Dental", 1, "Pediatría", 1), replaced
+                .tile(10, tileX(-103.3496, 10), tileY(20.6597, 10)).getCells().get(0)
+                .getSpecialties());
+        // The original is unchanged
+        assertEquals(2, pyramid.tile(10, tileX(-99.1332, 10), tileY(19.4326, 10)).getTotal());
+    }
+
+    @Test
+    void testTileIndexAppliesLatestChangePerClinic() {
+        long key = ExternalClinicTileIndex.key("100");
+        TilePyramid pyramid = new TilePyramid.Builder()
+                .add(key, 19.4326, -99.1332, "Dental")
+                .add(ExternalClinicTileIndex.key("200"), 20.6597, -103.3496, "Dental")
+                .build();
+
+        TilePyramid replaced = ExternalClinicTileIndex.replace(pyramid, List.of(
+                new ExternalClinicTileIndex.PendingPoint(key, 20.6597, -103.3496, "Dental"),
+                new ExternalClinicTileIndex.PendingPoint(key, 19.4326, -99.1332, "Pediatría"),
+                // Lost its coordinates, so it leaves the map
+                new ExternalClinicTileIndex.PendingPoint(ExternalClinicTileIndex.key("200"),
+                        null, null, "Dental")));
+
+        assertEquals(1, replaced.size());
+        assertEquals(Map.of("Pediatría", 1),
+                replaced.tile(0, 0, 0).getCells().get(0).getSpecialties());
+    }
+
+    @Test
+    void testInvalidTiles() {
+        TilePyramid pyramid = pyramid();
+
+        assertThrows(IllegalArgumentException.class, () -> pyramid.tile(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> pyramid.tile(TilePyramid.MAX_TILE_ZOOM + 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.tile(1, 2, 0));
+    }
+
+    @Test
+    void testEmptyPyramid() {
+        ExternalClinicTileDTO tile = new TilePyramid.Builder().build().tile(0, 0, 0);
+
+        assertEquals(0, tile.getTotal());
+        assertTrue(tile.getCells().isEmpty());
+    }
+
+    private static int tileX(double longitude, int zoom) {
+        return (int) Math.floor((longitude + 180) / 360 * (1 << zoom));
+    }
+
+    private static int tileY(double latitude, int zoom) {
+        double radians = Math.toRadians(latitude);
+        double y = (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2;
+        return (int) Math.floor(y * (1 << zoom));
+    }
+}
@@ -0,0 +1,72 @@
+package com.medspace.infrastructure.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class BoundedPipelineTest {
+
+    @Test
+    void testRecordsFlowInOrderInChunks() {
+        List<List<String>> chunks = new ArrayList<>();
+
+        List<BoundedPipeline.StageStats> stats = BoundedPipeline
+                .<Integer>from("source", 4, sink -> IntStream.range(0, 25).forEach(sink::accept))
+                .map("double", value -> value * 2)
+                .map("format", value -> "#" + value)
+                .into("collect", 10, chunks::add);
+
+        assertEquals(List.of(10, 10, 5), chunks.stream().map(List::size).toList());
+        assertEquals("#0", chunks.get(0).get(0));
+        assertEquals("#48", chunks.get(2).get(4));
+        assertEquals(List.of("source", "double", "format", "collect"),
+                stats.stream().map(BoundedPipeline.StageStats::getStage).toList());
+        assertTrue(stats.stream().allMatch(stage -> stage.getRecords() == 25));
+    }
+
+    @Test
+    void testQueuesBoundRecordsInFlight() {
+        AtomicInteger produced = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+
+        BoundedPipeline.<Integer>from("source", 2, sink -> {
+            for (int i = 0; i < 200; i++) {
+                sink.accept(i);
+                int ahead = produced.incrementAndGet() - consumed.get();
+                maxAhead.accumulateAndGet(ahead, Math::max);
+            }
+        }).into("slow", 1, chunk -> {
+            consumed.incrementAndGet();
+            Thread.yield();
+        });
+
+        // Queue capacity, the record the sink holds and one racing the counters
+        assertTrue(maxAhead.get() <= 5, "ahead: " + maxAhead.get());
+        assertEquals(200, consumed.get());
+    }
+
+    @Test
+    void testFailureStopsEveryStage() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> BoundedPipeline.<Integer>from("source", 2, sink -> {
+                    // Would never end if the failure downstream didn't stop it
+                    for (int i = 0;; i++) {
+                        sink.accept(i);
+                    }
+                }).map("fail", value -> {
+                    if (value == 10) {
+                        throw new IllegalStateException("bad record");
+                    }
+                    return value;
+                }).into("sink", 5, chunk -> {
+                }));
+
+        assertEquals("bad record", error.getMessage());
+    }
+}
@@ -0,0 +1,72 @@
+package com.medspace.infrastructure.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+
+class JsonStreamingTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static void twoRows(Consumer<Map<String, Object>> consumer) {
+        consumer.accept(Map.of("id", 1));
+        consumer.accept(Map.of("id", 2));
+    }
+
+    private static String write(StreamingOutput output) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        output.write(bytes);
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testList() throws IOException {
+        String json = write(JsonStreaming.list(mapper, "Users fetched",
+                JsonStreamingTest::twoRows));
+
+        assertEquals("{\"success\":true,\"message\":\"Users fetched\","
+                + "\"data\":[{\"id\":1},{\"id\":2}]}", json);
+    }
+
+    @Test
+    void testCountedList() throws IOException {
+        String json = write(JsonStreaming.countedList(mapper, "Dashboard data retrieved",
+                JsonStreamingTest::twoRows));
+
+        assertEquals("{\"success\":true,\"message\":\"Dashboard data retrieved\","
+                + "\"data\":{\"data\":[{\"id\":1},{\"id\":2}],\"totalRecords\":2}}", json);
+    }
+
+    @Test
+    void testEmptyList() throws IOException {
+        String json = write(JsonStreaming.countedList(mapper, "Empty", consumer -> {
+        }));
+
+        assertEquals("{\"success\":true,\"message\":\"Empty\","
+                + "\"data\":{\"data\":[],\"totalRecords\":0}}", json);
+    }
+
+    @Test
+    void testRethrowsWriteFailures() {
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Client went away");
+            }
+        };
+        // More rows than the generator buffers, so the failure surfaces while producing
+        StreamingOutput output = JsonStreaming.list(mapper, "Rows",
+                consumer -> List.of("x".repeat(10_000), "y".repeat(10_000)).forEach(consumer));
+
+        IOException e = assertThrows(IOException.class, () -> output.write(closed));
+        assertEquals("Client went away", e.getMessage());
+    }
+}
@@ -0,0 +1,41 @@
+package com.medspace.infrastructure.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+    private static String base64(String value) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRoundTrip() {
+        assertEquals(0L, KeysetCursor.decode(KeysetCursor.encode(0)));
+        assertEquals(123456789L, KeysetCursor.decode(KeysetCursor.encode(123456789)));
+        assertEquals(Long.MAX_VALUE, KeysetCursor.decode(KeysetCursor.encode(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void testMissingCursor() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+        assertNull(KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void testRejectsTamperedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(base64("42")));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(base64("page:42")));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(base64("id:42 OR 1=1")));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(base64("id:")));
+    }
+}
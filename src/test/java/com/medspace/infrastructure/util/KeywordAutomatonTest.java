@@ -0,0 +1,32 @@
+package com.medspace.infrastructure.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class KeywordAutomatonTest {
+    private static final List<String> KEYWORDS =
+            List.of("he", "she", "hers", "his", "clínica dental", "dental");
+
+    private static List<String> find(String text) {
+        KeywordAutomaton automaton = KeywordAutomaton.compile(KEYWORDS);
+        String normalized = TextNormalizer.normalizeWords(text);
+        return automaton.findAll(normalized).stream()
+                .map(match -> KEYWORDS.get(match.getKeyword()) + "@" + match.getStart())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void testFindsOverlappingWholeWords() {
+        assertEquals(List.of("she@0", "he@4", "hers@7"), find("she he hers"));
+        assertEquals(List.of("clínica dental@0", "dental@8"), find("Clinica DENTAL"));
+    }
+
+    @Test
+    void testIgnoresKeywordsInsideWords() {
+        assertTrue(find("ushers shepherd heres").isEmpty());
+        assertEquals(List.of("his@5"), find("this his"));
+    }
+}
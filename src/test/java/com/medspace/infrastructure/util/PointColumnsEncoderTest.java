@@ -0,0 +1,60 @@
+package com.medspace.infrastructure.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class PointColumnsEncoderTest {
+
+    @Test
+    void testLayout() throws Exception {
+        PointColumnsEncoder encoder = new PointColumnsEncoder("specialty");
+        encoder.point(19.5, -99.25).value("Dentista");
+        encoder.point(20.5, -98.25).value(null);
+        encoder.point(21.5, -97.25).value("Dentista");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        encoder.writeTo(output);
+        ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals("MSPT", readAscii(buffer, 4));
+        assertEquals(1, buffer.get());
+        assertEquals(1, buffer.get());
+        assertEquals(0, buffer.getShort());
+        assertEquals(3, buffer.getInt());
+        assertEquals("specialty", readString(buffer));
+        assertEquals(2, buffer.getShort());
+        assertEquals("Dentista", readString(buffer));
+        assertEquals("", readString(buffer));
+
+        // Float columns start 4-byte aligned
+        while (buffer.position() % 4 != 0) {
+            assertEquals(0, buffer.get());
+        }
+        assertEquals(19.5f, buffer.getFloat());
+        assertEquals(20.5f, buffer.getFloat());
+        assertEquals(21.5f, buffer.getFloat());
+        assertEquals(-99.25f, buffer.getFloat());
+        assertEquals(-98.25f, buffer.getFloat());
+        assertEquals(-97.25f, buffer.getFloat());
+        assertEquals(0, buffer.getShort());
+        assertEquals(1, buffer.getShort());
+        assertEquals(0, buffer.getShort());
+        assertEquals(0, buffer.remaining());
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String readAscii(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,41 @@
+package com.medspace.infrastructure.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class SpecialtyDetectorTest {
+
+    @Test
+    void testIgnoresCaseAndAccents() {
+        assertEquals("Pediatría", SpecialtyDetector.detectSpecialty("CONSULTORIO PEDIATRICO"));
+        assertEquals("Pediatría", SpecialtyDetector.detectSpecialty("Consultorio pediátrico"));
+    }
+
+    @Test
+    void testMatchesWholeWordsOnly() {
+        // "urólogo" is inside "neurólogo", and "niño" inside "femenino"
+        assertEquals("Neurología", SpecialtyDetector.detectSpecialty("Dr. Pérez, neurólogo"));
+        assertEquals("Ginecología",
+                SpecialtyDetector.detectSpecialty("Clínica de salud femenina"));
+    }
+
+    @Test
+    void testPrefersLongerMatches() {
+        assertEquals("Fisioterapia",
+                SpecialtyDetector.detectSpecialty("Centro de terapia física"));
+        assertEquals("Psicología", SpecialtyDetector.detectSpecialty("Centro de terapia"));
+    }
+
+    @Test
+    void testBreaksTiesByPriority() {
+        assertEquals("Pediatría", SpecialtyDetector.detectSpecialty("Dentista para niños"));
+        assertEquals("Pediatría", SpecialtyDetector.detectSpecialty("Niños, dentista"));
+    }
+
+    @Test
+    void testDefaultsToGeneralClinic() {
+        assertEquals("Clínica General", SpecialtyDetector.detectSpecialty("Consultorio médico"));
+        assertEquals("Clínica General", SpecialtyDetector.detectSpecialty(null));
+        assertEquals("Clínica General", SpecialtyDetector.detectSpecialty("   "));
+    }
+}
@@ -0,0 +1,31 @@
+package com.medspace.infrastructure.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TextNormalizerTest {
+
+    @Test
+    void testNormalizeCity() {
+        assertEquals("san_andres_cholula", TextNormalizer.normalizeCity("  San Andrés  Cholula "));
+        assertEquals("san_andres_cholula", TextNormalizer.normalizeCity("san_andres_cholula"));
+        assertEquals("merida", TextNormalizer.normalizeCity("MÉRIDA"));
+        assertEquals("", TextNormalizer.normalizeCity(null));
+    }
+
+    @Test
+    void testNormalizeWords() {
+        assertEquals("clinica dental nino 24h",
+                TextNormalizer.normalizeWords("  CLÍNICA   Dental-Niño (24h)"));
+        assertEquals("heroica puebla de zaragoza puebla puebla",
+                TextNormalizer.normalizeWords("Heroica Puebla de Zaragoza, Puebla, PUEBLA"));
+        assertEquals("", TextNormalizer.normalizeWords(" -- "));
+    }
+
+    @Test
+    void testTokenize() {
+        assertEquals(List.of("clinica", "dental", "nino", "24h"),
+                TextNormalizer.tokenize("Clínica Dental, Niño (24h)"));
+    }
+}